@@ -0,0 +1,67 @@
+package fr.umlv.info2.graphs.benchmarks;
+
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.ShortestPathFromAllVertices;
+import fr.umlv.info2.graphs.ShortestPathFromOneVertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the algorithms of Graphs on each representation. The parallel variants are measured next to the
+ * sequential algorithm they replace.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlgorithmBenchmark {
+
+    @Benchmark
+    public List<Integer> bfs(GraphState state) {
+        return Graphs.BFS(state.graph, 0);
+    }
+
+    @Benchmark
+    public List<Integer> dfs(GraphState state) {
+        return Graphs.DFS(state.graph, 0);
+    }
+
+    @Benchmark
+    public ShortestPathFromOneVertex dijkstra(GraphState state) {
+        return Graphs.dijkstra(state.graph, 0);
+    }
+
+    @Benchmark
+    public ShortestPathFromOneVertex deltaStepping(GraphState state) {
+        return Graphs.deltaStepping(state.graph, 0);
+    }
+
+    @Benchmark
+    public ShortestPathFromOneVertex bellmanFord(GraphState state) {
+        return Graphs.bellmanFord(state.graph, 0);
+    }
+
+    @Benchmark
+    public ShortestPathFromAllVertices floydWarshall(GraphState state) {
+        return Graphs.floydWarshall(state.graph);
+    }
+
+    @Benchmark
+    public List<List<Integer>> scc(GraphState state) {
+        return Graphs.scc(state.graph);
+    }
+
+    @Benchmark
+    public int[] parallelScc(GraphState state) {
+        return Graphs.parallelScc(state.graph);
+    }
+}
@@ -0,0 +1,88 @@
+package fr.umlv.info2.graphs.benchmarks;
+
+import fr.umlv.info2.graphs.Graph;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded synthetic graph shared by the benchmarks : every vertex has exactly 'degree' distinct successors chosen
+ * uniformly, with weights between 1 and 10. The same parameters always give the same graph, so results of two runs
+ * can be compared.
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+    private static final long SEED = 0x5EED;
+    private static final int MAX_WEIGHT = 10;
+
+    @Param({ "matrix", "list" })
+    public String type;
+
+    @Param({ "256", "1024" })
+    public int n;
+
+    @Param({ "4", "64" })
+    public int degree;
+
+    int[] sources;
+    int[] targets;
+    int[] weights;
+    Path matFile;
+    Graph graph;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (degree > n) {
+            throw new IllegalArgumentException("Degree should be less than the number of vertices");
+        }
+        var random = new SplittableRandom(SEED);
+        int m = n * degree;
+        sources = new int[m];
+        targets = new int[m];
+        weights = new int[m];
+        int[][] matrix = new int[n][n];
+        int edge = 0;
+        for (int s = 0 ; s < n ; ++s) {
+            for (int k = 0 ; k < degree ; ++k) {
+                int t;
+                do {
+                    t = random.nextInt(n);
+                } while (matrix[s][t] != 0);
+                matrix[s][t] = 1 + random.nextInt(MAX_WEIGHT);
+                sources[edge] = s;
+                targets[edge] = t;
+                weights[edge] = matrix[s][t];
+                edge++;
+            }
+        }
+        matFile = Files.createTempFile("graph-" + n + "-" + degree, ".mat");
+        try (BufferedWriter writer = Files.newBufferedWriter(matFile)) {
+            writer.write(Integer.toString(n));
+            writer.newLine();
+            for (int[] row : matrix) {
+                for (int t = 0 ; t < n ; ++t) {
+                    if (t != 0) {
+                        writer.write(' ');
+                    }
+                    writer.write(Integer.toString(row[t]));
+                }
+                writer.newLine();
+            }
+        }
+        graph = Graph.loadGraph(matFile.toString(), type);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(matFile);
+    }
+}
@@ -0,0 +1,42 @@
+package fr.umlv.info2.graphs.benchmarks;
+
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.MinPlus;
+import fr.umlv.info2.graphs.ShortestPathFromAllVertices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Floyd-Warshall of Graphs next to the scalar and vectorised kernels of MinPlus. The forked JVM is started with the
+ * Vector API module, otherwise MinPlus.vectorized() fails. The dense case is -p degree=64, for instance
+ * -PjmhArgs="MinPlusBenchmark -p degree=64".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class MinPlusBenchmark {
+
+    @Benchmark
+    public ShortestPathFromAllVertices floydWarshall(GraphState state) {
+        return Graphs.floydWarshall(state.graph);
+    }
+
+    @Benchmark
+    public ShortestPathFromAllVertices scalar(GraphState state) {
+        return MinPlus.scalar().floydWarshall(state.graph);
+    }
+
+    @Benchmark
+    public ShortestPathFromAllVertices vectorized(GraphState state) {
+        return MinPlus.vectorized().floydWarshall(state.graph);
+    }
+}
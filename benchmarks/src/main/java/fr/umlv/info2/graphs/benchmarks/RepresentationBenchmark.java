@@ -0,0 +1,49 @@
+package fr.umlv.info2.graphs.benchmarks;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.MatGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and scanning each representation of a graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepresentationBenchmark {
+
+    @Benchmark
+    public Graph loadGraph(GraphState state) throws IOException {
+        return Graph.loadGraph(state.matFile.toString(), state.type);
+    }
+
+    @Benchmark
+    public Graph addEdge(GraphState state) {
+        Graph g = state.type.equals("matrix") ? new MatGraph(state.n) : new AdjGraph(state.n);
+        for (int i = 0 ; i < state.sources.length ; ++i) {
+            g.addEdge(state.sources[i], state.targets[i], state.weights[i]);
+        }
+        return g;
+    }
+
+    @Benchmark
+    public long forEachEdge(GraphState state) {
+        long[] sum = new long[1];
+        for (int v = 0 ; v < state.n ; ++v) {
+            state.graph.forEachEdge(v, e -> sum[0] += e.getValue());
+        }
+        return sum[0];
+    }
+}
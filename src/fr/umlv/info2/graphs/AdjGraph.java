@@ -9,6 +9,7 @@ public class AdjGraph implements Graph {
     private final ArrayList<LinkedList<Edge>> adj;
     private final int n; // number of vertices
     private int nbEdges;
+    private long modCount;
 
     public AdjGraph(int nbVertices) {
         if (nbVertices <= 0) {
@@ -47,6 +48,12 @@ public class AdjGraph implements Graph {
         }
         adj.get(i).add(edge);
         nbEdges++;
+        modCount++;
+    }
+
+    @Override
+    public long modificationCount() {
+        return modCount;
     }
 
     @Override
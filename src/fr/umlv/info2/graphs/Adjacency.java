@@ -0,0 +1,106 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only compressed sparse row copy of a graph, used internally by the parallel algorithms.
+ * The successors of vertex v are stored in targets[offsets[v]] .. targets[offsets[v + 1] - 1], with the
+ * matching weights at the same indices in weights.
+ * Reading an Adjacency from several threads at once is safe since nothing is ever modified after construction.
+ */
+final class Adjacency {
+    final int n;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+
+    private Adjacency(int n, int[] offsets, int[] targets, int[] weights) {
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Build the CSR copy of the given graph. Both passes over the vertices are run in parallel, each vertex
+     * only writing into its own slice of the arrays.
+     * @param g a valid graph, which must not be modified while this method runs
+     * @return the adjacency arrays of g
+     */
+    static Adjacency of(Graph g) {
+        Objects.requireNonNull(g);
+        if (g instanceof CsrGraph) {
+            return ((CsrGraph) g).toAdjacency();
+        }
+        if (g instanceof ConcurrentGraph) {
+            return ((ConcurrentGraph) g).toAdjacency();
+        }
+        if (g instanceof DurableGraph) {
+            return ((DurableGraph) g).toAdjacency();
+        }
+        if (g instanceof VersionedGraph) {
+            return of(((VersionedGraph) g).snapshot());
+        }
+        int n = g.numberOfVertices();
+        int[] offsets = new int[n + 1];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int[] degree = new int[1];
+            g.forEachEdge(v, e -> degree[0]++);
+            offsets[v + 1] = degree[0];
+        });
+        for (int v = 0 ; v < n ; ++v) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        IntStream.range(0, n).parallel().forEach(v -> {
+            int[] index = { offsets[v] };
+            g.forEachEdge(v, e -> {
+                targets[index[0]] = e.getEnd();
+                weights[index[0]] = e.getValue();
+                index[0]++;
+            });
+        });
+        return new Adjacency(n, offsets, targets, weights);
+    }
+
+    static Adjacency of(int n, int[] offsets, int[] targets, int[] weights) {
+        return new Adjacency(n, offsets, targets, weights);
+    }
+
+    /**
+     * Compute the adjacency of the transposed graph, without going through Graph.transpose() and its n*n matrix.
+     * @return the reversed adjacency
+     */
+    Adjacency reverse() {
+        int m = targets.length;
+        int[] rOffsets = new int[n + 1];
+        for (int i = 0 ; i < m ; ++i) {
+            rOffsets[targets[i] + 1]++;
+        }
+        for (int v = 0 ; v < n ; ++v) {
+            rOffsets[v + 1] += rOffsets[v];
+        }
+        int[] next = new int[n];
+        System.arraycopy(rOffsets, 0, next, 0, n);
+        int[] rTargets = new int[m];
+        int[] rWeights = new int[m];
+        for (int s = 0 ; s < n ; ++s) {
+            for (int i = offsets[s] ; i < offsets[s + 1] ; ++i) {
+                int slot = next[targets[i]]++;
+                rTargets[slot] = s;
+                rWeights[slot] = weights[i];
+            }
+        }
+        return new Adjacency(n, rOffsets, rTargets, rWeights);
+    }
+
+    int numberOfEdges() {
+        return targets.length;
+    }
+
+    int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+}
@@ -0,0 +1,41 @@
+package fr.umlv.info2.graphs;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event describing one run of an algorithm of Graphs. It is recorded by any running recording,
+ * and can be disabled or given a threshold in a JFR configuration under the name fr.umlv.info2.graphs.Algorithm.
+ */
+@Name("fr.umlv.info2.graphs.Algorithm")
+@Label("Graph Algorithm")
+@Category("Graphs")
+@Description("Run of a graph algorithm, with its counters")
+class AlgorithmEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Vertices")
+    int vertices;
+
+    @Label("Edges")
+    int edges;
+
+    @Label("Vertices Settled")
+    long verticesSettled;
+
+    @Label("Edges Scanned")
+    long edgesScanned;
+
+    @Label("Edges Relaxed")
+    long edgesRelaxed;
+
+    @Label("Heap Operations")
+    long heapOperations;
+
+    @Label("Max Frontier Size")
+    long maxFrontierSize;
+}
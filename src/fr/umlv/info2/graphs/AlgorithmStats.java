@@ -0,0 +1,175 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counters and timings of one run of an algorithm of Graphs.
+ * A stats object is given to the instrumented variant of an algorithm (for instance dijkstra(g, v0, stats)), which
+ * resets it and fills it during the run. The same object can be reused for several runs, but not by several threads
+ * at once.
+ * Whether stats are requested or not, every run is also reported as an AlgorithmEvent to JDK Flight Recorder when a
+ * recording enables it. When neither stats nor recording are active, the algorithms only pay a null check per
+ * counter update.
+ */
+public class AlgorithmStats {
+    // never committed, only tells whether a recording enables the event, without allocating on each run
+    private static final AlgorithmEvent PROBE = new AlgorithmEvent();
+
+    private String algorithm;
+    private int vertices;
+    private int edges;
+    long verticesSettled;
+    long edgesScanned;
+    long edgesRelaxed;
+    long heapOperations;
+    long frontiers;
+    long maxFrontierSize;
+    long totalFrontierSize;
+    private long totalNanos;
+    private final LinkedHashMap<String, Long> phaseNanos = new LinkedHashMap<>();
+    private AlgorithmEvent event;
+    private long startTime;
+    private long phaseStart;
+
+    /**
+     * Start the instrumentation of a run.
+     * @param algorithm name of the algorithm
+     * @param g the graph the algorithm runs on
+     * @param requested the stats object given by the user, or null
+     * @return the stats to fill during the run, or null if neither the user nor Flight Recorder asked for them
+     */
+    static AlgorithmStats begin(String algorithm, Graph g, AlgorithmStats requested) {
+        if (requested == null && ! PROBE.isEnabled()) {
+            return null;
+        }
+        var event = new AlgorithmEvent();
+        var stats = requested != null ? requested : new AlgorithmStats();
+        stats.reset(algorithm, g);
+        stats.event = event;
+        event.begin();
+        stats.startTime = System.nanoTime();
+        stats.phaseStart = stats.startTime;
+        return stats;
+    }
+
+    private void reset(String algorithm, Graph g) {
+        this.algorithm = algorithm;
+        vertices = g.numberOfVertices();
+        edges = g.numberOfEdges();
+        verticesSettled = 0;
+        edgesScanned = 0;
+        edgesRelaxed = 0;
+        heapOperations = 0;
+        frontiers = 0;
+        maxFrontierSize = 0;
+        totalFrontierSize = 0;
+        totalNanos = 0;
+        phaseNanos.clear();
+    }
+
+    /**
+     * End the current phase, adding its duration to the time of the phase with the given name.
+     * @param phase name of the phase which just ended
+     */
+    void endPhase(String phase) {
+        long now = System.nanoTime();
+        phaseNanos.merge(phase, now - phaseStart, Long::sum);
+        phaseStart = now;
+    }
+
+    void frontier(long size) {
+        frontiers++;
+        totalFrontierSize += size;
+        maxFrontierSize = Math.max(maxFrontierSize, size);
+    }
+
+    /**
+     * End the run, and send the event to Flight Recorder if it is recorded. The algorithms call it in a finally
+     * block, so that a run ending with an exception is also reported.
+     */
+    void end() {
+        totalNanos = System.nanoTime() - startTime;
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.vertices = vertices;
+            event.edges = edges;
+            event.verticesSettled = verticesSettled;
+            event.edgesScanned = edgesScanned;
+            event.edgesRelaxed = edgesRelaxed;
+            event.heapOperations = heapOperations;
+            event.maxFrontierSize = maxFrontierSize;
+            event.commit();
+        }
+        event = null;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the number of vertices whose distance became final (extracted from the queue, or removed from a bucket)
+     */
+    public long getVerticesSettled() {
+        return verticesSettled;
+    }
+
+    /**
+     * @return the number of edges examined
+     */
+    public long getEdgesScanned() {
+        return edgesScanned;
+    }
+
+    /**
+     * @return the number of edges whose relaxation lowered a distance
+     */
+    public long getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * @return the number of operations on the priority queue : extractions of the minimum and decreases of keys for
+     * dijkstra, insertions in the buckets for deltaStepping
+     */
+    public long getHeapOperations() {
+        return heapOperations;
+    }
+
+    /**
+     * @return the number of frontiers (rounds of relaxation) processed
+     */
+    public long getFrontiers() {
+        return frontiers;
+    }
+
+    public long getMaxFrontierSize() {
+        return maxFrontierSize;
+    }
+
+    public long getTotalFrontierSize() {
+        return totalFrontierSize;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the time spent in each phase of the algorithm in nanoseconds, in the order of the phases
+     */
+    public Map<String, Long> getPhaseNanos() {
+        return Collections.unmodifiableMap(phaseNanos);
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + " on " + vertices + " vertices and " + edges + " edges : "
+                + verticesSettled + " settled, " + edgesScanned + " scanned, " + edgesRelaxed + " relaxed, "
+                + heapOperations + " heap operations, " + frontiers + " frontiers (max " + maxFrontierSize + "), "
+                + totalNanos + " ns " + phaseNanos;
+    }
+}
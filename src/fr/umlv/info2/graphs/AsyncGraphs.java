@@ -0,0 +1,107 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Asynchronous versions of the long running algorithms of Graphs.
+ * Each method starts the computation on an executor and returns at once a future of its result. The computation
+ * checks the future at each outer loop boundary (each pass of bellmanFord, each settled vertex of dijkstra, each
+ * intermediate vertex of floydWarshall), and stops as soon as the future is completed by someone else :
+ *      - future.cancel(true) cancels the computation,
+ *      - future.orTimeout(time, unit) gives it a deadline, after which it fails with a TimeoutException.
+ * The thread running the computation is then released after at most one unit of work.
+ * Only the returned future stops the computation, not the futures derived from it by thenApply and the like.
+ * The graph must not be modified during the computation.
+ */
+public class AsyncGraphs {
+    private AsyncGraphs() {
+    }
+
+    private static <T> CompletableFuture<T> start(Executor executor, ProgressListener listener,
+                                                  Function<Monitor, T> computation) {
+        Objects.requireNonNull(executor);
+        var future = new CompletableFuture<T>();
+        var monitor = new Monitor(future, listener);
+        executor.execute(() -> {
+            if (future.isDone()) { // cancelled before starting
+                return;
+            }
+            try {
+                future.complete(computation.apply(monitor));
+            } catch (CancellationException e) {
+                // the future is already completed
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Run Graphs.bellmanFord(g, v0) on the given executor.
+     * @param g : a valid graph
+     * @param v0 : starting vertex of the graph
+     * @param executor : the executor running the computation
+     * @param listener : called after each pass, or null
+     * @return the future result, completed exceptionally with an IllegalStateException if the graph contains a
+     * negative cycle
+     */
+    public static CompletableFuture<ShortestPathFromOneVertex> bellmanFord(Graph g, int v0, Executor executor,
+                                                                            ProgressListener listener) {
+        Objects.requireNonNull(g);
+        return start(executor, listener, monitor -> Graphs.bellmanFord(g, v0, null, monitor));
+    }
+
+    /**
+     * Same as bellmanFord(g, v0, executor, null) on the common pool.
+     */
+    public static CompletableFuture<ShortestPathFromOneVertex> bellmanFord(Graph g, int v0) {
+        return bellmanFord(g, v0, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Run Graphs.dijkstra(g, v0) on the given executor.
+     * @param g : a valid graph
+     * @param v0 : starting vertex of the graph
+     * @param executor : the executor running the computation
+     * @param listener : called each time a vertex is settled, or null
+     * @return the future result
+     */
+    public static CompletableFuture<ShortestPathFromOneVertex> dijkstra(Graph g, int v0, Executor executor,
+                                                                         ProgressListener listener) {
+        Objects.requireNonNull(g);
+        return start(executor, listener, monitor -> Graphs.dijkstra(g, v0, null, monitor));
+    }
+
+    /**
+     * Same as dijkstra(g, v0, executor, null) on the common pool.
+     */
+    public static CompletableFuture<ShortestPathFromOneVertex> dijkstra(Graph g, int v0) {
+        return dijkstra(g, v0, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Run Graphs.floydWarshall(g) on the given executor.
+     * @param g : a valid graph
+     * @param executor : the executor running the computation
+     * @param listener : called after each intermediate vertex, or null
+     * @return the future result
+     */
+    public static CompletableFuture<ShortestPathFromAllVertices> floydWarshall(Graph g, Executor executor,
+                                                                              ProgressListener listener) {
+        Objects.requireNonNull(g);
+        return start(executor, listener, monitor -> Graphs.floydWarshall(g, null, monitor));
+    }
+
+    /**
+     * Same as floydWarshall(g, executor, null) on the common pool.
+     */
+    public static CompletableFuture<ShortestPathFromAllVertices> floydWarshall(Graph g) {
+        return floydWarshall(g, ForkJoinPool.commonPool(), null);
+    }
+}
@@ -0,0 +1,163 @@
+package fr.umlv.info2.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Engine answering batches of (source, destination) shortest path queries on a graph with non negative weights.
+ * The queries of a batch sharing the same source are answered by a single Dijkstra search, which stops as soon as all
+ * their destinations are settled. The searches of different sources run concurrently on a bounded executor, and each
+ * worker thread reuses the same working arrays for all its searches, so a query does not allocate O(n) memory.
+ * The graph is copied when the engine is created : later modifications of the graph are not seen by the engine.
+ */
+public class BatchShortestPaths implements AutoCloseable {
+    private final Adjacency adj;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final ThreadLocal<DijkstraScratch> scratch;
+
+    /**
+     * Create an engine with its own pool of worker threads, shut down by close().
+     * @param g a valid graph, with non negative weights
+     * @param threads number of worker threads
+     */
+    public BatchShortestPaths(Graph g, int threads) {
+        this(g, Executors.newFixedThreadPool(checkThreads(threads), daemonThreads()), true);
+    }
+
+    /**
+     * Create an engine running its searches on the given executor, which is not shut down by close().
+     * @param g a valid graph, with non negative weights
+     * @param executor the executor running the searches
+     */
+    public BatchShortestPaths(Graph g, ExecutorService executor) {
+        this(g, executor, false);
+    }
+
+    private BatchShortestPaths(Graph g, ExecutorService executor, boolean ownsExecutor) {
+        Objects.requireNonNull(g);
+        this.executor = Objects.requireNonNull(executor);
+        this.ownsExecutor = ownsExecutor;
+        this.adj = Adjacency.of(g);
+        for (int w : adj.weights) {
+            if (w < 0) {
+                if (ownsExecutor) {
+                    executor.shutdown();
+                }
+                throw new IllegalArgumentException("Shortest path queries need non negative weights");
+            }
+        }
+        int n = adj.n;
+        this.scratch = ThreadLocal.withInitial(() -> new DijkstraScratch(n));
+    }
+
+    private static int checkThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads should be positive");
+        }
+        return threads;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        return r -> {
+            var thread = new Thread(r, "shortest-path-query");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Answer a single query.
+     * @param source the starting vertex
+     * @param destination the vertex to reach
+     * @return the future answer
+     */
+    public CompletableFuture<PathAnswer> query(int source, int destination) {
+        return query(new int[] { source }, new int[] { destination }).thenApply(answers -> answers[0]);
+    }
+
+    /**
+     * Answer a batch of queries, the i-th query going from sources[i] to destinations[i].
+     * @param sources the starting vertices
+     * @param destinations the vertices to reach, of the same length as sources
+     * @return the future answers, in the order of the queries
+     */
+    public CompletableFuture<PathAnswer[]> query(int[] sources, int[] destinations) {
+        Objects.requireNonNull(sources);
+        Objects.requireNonNull(destinations);
+        if (sources.length != destinations.length) {
+            throw new IllegalArgumentException("There should be as many sources as destinations");
+        }
+        int count = sources.length;
+        for (int i = 0 ; i < count ; ++i) {
+            if (sources[i] < 0 || sources[i] >= adj.n || destinations[i] < 0 || destinations[i] >= adj.n) {
+                throw new IndexOutOfBoundsException("Index of vertex is out of bounds");
+            }
+        }
+        // sort the queries by source, each run of equal sources is one search
+        long[] order = new long[count];
+        for (int i = 0 ; i < count ; ++i) {
+            order[i] = ((long) sources[i] << 32) | i;
+        }
+        Arrays.sort(order);
+        int[] queries = new int[count];
+        int[] targets = new int[count];
+        for (int k = 0 ; k < count ; ++k) {
+            queries[k] = (int) order[k];
+            targets[k] = destinations[queries[k]];
+        }
+        var answers = new PathAnswer[count];
+        var searches = new ArrayList<CompletableFuture<Void>>();
+        for (int from = 0 ; from < count ; ) {
+            int source = sources[queries[from]];
+            int to = from + 1;
+            while (to < count && sources[queries[to]] == source) {
+                to++;
+            }
+            int lo = from;
+            int hi = to;
+            searches.add(CompletableFuture.runAsync(() -> answer(source, queries, targets, lo, hi, answers), executor));
+            from = to;
+        }
+        return CompletableFuture.allOf(searches.toArray(CompletableFuture[]::new)).thenApply(__ -> answers);
+    }
+
+    private void answer(int source, int[] queries, int[] targets, int from, int to, PathAnswer[] answers) {
+        var s = scratch.get();
+        s.run(adj, source, targets, from, to);
+        for (int k = from ; k < to ; ++k) {
+            int dest = targets[k];
+            answers[queries[k]] = new PathAnswer(source, dest, s.d[dest], path(s.pi, source, dest));
+        }
+    }
+
+    private static int[] path(int[] pi, int source, int dest) {
+        if (pi[dest] == Integer.MIN_VALUE) {
+            return new int[0];
+        }
+        int length = 1;
+        for (int v = dest ; v != source ; v = pi[v]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int v = dest, k = length - 1 ; k >= 0 ; v = pi[v], --k) {
+            path[k] = v;
+        }
+        return path;
+    }
+
+    /**
+     * Shut down the worker threads if the engine created them. Queries already submitted are still answered.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package fr.umlv.info2.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Betweenness centrality with the algorithm of Brandes : the betweenness of v is the sum, over all the pairs (s, t)
+ * of other vertices, of the fraction of the shortest paths from s to t going through v.
+ * For each source s, a breadth first search (unweighted) or a Dijkstra search (weighted) orders the vertices by
+ * distance from s and counts the shortest paths sigma[v] from s to each v. Then, from the farthest vertex back to s,
+ * the dependency of s on each vertex is accumulated : delta[v] = sum over the successors w of v on a shortest path of
+ * sigma[v] / sigma[w] * (1 + delta[w]). The betweenness is the sum of the dependencies over all the sources, in
+ * O(VE) for unweighted graphs and O(VE log V) for weighted ones, the lazy heap of each search holding up to one entry
+ * per edge.
+ * The sources are shared between one worker per thread of the pool, each taking the next source when it is done with
+ * the previous one, with its own search arrays and its own betweenness accumulator ; the accumulators are summed at
+ * the end. The approximate variant only uses k sources chosen at random, and scales the result by n / k.
+ * The graph is directed : for an undirected graph given with both directions of each edge, each pair is counted twice,
+ * so the values should be divided by 2.
+ */
+public final class Betweenness {
+    private Betweenness() {
+    }
+
+    /**
+     * Compute the betweenness centrality of each vertex, counting the number of edges of the paths.
+     * @param g : a valid graph
+     * @return the betweenness of each vertex
+     */
+    public static double[] unweighted(Graph g) {
+        return compute(g, false, g.numberOfVertices(), 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute the betweenness centrality of each vertex, using the weights of the edges.
+     * @param g : a valid graph, whose weights are positive
+     * @return the betweenness of each vertex
+     */
+    public static double[] weighted(Graph g) {
+        return compute(g, true, g.numberOfVertices(), 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Estimate the betweenness centrality of each vertex from k sources chosen at random.
+     * @param g : a valid graph, whose weights are positive if weighted is true
+     * @param weighted : true to use the weights of the edges, false to count the number of edges
+     * @param k : the number of sources
+     * @param seed : the seed choosing the sources
+     * @return the estimated betweenness of each vertex
+     */
+    public static double[] approximate(Graph g, boolean weighted, int k, long seed) {
+        return compute(g, weighted, k, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute or estimate the betweenness centrality of each vertex.
+     * @param g : a valid graph, whose weights are positive if weighted is true
+     * @param weighted : true to use the weights of the edges, false to count the number of edges
+     * @param k : the number of sources, the exact betweenness being computed when k is the number of vertices
+     * @param seed : the seed choosing the sources when k is lower than the number of vertices
+     * @param pool : the pool running the workers
+     * @return the betweenness of each vertex
+     */
+    public static double[] compute(Graph g, boolean weighted, int k, long seed, ForkJoinPool pool) {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(pool);
+        int n = g.numberOfVertices();
+        if (k <= 0 || k > n) {
+            throw new IllegalArgumentException("Number of sources should be between 1 and " + n);
+        }
+        var adj = Adjacency.of(g);
+        if (weighted) {
+            for (int w : adj.weights) {
+                if (w <= 0) {
+                    throw new IllegalArgumentException("Weighted betweenness needs positive weights");
+                }
+            }
+        }
+        var reverse = adj.reverse();
+        var sources = sources(n, k, seed);
+        var next = new AtomicInteger();
+        int workers = Math.min(k, pool.getParallelism());
+        var tasks = new ArrayList<Callable<double[]>>();
+        for (int i = 0 ; i < workers ; ++i) {
+            tasks.add(() -> new Worker(adj, reverse, weighted).run(sources, next));
+        }
+        var betweenness = new double[n];
+        try {
+            for (var future : pool.invokeAll(tasks)) {
+                var accumulator = future.get();
+                for (int v = 0 ; v < n ; ++v) {
+                    betweenness[v] += accumulator[v];
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            var cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+        if (k < n) {
+            double scale = (double) n / k;
+            for (int v = 0 ; v < n ; ++v) {
+                betweenness[v] *= scale;
+            }
+        }
+        return betweenness;
+    }
+
+    /**
+     * @return all the vertices if k == n, otherwise k distinct vertices chosen at random
+     */
+    private static int[] sources(int n, int k, long seed) {
+        var all = new int[n];
+        for (int v = 0 ; v < n ; ++v) {
+            all[v] = v;
+        }
+        if (k == n) {
+            return all;
+        }
+        var random = new Random(seed);
+        for (int i = 0 ; i < k ; ++i) { // partial Fisher-Yates shuffle
+            int j = i + random.nextInt(n - i);
+            int tmp = all[i];
+            all[i] = all[j];
+            all[j] = tmp;
+        }
+        var sources = new int[k];
+        System.arraycopy(all, 0, sources, 0, k);
+        return sources;
+    }
+
+    /**
+     * Search arrays and betweenness accumulator of one thread. Only the vertices reached from a source are reset
+     * before the next one.
+     * The predecessors of a vertex on the shortest paths are not stored : they are its in-neighbours v such that
+     * d[v] + weight == d[w], found again in the reversed adjacency when needed.
+     */
+    private static final class Worker {
+        private final Adjacency adj;
+        private final Adjacency reverse;
+        private final boolean weighted;
+        private final int[] d;
+        private final double[] sigma;
+        private final double[] delta;
+        private final int[] order; // reached vertices, by increasing distance
+        private final double[] betweenness;
+        private final LongHeap heap = new LongHeap();
+
+        Worker(Adjacency adj, Adjacency reverse, boolean weighted) {
+            this.adj = adj;
+            this.reverse = reverse;
+            this.weighted = weighted;
+            int n = adj.n;
+            d = new int[n];
+            sigma = new double[n];
+            delta = new double[n];
+            order = new int[n];
+            betweenness = new double[n];
+            Arrays.fill(d, Integer.MAX_VALUE);
+        }
+
+        double[] run(int[] sources, AtomicInteger next) {
+            int i;
+            while ((i = next.getAndIncrement()) < sources.length) {
+                int reached = search(sources[i]);
+                accumulate(sources[i], reached);
+                for (int j = 0 ; j < reached ; ++j) {
+                    int v = order[j];
+                    d[v] = Integer.MAX_VALUE;
+                    delta[v] = 0;
+                }
+            }
+            return betweenness;
+        }
+
+        private int weight(int[] weights, int e) {
+            return weighted ? weights[e] : 1;
+        }
+
+        /**
+         * Count the shortest paths to w, once the distances of all its predecessors are final.
+         */
+        private void countPaths(int w) {
+            double count = 0;
+            for (int e = reverse.offsets[w] ; e < reverse.offsets[w + 1] ; ++e) {
+                int v = reverse.targets[e];
+                if (d[v] != Integer.MAX_VALUE && (long) d[v] + weight(reverse.weights, e) == d[w]) {
+                    count += sigma[v];
+                }
+            }
+            sigma[w] = count;
+        }
+
+        /**
+         * Order the vertices reachable from s by distance, and count the shortest paths to each of them.
+         * @return the number of reached vertices
+         */
+        private int search(int s) {
+            d[s] = 0;
+            sigma[s] = 1;
+            int size = 0;
+            if (! weighted) {
+                order[size++] = s;
+                for (int head = 0 ; head < size ; ++head) {
+                    int v = order[head];
+                    if (v != s) {
+                        countPaths(v); // all the vertices of the previous level are known
+                    }
+                    for (int e = adj.offsets[v] ; e < adj.offsets[v + 1] ; ++e) {
+                        int w = adj.targets[e];
+                        if (d[w] == Integer.MAX_VALUE) {
+                            d[w] = d[v] + 1;
+                            order[size++] = w;
+                        }
+                    }
+                }
+                return size;
+            }
+            heap.clear();
+            heap.push(s);
+            while (! heap.isEmpty()) {
+                long top = heap.pop();
+                int v = (int) top;
+                if ((int) (top >>> 32) != d[v]) {
+                    continue; // stale entry
+                }
+                if (v != s) {
+                    countPaths(v); // weights are positive, so all the predecessors are settled
+                }
+                order[size++] = v;
+                for (int e = adj.offsets[v] ; e < adj.offsets[v + 1] ; ++e) {
+                    int w = adj.targets[e];
+                    long candidate = (long) d[v] + adj.weights[e];
+                    if (candidate < d[w]) {
+                        d[w] = (int) candidate;
+                        heap.push((candidate << 32) | w);
+                    }
+                }
+            }
+            return size;
+        }
+
+        /**
+         * Accumulate the dependencies of s, from the farthest vertex back to s.
+         */
+        private void accumulate(int s, int reached) {
+            for (int j = reached - 1 ; j >= 0 ; --j) {
+                int w = order[j];
+                double factor = (1 + delta[w]) / sigma[w];
+                for (int e = reverse.offsets[w] ; e < reverse.offsets[w + 1] ; ++e) {
+                    int v = reverse.targets[e];
+                    if (d[v] != Integer.MAX_VALUE && (long) d[v] + weight(reverse.weights, e) == d[w]) {
+                        delta[v] += sigma[v] * factor;
+                    }
+                }
+                if (w != s) {
+                    betweenness[w] += delta[w];
+                }
+            }
+        }
+    }
+}
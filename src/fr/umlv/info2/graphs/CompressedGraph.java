@@ -0,0 +1,260 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Immutable graph whose successor lists are compressed, for large read-only graphs.
+ * The successors of each vertex are sorted, and stored in a single byte array as : the degree, then for each edge
+ * the gap to the previous target (the first target is stored relative to the vertex itself, with its sign in the
+ * lowest bit), then the weight (with its sign in the lowest bit). Each number is a varint : 7 bits per byte, the
+ * highest bit telling if another byte follows. Since neighbours tend to have close ids, most gaps take one byte,
+ * and small weights too, instead of the 8 bytes per edge of a CsrGraph.
+ * The block of vertex v starts at offsets[v]. Edges are decoded sequentially by forEachEdge and edgeIterator ;
+ * isEdge and getWeight decode the block of the vertex until the target is found.
+ * Reordering the vertices first (see VertexOrdering) makes the gaps smaller.
+ * Since the graph can not be modified, it can be read by several threads at once.
+ */
+public class CompressedGraph implements Graph {
+    private final int n; // number of vertices
+    private final int m; // number of edges
+    private final int[] offsets;
+    private final byte[] data;
+
+    private CompressedGraph(int n, int m, int[] offsets, byte[] data) {
+        this.n = n;
+        this.m = m;
+        this.offsets = offsets;
+        this.data = data;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static int writeVarint(byte[] out, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Build the compressed copy of a graph.
+     * @param g a valid graph
+     * @return a compressed graph with the same edges
+     * @throws IllegalArgumentException if the compressed graph does not fit in 2GB
+     */
+    public static CompressedGraph copyOf(Graph g) {
+        Objects.requireNonNull(g);
+        var adj = Adjacency.of(g);
+        int n = adj.n;
+        int[] offsets = new int[n + 1];
+        byte[] buffer = new byte[5 * 64];
+        byte[] data = new byte[Math.max(16, adj.numberOfEdges() * 2 + n)];
+        int size = 0;
+        for (int v = 0 ; v < n ; ++v) {
+            int from = adj.offsets[v];
+            int degree = adj.degree(v);
+            long[] sorted = new long[degree];
+            for (int k = 0 ; k < degree ; ++k) {
+                sorted[k] = ((long) adj.targets[from + k] << 32) | (adj.weights[from + k] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(sorted);
+            if (buffer.length < 5 * (2 * degree + 1)) {
+                buffer = new byte[5 * (2 * degree + 1)];
+            }
+            int length = writeVarint(buffer, 0, degree);
+            int previous = v;
+            for (int k = 0 ; k < degree ; ++k) {
+                int target = (int) (sorted[k] >>> 32);
+                int gap = k == 0 ? zigzag(target - v) : target - previous;
+                length = writeVarint(buffer, length, gap);
+                length = writeVarint(buffer, length, zigzag((int) sorted[k]));
+                previous = target;
+            }
+            if ((long) size + length > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Graph is too big to be compressed");
+            }
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max((long) data.length * 3 / 2, (long) size + length)));
+            }
+            System.arraycopy(buffer, 0, data, size, length);
+            size += length;
+            offsets[v + 1] = size;
+        }
+        return new CompressedGraph(n, adj.numberOfEdges(), offsets, Arrays.copyOf(data, size));
+    }
+
+    /**
+     * Sequential decoder of the block of one vertex.
+     */
+    private final class Decoder {
+        private final int source;
+        private int position;
+        private int remaining;
+        private boolean first = true;
+        private int target;
+        private int weight;
+
+        Decoder(int source) {
+            this.source = source;
+            this.position = offsets[source];
+            this.remaining = readVarint();
+            this.target = source;
+        }
+
+        private int readVarint() {
+            byte b = data[position++];
+            if (b >= 0) {
+                return b;
+            }
+            int value = b & 0x7F;
+            for (int shift = 7 ; ; shift += 7) {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        boolean hasNext() {
+            return remaining > 0;
+        }
+
+        /**
+         * Decode the next edge into target and weight.
+         */
+        void next() {
+            int gap = readVarint();
+            target = first ? source + unzigzag(gap) : target + gap;
+            first = false;
+            weight = unzigzag(readVarint());
+            remaining--;
+        }
+    }
+
+    private int degreeAt(int position) {
+        int value = 0;
+        for (int shift = 0 ; ; shift += 7) {
+            byte b = data[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " must be >= 0 and <= " + n);
+        }
+    }
+
+    @Override
+    public int numberOfEdges() {
+        return m;
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return n;
+    }
+
+    @Override
+    public void addEdge(int i, int j, int value) {
+        throw new UnsupportedOperationException("CompressedGraph is immutable");
+    }
+
+    /**
+     * @param i a vertex
+     * @return the number of successors of i
+     */
+    public int degree(int i) {
+        checkIndex(i);
+        return degreeAt(offsets[i]);
+    }
+
+    /**
+     * @return the number of bytes of the compressed edges and of the offsets
+     */
+    public long memoryBytes() {
+        return data.length + 4L * offsets.length;
+    }
+
+    @Override
+    public boolean isEdge(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        var decoder = new Decoder(i);
+        while (decoder.hasNext()) {
+            decoder.next();
+            if (decoder.target >= j) {
+                return decoder.target == j;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        var decoder = new Decoder(i);
+        while (decoder.hasNext()) {
+            decoder.next();
+            if (decoder.target >= j) {
+                return decoder.target == j ? decoder.weight : 0;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public Iterator<Edge> edgeIterator(int i) {
+        checkIndex(i);
+        var decoder = new Decoder(i);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return decoder.hasNext();
+            }
+
+            @Override
+            public Edge next() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                decoder.next();
+                return new Edge(i, decoder.target, decoder.weight);
+            }
+        };
+    }
+
+    @Override
+    public void forEachEdge(int i, Consumer<Edge> consumer) {
+        Objects.requireNonNull(consumer);
+        checkIndex(i);
+        var decoder = new Decoder(i);
+        while (decoder.hasNext()) {
+            decoder.next();
+            consumer.accept(new Edge(i, decoder.target, decoder.weight));
+        }
+    }
+
+    @Override
+    public String toGraphviz() {
+        return GraphvizExporter.toGraphviz(this);
+    }
+}
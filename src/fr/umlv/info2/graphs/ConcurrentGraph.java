@@ -0,0 +1,276 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Thread-safe graph, which can be modified by several threads while other threads read it.
+ * The successors of a vertex are stored in an immutable Row : a pair of arrays and the number of edges in use.
+ * A writer locks one of a fixed set of stripes (chosen from the start vertex), writes the new edge in the free space
+ * after the edges in use, and publishes a new Row sharing the same arrays with one more edge. Readers only read the
+ * current Row of a vertex, without any lock, so they never wait : they see every edge added before they read the
+ * Row, and never see a half written edge. Arrays are copied only when they are full, or when the weight of an
+ * existing edge is replaced. Once a vertex has more than a few successors, their positions are indexed by an open
+ * addressing table, so that addEdge, isEdge and getWeight do not scan all the edges of a vertex of high degree.
+ * Writers adding edges to vertices of different stripes never contend, and the number of edges is a LongAdder.
+ * Unlike AdjGraph, which only ignores an edge equal to an existing one and keeps parallel edges of different weights,
+ * there is at most one edge between two vertices : adding an existing edge replaces its weight, as with MatGraph.
+ * Reading successive vertices (as the algorithms of Graphs do) while writers run gives a view where each vertex is
+ * up to date when it is read, not a snapshot of the whole graph at one instant.
+ */
+public class ConcurrentGraph implements Graph {
+    private static final Row EMPTY = new Row(new int[0], new int[0], 0, null);
+
+    private final int n; // number of vertices
+    private final AtomicReferenceArray<Row> rows;
+    private final Object[] stripes;
+    private final LongAdder nbEdges = new LongAdder();
+    private final LongAdder modCount = new LongAdder();
+
+    private static final class Row {
+        private static final int INDEX_THRESHOLD = 16; // number of edges above which the targets are indexed
+
+        private final int[] targets;
+        private final int[] weights;
+        private final int size; // number of edges in use, the end of the arrays is free space
+        // position + 1 of the edge to each target, 0 for a free slot, null if not indexed. Like the arrays, the table
+        // is shared with the next rows, which only fill free slots : an entry for a position >= size is ignored.
+        private final int[] index;
+
+        Row(int[] targets, int[] weights, int size, int[] index) {
+            this.targets = targets;
+            this.weights = weights;
+            this.size = size;
+            this.index = index;
+        }
+
+        private static int hash(int target) {
+            int h = target * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        int indexOf(int j) {
+            if (index == null) {
+                for (int k = 0 ; k < size ; ++k) {
+                    if (targets[k] == j) {
+                        return k;
+                    }
+                }
+                return -1;
+            }
+            int mask = index.length - 1;
+            for (int slot = hash(j) & mask ; index[slot] != 0 ; slot = (slot + 1) & mask) {
+                int k = index[slot] - 1;
+                if (k < size && targets[k] == j) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the row with one more edge, written in the free space after the edges in use. Called by a writer
+         * holding the stripe of the row.
+         */
+        Row append(int j, int value) {
+            int[] targets = this.targets;
+            int[] weights = this.weights;
+            if (size == targets.length) {
+                int capacity = Math.max(4, size * 2);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            // the slot at size is not visible to the readers of the current row
+            targets[size] = j;
+            weights[size] = value;
+            int[] index = this.index;
+            if (index != null && (size + 1) << 1 <= index.length) {
+                insert(index, targets, size);
+            } else if (index != null || size + 1 > INDEX_THRESHOLD) {
+                index = new int[Integer.highestOneBit(size + 1) << 2];
+                for (int k = 0 ; k <= size ; ++k) {
+                    insert(index, targets, k);
+                }
+            }
+            return new Row(targets, weights, size + 1, index);
+        }
+
+        private static void insert(int[] index, int[] targets, int k) {
+            int mask = index.length - 1;
+            int slot = hash(targets[k]) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = k + 1;
+        }
+    }
+
+    /**
+     * Create a graph with a number of lock stripes proportional to the number of processors.
+     * @param nbVertices the number of vertices
+     */
+    public ConcurrentGraph(int nbVertices) {
+        this(nbVertices, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param nbVertices the number of vertices
+     * @param nbStripes the number of locks shared by the vertices, rounded up to a power of 2
+     */
+    public ConcurrentGraph(int nbVertices, int nbStripes) {
+        if (nbVertices <= 0) {
+            throw new IllegalArgumentException("Vertices number should be positive");
+        }
+        if (nbStripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes should be positive");
+        }
+        n = nbVertices;
+        rows = new AtomicReferenceArray<>(n);
+        for (int i = 0 ; i < n ; ++i) {
+            rows.set(i, EMPTY);
+        }
+        int size = Integer.highestOneBit(Math.min(nbStripes, 1 << 16) * 2 - 1); // next power of 2
+        stripes = new Object[size];
+        for (int k = 0 ; k < size ; ++k) {
+            stripes[k] = new Object();
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " must be >= 0 and <= " + n);
+        }
+    }
+
+    private Object stripe(int i) {
+        return stripes[i & (stripes.length - 1)];
+    }
+
+    @Override
+    public int numberOfEdges() {
+        return (int) nbEdges.sum();
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return n;
+    }
+
+    @Override
+    public void addEdge(int i, int j, int value) {
+        checkIndex(i);
+        checkIndex(j);
+        synchronized (stripe(i)) {
+            var row = rows.get(i);
+            int index = row.indexOf(j);
+            if (index != -1) {
+                if (row.weights[index] == value) {
+                    return;
+                }
+                // readers of the current row may be reading this weight, so the arrays are copied
+                int[] weights = Arrays.copyOf(row.weights, row.weights.length);
+                weights[index] = value;
+                rows.set(i, new Row(row.targets, weights, row.size, row.index));
+                modCount.increment();
+                return;
+            }
+            rows.set(i, row.append(j, value));
+        }
+        nbEdges.increment();
+        modCount.increment();
+    }
+
+    @Override
+    public boolean isEdge(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        return rows.get(i).indexOf(j) != -1;
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        var row = rows.get(i);
+        int index = row.indexOf(j);
+        return index == -1 ? 0 : row.weights[index];
+    }
+
+    /**
+     * @param i a vertex
+     * @return the number of successors of i
+     */
+    public int degree(int i) {
+        checkIndex(i);
+        return rows.get(i).size;
+    }
+
+    @Override
+    public Iterator<Edge> edgeIterator(int i) {
+        checkIndex(i);
+        var row = rows.get(i);
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < row.size;
+            }
+
+            @Override
+            public Edge next() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var edge = new Edge(i, row.targets[index], row.weights[index]);
+                index++;
+                return edge;
+            }
+        };
+    }
+
+    @Override
+    public void forEachEdge(int i, Consumer<Edge> consumer) {
+        Objects.requireNonNull(consumer);
+        checkIndex(i);
+        var row = rows.get(i);
+        for (int index = 0 ; index < row.size ; ++index) {
+            consumer.accept(new Edge(i, row.targets[index], row.weights[index]));
+        }
+    }
+
+    @Override
+    public long modificationCount() {
+        return modCount.sum();
+    }
+
+    /**
+     * Copy the current rows into adjacency arrays. Each row is read once, so the copy is consistent even if edges
+     * are added meanwhile.
+     */
+    Adjacency toAdjacency() {
+        var snapshot = new Row[n];
+        int[] offsets = new int[n + 1];
+        for (int v = 0 ; v < n ; ++v) {
+            snapshot[v] = rows.get(v);
+            offsets[v + 1] = offsets[v] + snapshot[v].size;
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int v = 0 ; v < n ; ++v) {
+            System.arraycopy(snapshot[v].targets, 0, targets, offsets[v], snapshot[v].size);
+            System.arraycopy(snapshot[v].weights, 0, weights, offsets[v], snapshot[v].size);
+        }
+        return Adjacency.of(n, offsets, targets, weights);
+    }
+
+    @Override
+    public String toGraphviz() {
+        return GraphvizExporter.toGraphviz(this);
+    }
+}
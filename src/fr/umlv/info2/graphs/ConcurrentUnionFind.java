@@ -0,0 +1,63 @@
+package fr.umlv.info2.graphs;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free union-find (Anderson and Woll) on the integers 0 .. n - 1.
+ * Roots are linked with a compare-and-set, always the greatest root under the smallest one, so the root of a set is
+ * its smallest element and no cycle can ever be created by two concurrent unions. Paths are compressed by halving,
+ * also with compare-and-set : a failed halving only means that another thread already shortened the path.
+ */
+final class ConcurrentUnionFind {
+    private final AtomicIntegerArray parent;
+
+    ConcurrentUnionFind(int n) {
+        parent = new AtomicIntegerArray(n);
+        for (int i = 0 ; i < n ; ++i) {
+            parent.set(i, i);
+        }
+    }
+
+    /**
+     * Find the root of the set containing x.
+     * @param x an element
+     * @return the smallest element of the set of x, at the time of the call
+     */
+    int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int gp = parent.get(p);
+            if (p != gp) {
+                parent.compareAndSet(x, p, gp);
+            }
+            x = gp;
+        }
+    }
+
+    /**
+     * Merge the sets containing x and y.
+     * @param x an element
+     * @param y an element
+     */
+    void union(int x, int y) {
+        while (true) {
+            x = find(x);
+            y = find(y);
+            if (x == y) {
+                return;
+            }
+            if (x < y) {
+                int tmp = x;
+                x = y;
+                y = tmp;
+            }
+            // x is the greatest root : it is linked only if no other thread linked it in the meantime
+            if (parent.compareAndSet(x, x, y)) {
+                return;
+            }
+        }
+    }
+}
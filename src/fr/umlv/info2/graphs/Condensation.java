@@ -0,0 +1,106 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The condensation of a graph : the acyclic graph having one vertex per strongly connected component, and an edge
+ * between two components when an edge of the original graph goes from the first one to the second one.
+ * Components are numbered as by Graphs.parallelScc, and parallel edges between components are merged.
+ */
+final class Condensation {
+    final int[] component;
+    final int count;
+    final int[] offsets;
+    final int[] targets;
+
+    private Condensation(int[] component, int count, int[] offsets, int[] targets) {
+        this.component = component;
+        this.count = count;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    static Condensation of(Graph g, ForkJoinPool pool) {
+        Objects.requireNonNull(g);
+        var adj = Adjacency.of(g);
+        int[] component = ParallelScc.run(adj, pool);
+        int n = adj.n;
+        int count = 0;
+        for (int c : component) {
+            count = Math.max(count, c + 1);
+        }
+        // members of each component, sorted by component with a counting sort
+        int[] start = new int[count + 1];
+        for (int c : component) {
+            start[c + 1]++;
+        }
+        for (int c = 0 ; c < count ; ++c) {
+            start[c + 1] += start[c];
+        }
+        int[] next = new int[count];
+        System.arraycopy(start, 0, next, 0, count);
+        int[] members = new int[n];
+        for (int v = 0 ; v < n ; ++v) {
+            members[next[component[v]]++] = v;
+        }
+        // the mark of a component is the last component from which an edge to it was added
+        int[] mark = new int[count];
+        for (int c = 0 ; c < count ; ++c) {
+            mark[c] = -1;
+        }
+        int[] offsets = new int[count + 1];
+        var targets = new IntList();
+        for (int c = 0 ; c < count ; ++c) {
+            mark[c] = c;
+            for (int i = start[c] ; i < start[c + 1] ; ++i) {
+                int v = members[i];
+                for (int e = adj.offsets[v] ; e < adj.offsets[v + 1] ; ++e) {
+                    int t = component[adj.targets[e]];
+                    if (mark[t] != c) {
+                        mark[t] = c;
+                        targets.add(t);
+                    }
+                }
+            }
+            offsets[c + 1] = targets.size();
+        }
+        return new Condensation(component, count, offsets, targets.toArray());
+    }
+
+    /**
+     * Compute the height of each component, that is the number of edges of the longest path starting from it.
+     * Components without successor have height 0, and every edge goes from a component to a lower one, so all the
+     * components of a given height can be treated independently once the lower heights are done.
+     * @return the height of each component
+     */
+    int[] heights() {
+        int[] inDegree = new int[count];
+        for (int t : targets) {
+            inDegree[t]++;
+        }
+        // topological order with Kahn's algorithm, then heights in reverse order
+        var order = new IntList(count);
+        for (int c = 0 ; c < count ; ++c) {
+            if (inDegree[c] == 0) {
+                order.add(c);
+            }
+        }
+        for (int k = 0 ; k < order.size() ; ++k) {
+            int c = order.get(k);
+            for (int e = offsets[c] ; e < offsets[c + 1] ; ++e) {
+                if (--inDegree[targets[e]] == 0) {
+                    order.add(targets[e]);
+                }
+            }
+        }
+        int[] height = new int[count];
+        for (int k = order.size() - 1 ; k >= 0 ; --k) {
+            int c = order.get(k);
+            for (int e = offsets[c] ; e < offsets[c + 1] ; ++e) {
+                height[c] = Math.max(height[c], height[targets[e]] + 1);
+            }
+        }
+        return height;
+    }
+}
@@ -0,0 +1,827 @@
+package fr.umlv.info2.graphs;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Contraction hierarchy of a static graph (Geisberger, Sanders, Schultes and Delling), answering point to point
+ * shortest path queries by searching only a tiny part of the graph.
+ * The preprocessing contracts the vertices one by one, from the least to the most important. Contracting v removes
+ * it from the graph, adding a shortcut u -> x of weight d(u, v) + d(v, x) for each pair of neighbours whose shortest
+ * path goes through v, which is checked by a small local Dijkstra search (the witness search). The importance of a
+ * vertex is its edge difference : the number of shortcuts its contraction would add, minus the number of edges it
+ * removes, plus the number of its neighbours already contracted, so that contractions spread over the graph. It is
+ * estimated with one hop witnesses only (the edges between the neighbours), found without any search.
+ * The importances are kept up to date lazily : only the neighbours of a contracted vertex are updated, and a vertex
+ * whose importance grew since it was queued is queued again. The initial importances, and the updates after each
+ * contraction, are computed in parallel, only reading the graph.
+ * A query runs two Dijkstra searches, forward from the source and backward from the destination, only following
+ * edges towards vertices contracted later. Both meet at the most important vertex of a shortest path. The shortcuts
+ * of the path found are then replaced by the two edges they stand for, recursively, to give the path in the graph.
+ * The queries may be run by several threads at once.
+ */
+public final class ContractionHierarchy {
+    private static final int MAGIC = 0x47434831; // GCH1
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int WITNESS_SETTLED_LIMIT = 500; // vertices settled by a witness search
+    private static final int PARALLEL_UPDATE_THRESHOLD = 32; // neighbours updated in parallel above this number
+    private static final int NO_MIDDLE = -1; // middle of an edge of the graph, which is not a shortcut
+
+    private final Graph g;
+    private final int n;
+    private final int[] rank; // rank[v] = step at which v was contracted
+    // edges v -> x towards vertices contracted after v, for the forward search
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    private final int[] upMiddles;
+    // edges x -> v from vertices contracted after v, stored with v for the backward search
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final int[] downWeights;
+    private final int[] downMiddles;
+    private final ThreadLocal<Query> queries;
+
+    private ContractionHierarchy(Graph g, int[] rank, int[][] up, int[][] down) {
+        this.g = g;
+        this.n = rank.length;
+        this.rank = rank;
+        this.upOffsets = up[0];
+        this.upTargets = up[1];
+        this.upWeights = up[2];
+        this.upMiddles = up[3];
+        this.downOffsets = down[0];
+        this.downSources = down[1];
+        this.downWeights = down[2];
+        this.downMiddles = down[3];
+        this.queries = ThreadLocal.withInitial(() -> new Query(n));
+    }
+
+    /**
+     * Edges of one vertex in the graph being contracted, to or from its neighbours. There is at most one edge per
+     * neighbour, the lightest, and the neighbours are never contracted : when a vertex is contracted, its neighbours
+     * remove their edges to it. Once the vertex has more than a few neighbours, their positions are indexed by an open
+     * addressing table, so that adding a shortcut does not scan all the edges of the vertices of the dense core.
+     */
+    private static final class Arcs {
+        private static final int INDEX_THRESHOLD = 16; // number of edges above which the neighbours are indexed
+
+        private int[] others = new int[4];
+        private int[] weights = new int[4];
+        private int[] middles = new int[4];
+        private int size;
+        private int[] index; // position + 1 of the edge to each neighbour, 0 for a free slot, null if not indexed
+
+        private static int hash(int other) {
+            int h = other * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private int position(int other) {
+            if (index == null) {
+                for (int i = 0 ; i < size ; ++i) {
+                    if (others[i] == other) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            int mask = index.length - 1;
+            for (int slot = hash(other) & mask ; index[slot] != 0 ; slot = (slot + 1) & mask) {
+                if (others[index[slot] - 1] == other) {
+                    return index[slot] - 1;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the weight of the edge to other, or Long.MAX_VALUE if there is none
+         */
+        long weight(int other) {
+            int i = position(other);
+            return i == -1 ? Long.MAX_VALUE : weights[i];
+        }
+
+        /**
+         * Add an edge to other, or lower the weight of the existing one.
+         */
+        void put(int other, int weight, int middle) {
+            int i = position(other);
+            if (i == -1) {
+                add(other, weight, middle);
+            } else if (weight < weights[i]) {
+                weights[i] = weight;
+                middles[i] = middle;
+            }
+        }
+
+        /**
+         * Add an edge to a vertex which is not yet a neighbour.
+         */
+        private void add(int other, int weight, int middle) {
+            if (size == others.length) {
+                others = Arrays.copyOf(others, size << 1);
+                weights = Arrays.copyOf(weights, size << 1);
+                middles = Arrays.copyOf(middles, size << 1);
+            }
+            others[size] = other;
+            weights[size] = weight;
+            middles[size] = middle;
+            size++;
+            if (index != null && size << 1 <= index.length) {
+                insert(size - 1);
+            } else if (index != null || size > INDEX_THRESHOLD) {
+                index = new int[Integer.highestOneBit(size) << 2];
+                for (int i = 0 ; i < size ; ++i) {
+                    insert(i);
+                }
+            }
+        }
+
+        private void insert(int i) {
+            int mask = index.length - 1;
+            int slot = hash(others[i]) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+
+        /**
+         * Remove the edges to the contracted vertices.
+         */
+        void removeContracted(boolean[] contracted) {
+            int kept = 0;
+            for (int i = 0 ; i < size ; ++i) {
+                if (! contracted[others[i]]) {
+                    others[kept] = others[i];
+                    weights[kept] = weights[i];
+                    middles[kept] = middles[i];
+                    kept++;
+                }
+            }
+            if (kept == size) {
+                return;
+            }
+            size = kept;
+            if (index != null) {
+                Arrays.fill(index, 0);
+                for (int i = 0 ; i < size ; ++i) {
+                    insert(i);
+                }
+            }
+        }
+
+        /**
+         * @return the edges to the vertices not yet contracted, without index
+         */
+        Arcs remaining(boolean[] contracted) {
+            var result = new Arcs();
+            result.others = new int[size];
+            result.weights = new int[size];
+            result.middles = new int[size];
+            for (int i = 0 ; i < size ; ++i) {
+                if (! contracted[others[i]]) {
+                    result.others[result.size] = others[i];
+                    result.weights[result.size] = weights[i];
+                    result.middles[result.size] = middles[i];
+                    result.size++;
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * State of the preprocessing.
+     */
+    private static final class Contraction {
+        private final int n;
+        private final Arcs[] out;
+        private final Arcs[] in;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        private final int[] priority;
+        private final ThreadLocal<Witness> witnesses;
+
+        Contraction(Adjacency adj) {
+            n = adj.n;
+            out = new Arcs[n];
+            in = new Arcs[n];
+            for (int v = 0 ; v < n ; ++v) {
+                out[v] = new Arcs();
+                in[v] = new Arcs();
+            }
+            for (int s = 0 ; s < n ; ++s) {
+                for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                    int t = adj.targets[e];
+                    if (t != s) { // loops are never on a shortest path
+                        out[s].put(t, adj.weights[e], NO_MIDDLE);
+                        in[t].put(s, adj.weights[e], NO_MIDDLE);
+                    }
+                }
+            }
+            contracted = new boolean[n];
+            contractedNeighbours = new int[n];
+            priority = new int[n];
+            witnesses = ThreadLocal.withInitial(() -> new Witness(n));
+        }
+
+        /**
+         * Find the shortcuts needed to contract v.
+         * @param shortcuts receives the (source, target, weight) triples of the shortcuts, or null to only count them
+         * @param oneHop true to only look for witness paths of one edge, without any search
+         * @return the number of shortcuts
+         */
+        int shortcuts(int v, IntList shortcuts, boolean oneHop) {
+            var witness = witnesses.get();
+            var vIn = in[v];
+            var vOut = out[v];
+            int count = 0;
+            for (int i = 0 ; i < vIn.size ; ++i) {
+                int u = vIn.others[i];
+                long w1 = vIn.weights[i];
+                if (! oneHop) {
+                    long limit = -1;
+                    witness.start(u);
+                    for (int j = 0 ; j < vOut.size ; ++j) {
+                        int x = vOut.others[j];
+                        if (x != u) {
+                            limit = Math.max(limit, w1 + vOut.weights[j]);
+                            witness.target(x);
+                        }
+                    }
+                    witness.run(this, v, limit);
+                }
+                for (int j = 0 ; j < vOut.size ; ++j) {
+                    int x = vOut.others[j];
+                    if (x == u) {
+                        continue;
+                    }
+                    long via = w1 + vOut.weights[j];
+                    long witnessDistance = oneHop ? out[u].weight(x) : witness.distance(x);
+                    if (witnessDistance > via) {
+                        count++;
+                        if (shortcuts != null) {
+                            shortcuts.add(u);
+                            shortcuts.add(x);
+                            shortcuts.add(Math.toIntExact(via));
+                        }
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Estimate the importance of v : its edge difference, plus the number of its neighbours already contracted.
+         * The shortcuts are counted with one hop witnesses (the edges u -> x) : this overestimates their number, but
+         * costs a lookup per pair of neighbours instead of a search per neighbour, which is what makes the importance
+         * updates of the dense part of the graph affordable. The contraction itself runs the full witness searches.
+         */
+        int importance(int v) {
+            return shortcuts(v, null, true) - in[v].size - out[v].size + contractedNeighbours[v];
+        }
+
+        /**
+         * Contract all the vertices.
+         * @return the rank of each vertex, and the upward and downward edges
+         */
+        ContractionHierarchy contract(Graph g) {
+            IntStream.range(0, n).parallel().forEach(v -> priority[v] = importance(v));
+            var queue = new LongHeap();
+            for (int v = 0 ; v < n ; ++v) {
+                queue.push(entry(priority[v], v));
+            }
+            var rank = new int[n];
+            var up = new Arcs[n];
+            var down = new Arcs[n];
+            var shortcuts = new IntList();
+            var neighbours = new IntList();
+            int next = 0;
+            while (! queue.isEmpty()) {
+                long top = queue.pop();
+                int v = (int) top;
+                if (contracted[v] || priority(top) != priority[v]) {
+                    continue; // stale entry
+                }
+                int current = importance(v);
+                if (current != priority[v]) {
+                    priority[v] = current;
+                    if (! queue.isEmpty() && entry(current, v) > queue.peek()) {
+                        queue.push(entry(current, v));
+                        continue;
+                    }
+                }
+                shortcuts.clear();
+                shortcuts(v, shortcuts, false);
+                for (int i = 0 ; i < shortcuts.size() ; i += 3) {
+                    int u = shortcuts.get(i);
+                    int x = shortcuts.get(i + 1);
+                    int w = shortcuts.get(i + 2);
+                    out[u].put(x, w, v);
+                    in[x].put(u, w, v);
+                }
+                contracted[v] = true;
+                rank[v] = next++;
+                up[v] = out[v].remaining(contracted);
+                down[v] = in[v].remaining(contracted);
+                out[v] = null;
+                in[v] = null;
+                neighbours.clear();
+                for (var arcs : new Arcs[] { up[v], down[v] }) {
+                    for (int i = 0 ; i < arcs.size ; ++i) {
+                        int u = arcs.others[i];
+                        if (contractedNeighbours[u] >= 0) { // not already in the list
+                            contractedNeighbours[u] = ~(contractedNeighbours[u] + 1);
+                            neighbours.add(u);
+                            out[u].removeContracted(contracted);
+                            in[u].removeContracted(contracted);
+                        }
+                    }
+                }
+                var updated = neighbours.toArray();
+                var stream = IntStream.of(updated);
+                if (updated.length > PARALLEL_UPDATE_THRESHOLD) {
+                    stream = stream.parallel();
+                }
+                stream.forEach(u -> {
+                    contractedNeighbours[u] = ~contractedNeighbours[u];
+                    priority[u] = importance(u);
+                });
+                for (int u : updated) {
+                    queue.push(entry(priority[u], u));
+                }
+            }
+            return new ContractionHierarchy(g, rank, toArrays(up), toArrays(down));
+        }
+
+        private static long entry(int priority, int v) {
+            return ((long) priority << 32) | v;
+        }
+
+        private static int priority(long entry) {
+            return (int) (entry >> 32);
+        }
+
+        private static int[][] toArrays(Arcs[] arcs) {
+            int n = arcs.length;
+            var offsets = new int[n + 1];
+            for (int v = 0 ; v < n ; ++v) {
+                offsets[v + 1] = offsets[v] + arcs[v].size;
+            }
+            var others = new int[offsets[n]];
+            var weights = new int[offsets[n]];
+            var middles = new int[offsets[n]];
+            for (int v = 0 ; v < n ; ++v) {
+                System.arraycopy(arcs[v].others, 0, others, offsets[v], arcs[v].size);
+                System.arraycopy(arcs[v].weights, 0, weights, offsets[v], arcs[v].size);
+                System.arraycopy(arcs[v].middles, 0, middles, offsets[v], arcs[v].size);
+            }
+            return new int[][] { offsets, others, weights, middles };
+        }
+    }
+
+    /**
+     * Dijkstra search of one thread looking for witness paths. It ignores the vertex being contracted, and stops at a
+     * distance limit or after a number of settled vertices : missing a witness only adds a useless shortcut, it never
+     * makes the hierarchy wrong. It also stops once all the targets (the other neighbours of the vertex being
+     * contracted) are settled.
+     */
+    private static final class Witness {
+        private final int[] d;
+        private final int[] seen;
+        private final int[] target; // marked with the number of the run for the targets of the current search
+        private final LongHeap heap = new LongHeap();
+        private int run;
+        private int targets; // number of targets not yet settled
+
+        Witness(int n) {
+            d = new int[n];
+            seen = new int[n];
+            target = new int[n];
+        }
+
+        long distance(int v) {
+            return seen[v] == run ? d[v] : Long.MAX_VALUE;
+        }
+
+        /**
+         * Start a new search from source, whose targets are then given by target().
+         */
+        void start(int source) {
+            run++;
+            targets = 0;
+            heap.clear();
+            d[source] = 0;
+            seen[source] = run;
+            heap.push(source);
+        }
+
+        void target(int v) {
+            target[v] = run;
+            targets++;
+        }
+
+        void run(Contraction contraction, int ignored, long limit) {
+            int settled = 0;
+            while (! heap.isEmpty() && settled < WITNESS_SETTLED_LIMIT && targets > 0) {
+                long top = heap.pop();
+                int s = (int) top;
+                int ds = (int) (top >>> 32);
+                if (ds != d[s]) {
+                    continue; // stale entry
+                }
+                if (ds > limit) {
+                    break;
+                }
+                settled++;
+                if (target[s] == run) {
+                    targets--;
+                }
+                var arcs = contraction.out[s];
+                for (int i = 0 ; i < arcs.size ; ++i) {
+                    int t = arcs.others[i];
+                    if (t == ignored) {
+                        continue;
+                    }
+                    long candidate = (long) ds + arcs.weights[i];
+                    if (candidate <= limit && (seen[t] != run || candidate < d[t])) {
+                        seen[t] = run;
+                        d[t] = (int) candidate;
+                        heap.push((candidate << 32) | t);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the contraction hierarchy of a graph.
+     * @param g : a valid graph, whose weights are non negative
+     * @return the hierarchy of g
+     */
+    public static ContractionHierarchy of(Graph g) {
+        Objects.requireNonNull(g);
+        var adj = Adjacency.of(g);
+        for (int w : adj.weights) {
+            if (w < 0) {
+                throw new IllegalArgumentException("Contraction hierarchies need non negative weights");
+            }
+        }
+        return new Contraction(adj).contract(g);
+    }
+
+    /**
+     * @param v : a vertex
+     * @return the step at which v was contracted, the most important vertices having the highest ranks
+     */
+    public int rank(int v) {
+        Objects.checkIndex(v, n);
+        return rank[v];
+    }
+
+    /**
+     * @return the number of shortcuts added by the preprocessing
+     */
+    public int numberOfShortcuts() {
+        int count = 0;
+        for (int middle : upMiddles) {
+            if (middle != NO_MIDDLE) {
+                count++;
+            }
+        }
+        for (int middle : downMiddles) {
+            if (middle != NO_MIDDLE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Compute a shortest path from source to destination.
+     * @param source : the starting vertex
+     * @param destination : the destination vertex
+     * @return a shortest path in the graph and its length
+     */
+    public PathAnswer query(int source, int destination) {
+        return query(source, destination, null);
+    }
+
+    /**
+     * Same as query(source, destination), filling the given stats during the computation.
+     * @param stats : the stats to fill, or null
+     */
+    public PathAnswer query(int source, int destination, AlgorithmStats stats) {
+        if (source < 0 || source >= n) {
+            throw new IndexOutOfBoundsException("Index of starting vertex is out of bounds");
+        }
+        if (destination < 0 || destination >= n) {
+            throw new IndexOutOfBoundsException("Index of destination vertex is out of bounds");
+        }
+        var st = AlgorithmStats.begin("contractionHierarchy", g, stats);
+        try {
+            return queries.get().run(this, source, destination, st);
+        } finally {
+            if (st != null) {
+                st.end();
+            }
+        }
+    }
+
+    /**
+     * One direction of a query : the distances found, and for each vertex the edge it was reached by. The edges
+     * followed are given at the start of each query.
+     */
+    private static final class Side {
+        private final int[] d;
+        private final int[] previous; // other end of the edge the vertex was reached by
+        private final int[] middle; // middle of this edge
+        private final int[] seen;
+        private final LongHeap heap = new LongHeap();
+        private int[] offsets;
+        private int[] others;
+        private int[] weights;
+        private int[] middles;
+
+        Side(int n) {
+            d = new int[n];
+            previous = new int[n];
+            middle = new int[n];
+            seen = new int[n];
+        }
+
+        void start(int v, int run, int[] offsets, int[] others, int[] weights, int[] middles) {
+            this.offsets = offsets;
+            this.others = others;
+            this.weights = weights;
+            this.middles = middles;
+            heap.clear();
+            seen[v] = run;
+            d[v] = 0;
+            previous[v] = v;
+            middle[v] = NO_MIDDLE;
+            heap.push(v);
+        }
+
+        void end() {
+            offsets = null;
+            others = null;
+            weights = null;
+            middles = null;
+        }
+
+        /**
+         * @return the smallest key in the queue, or INF if it is empty
+         */
+        long min() {
+            return heap.isEmpty() ? INF : heap.peek() >>> 32;
+        }
+
+        /**
+         * Settle the next vertex and relax its edges.
+         * @return the settled vertex, or -1 if the popped entry was stale
+         */
+        int step(int run, AlgorithmStats st) {
+            long top = heap.pop();
+            int s = (int) top;
+            int ds = (int) (top >>> 32);
+            if (ds != d[s]) {
+                return -1;
+            }
+            if (st != null) {
+                st.verticesSettled++;
+                st.heapOperations++;
+                st.edgesScanned += offsets[s + 1] - offsets[s];
+            }
+            for (int e = offsets[s] ; e < offsets[s + 1] ; ++e) {
+                int t = others[e];
+                long candidate = (long) ds + weights[e];
+                if (candidate < INF && (seen[t] != run || candidate < d[t])) {
+                    seen[t] = run;
+                    d[t] = (int) candidate;
+                    previous[t] = s;
+                    middle[t] = middles[e];
+                    heap.push((candidate << 32) | t);
+                    if (st != null) {
+                        st.edgesRelaxed++;
+                    }
+                }
+            }
+            return s;
+        }
+    }
+
+    /**
+     * Working arrays of the queries of one thread. The vertices seen by the current query are marked with its
+     * number, so that nothing is cleared between two queries. The arrays of the hierarchy are only referenced during
+     * a query, so that the value held by a thread does not keep the hierarchy alive.
+     */
+    private static final class Query {
+        private final Side forward;
+        private final Side backward;
+        private int run;
+
+        Query(int n) {
+            forward = new Side(n);
+            backward = new Side(n);
+        }
+
+        PathAnswer run(ContractionHierarchy ch, int source, int destination, AlgorithmStats st) {
+            run++;
+            forward.start(source, run, ch.upOffsets, ch.upTargets, ch.upWeights, ch.upMiddles);
+            backward.start(destination, run, ch.downOffsets, ch.downSources, ch.downWeights, ch.downMiddles);
+            try {
+                return search(ch, source, destination, st);
+            } finally {
+                forward.end();
+                backward.end();
+            }
+        }
+
+        private PathAnswer search(ContractionHierarchy ch, int source, int destination, AlgorithmStats st) {
+            long best = source == destination ? 0 : INF;
+            int meeting = source;
+            while (true) {
+                long forwardMin = forward.min();
+                long backwardMin = backward.min();
+                if (Math.min(forwardMin, backwardMin) >= best) {
+                    break;
+                }
+                var side = forwardMin <= backwardMin ? forward : backward;
+                var other = side == forward ? backward : forward;
+                int s = side.step(run, st);
+                if (s != -1 && other.seen[s] == run && (long) side.d[s] + other.d[s] < best) {
+                    best = (long) side.d[s] + other.d[s];
+                    meeting = s;
+                }
+            }
+            if (best >= INF) {
+                return new PathAnswer(source, destination, INF, new int[0]);
+            }
+            return new PathAnswer(source, destination, (int) best, path(ch, source, destination, meeting));
+        }
+
+        /**
+         * Unpack the edges from the source to the meeting vertex, then from the meeting vertex to the destination.
+         */
+        private int[] path(ContractionHierarchy ch, int source, int destination, int meeting) {
+            var edges = new IntList(); // (from, to, middle) triples, from the meeting vertex back to the source
+            for (int v = meeting ; v != source ; v = forward.previous[v]) {
+                edges.add(forward.previous[v]);
+                edges.add(v);
+                edges.add(forward.middle[v]);
+            }
+            var path = new IntList();
+            path.add(source);
+            for (int i = edges.size() - 3 ; i >= 0 ; i -= 3) {
+                ch.unpack(edges.get(i), edges.get(i + 1), edges.get(i + 2), path);
+            }
+            for (int v = meeting ; v != destination ; v = backward.previous[v]) {
+                ch.unpack(v, backward.previous[v], backward.middle[v], path);
+            }
+            return path.toArray();
+        }
+    }
+
+    /**
+     * Append to path the vertices of the edge from -> to, without from. A shortcut through m stands for the edges
+     * from -> m, stored with m as a downward edge, and m -> to, stored with m as an upward edge ; they are unpacked
+     * with an explicit stack since the hierarchy may be deep.
+     */
+    private void unpack(int from, int to, int middle, IntList path) {
+        var stack = new IntList();
+        stack.add(from);
+        stack.add(to);
+        stack.add(middle);
+        while (! stack.isEmpty()) {
+            int m = stack.removeLast();
+            int t = stack.removeLast();
+            int f = stack.removeLast();
+            if (m == NO_MIDDLE) {
+                path.add(t);
+                continue;
+            }
+            int second = find(upOffsets, upTargets, m, t);
+            int first = find(downOffsets, downSources, m, f);
+            stack.add(m);
+            stack.add(t);
+            stack.add(upMiddles[second]);
+            stack.add(f);
+            stack.add(m);
+            stack.add(downMiddles[first]);
+        }
+    }
+
+    private static int find(int[] offsets, int[] others, int v, int other) {
+        for (int e = offsets[v] ; e < offsets[v + 1] ; ++e) {
+            if (others[e] == other) {
+                return e;
+            }
+        }
+        throw new AssertionError("Missing edge of shortcut through " + v);
+    }
+
+    /**
+     * Save the hierarchy, so that it can be loaded without any preprocessing. The file records a fingerprint of the
+     * graph, and is written with IntFiles like the landmark tables.
+     * @param path : the file to write
+     * @throws IOException if the file can not be written
+     */
+    public void save(Path path) throws IOException {
+        Objects.requireNonNull(path);
+        IntFiles.save(path, (channel, buffer) -> {
+            buffer.putInt(MAGIC).putInt(n).putLong(ResumableGraphs.fingerprint(g))
+                    .putInt(upTargets.length).putInt(downSources.length);
+            for (var array : new int[][] { rank, upOffsets, upTargets, upWeights, upMiddles,
+                    downOffsets, downSources, downWeights, downMiddles }) {
+                IntFiles.writeInts(channel, buffer, array);
+            }
+        });
+    }
+
+    /**
+     * Load a hierarchy saved by save(path), without any preprocessing.
+     * @param g : the graph the hierarchy was built for
+     * @param path : the file to read
+     * @return the hierarchy of g
+     * @throws IOException if the file can not be read or is not a hierarchy file
+     * @throws IllegalArgumentException if the hierarchy was built for another graph
+     */
+    public static ContractionHierarchy load(Graph g, Path path) throws IOException {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(path);
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = IntFiles.readBuffer();
+            IntFiles.fill(channel, buffer, 24, path);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a contraction hierarchy file : " + path);
+            }
+            int n = buffer.getInt();
+            if (n != g.numberOfVertices() || buffer.getLong() != ResumableGraphs.fingerprint(g)) {
+                throw new IllegalArgumentException("Contraction hierarchy " + path + " was built for another graph");
+            }
+            int ups = buffer.getInt();
+            int downs = buffer.getInt();
+            if (ups < 0 || downs < 0 || channel.size() != 24 + 4L * (3L * n + 2 + 3L * ups + 3L * downs)) {
+                throw new IOException("Invalid contraction hierarchy file : " + path);
+            }
+            var rank = IntFiles.readInts(channel, buffer, n, path);
+            var up = new int[4][];
+            var down = new int[4][];
+            up[0] = IntFiles.readInts(channel, buffer, n + 1, path);
+            for (int i = 1 ; i < 4 ; ++i) {
+                up[i] = IntFiles.readInts(channel, buffer, ups, path);
+            }
+            down[0] = IntFiles.readInts(channel, buffer, n + 1, path);
+            for (int i = 1 ; i < 4 ; ++i) {
+                down[i] = IntFiles.readInts(channel, buffer, downs, path);
+            }
+            if (! isPermutation(rank) || ! isValid(up, n) || ! isValid(down, n)) {
+                throw new IOException("Invalid contraction hierarchy file : " + path);
+            }
+            return new ContractionHierarchy(g, rank, up, down);
+        }
+    }
+
+    private static boolean isPermutation(int[] rank) {
+        var seen = new boolean[rank.length];
+        for (int r : rank) {
+            if (r < 0 || r >= rank.length || seen[r]) {
+                return false;
+            }
+            seen[r] = true;
+        }
+        return true;
+    }
+
+    /**
+     * Check the edges read from a file : offsets from 0 to the number of edges, other ends in [0, n), weights non
+     * negative and middles in [-1, n), so that a corrupted file can not make a query fail or loop.
+     */
+    private static boolean isValid(int[][] edges, int n) {
+        int[] offsets = edges[0];
+        if (offsets[0] != 0 || offsets[n] != edges[1].length) {
+            return false;
+        }
+        for (int v = 0 ; v < n ; ++v) {
+            if (offsets[v] > offsets[v + 1]) {
+                return false;
+            }
+        }
+        for (int e = 0 ; e < edges[1].length ; ++e) {
+            if (edges[1][e] < 0 || edges[1][e] >= n || edges[2][e] < 0 || edges[3][e] < NO_MIDDLE
+                    || edges[3][e] >= n) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
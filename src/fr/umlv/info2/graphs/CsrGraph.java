@@ -0,0 +1,197 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable graph stored in compressed sparse row form : the successors of vertex i are
+ * targets[offsets[i]] .. targets[offsets[i + 1] - 1], sorted by increasing index, and their weights are at the same
+ * indices in weights. This takes 8 bytes per edge and 4 bytes per vertex, which makes it the representation of
+ * choice for large read-only graphs.
+ * Since the graph can not be modified, it can be read by several threads at once.
+ */
+public class CsrGraph implements Graph {
+    private final int n; // number of vertices
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    private CsrGraph(int n, int[] offsets, int[] targets, int[] weights) {
+        this.n = n;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Build a graph from a list of edges, given as three arrays of the same length : edge k goes from sources[k]
+     * to targets[k] with weight weights[k]. Parallel edges are merged, keeping the smallest weight.
+     * The successors of the vertices are sorted in parallel.
+     * @param nbVertices the number of vertices
+     * @param sources the start of each edge
+     * @param targets the end of each edge
+     * @param weights the weight of each edge
+     * @return the graph containing these edges
+     * @throws IllegalArgumentException if the number of vertices is not positive or if the arrays do not have the same
+     * length
+     * @throws IndexOutOfBoundsException if a vertex is < 0 or >= nbVertices
+     */
+    public static CsrGraph fromEdges(int nbVertices, int[] sources, int[] targets, int[] weights) {
+        Objects.requireNonNull(sources);
+        Objects.requireNonNull(targets);
+        Objects.requireNonNull(weights);
+        if (nbVertices <= 0) {
+            throw new IllegalArgumentException("Vertices number should be positive");
+        }
+        int m = sources.length;
+        if (targets.length != m || weights.length != m) {
+            throw new IllegalArgumentException("Sources, targets and weights should have the same length");
+        }
+        int[] start = new int[nbVertices + 1];
+        for (int k = 0 ; k < m ; ++k) {
+            Objects.checkIndex(targets[k], nbVertices);
+            start[Objects.checkIndex(sources[k], nbVertices) + 1]++;
+        }
+        for (int v = 0 ; v < nbVertices ; ++v) {
+            start[v + 1] += start[v];
+        }
+        // each edge is packed in a long, target first, so that sorting a range sorts by target then by weight
+        // (the sign bit of the weight is flipped so that negative weights come first)
+        long[] packed = new long[m];
+        int[] next = Arrays.copyOf(start, nbVertices);
+        for (int k = 0 ; k < m ; ++k) {
+            packed[next[sources[k]]++] = ((long) targets[k] << 32) | ((weights[k] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+        }
+        int[] degree = new int[nbVertices + 1];
+        IntStream.range(0, nbVertices).parallel().forEach(v -> {
+            Arrays.sort(packed, start[v], start[v + 1]);
+            int kept = 0;
+            for (int k = start[v] ; k < start[v + 1] ; ++k) {
+                if (kept == 0 || (int) (packed[k] >>> 32) != (int) (packed[start[v] + kept - 1] >>> 32)) {
+                    packed[start[v] + kept++] = packed[k];
+                }
+            }
+            degree[v + 1] = kept;
+        });
+        for (int v = 0 ; v < nbVertices ; ++v) {
+            degree[v + 1] += degree[v];
+        }
+        int[] offsets = degree;
+        int[] t = new int[offsets[nbVertices]];
+        int[] w = new int[offsets[nbVertices]];
+        IntStream.range(0, nbVertices).parallel().forEach(v -> {
+            for (int k = 0 ; k < offsets[v + 1] - offsets[v] ; ++k) {
+                long edge = packed[start[v] + k];
+                t[offsets[v] + k] = (int) (edge >>> 32);
+                w[offsets[v] + k] = (int) edge ^ Integer.MIN_VALUE;
+            }
+        });
+        return new CsrGraph(nbVertices, offsets, t, w);
+    }
+
+    /**
+     * Build an immutable copy of the given graph.
+     * @param g a valid graph
+     * @return a CsrGraph with the same edges as g
+     */
+    public static CsrGraph copyOf(Graph g) {
+        Objects.requireNonNull(g);
+        if (g instanceof CsrGraph) {
+            return (CsrGraph) g;
+        }
+        var adj = Adjacency.of(g);
+        int[] sources = new int[adj.numberOfEdges()];
+        for (int v = 0 ; v < adj.n ; ++v) {
+            Arrays.fill(sources, adj.offsets[v], adj.offsets[v + 1], v);
+        }
+        return fromEdges(adj.n, sources, adj.targets, adj.weights);
+    }
+
+    /**
+     * @return the adjacency arrays of this graph, shared without copy since they are never modified
+     */
+    Adjacency toAdjacency() {
+        return Adjacency.of(n, offsets, targets, weights);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " must be >= 0 and <= " + n);
+        }
+    }
+
+    @Override
+    public int numberOfEdges() {
+        return targets.length;
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return n;
+    }
+
+    @Override
+    public void addEdge(int i, int j, int value) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    private int find(int i, int j) {
+        return Arrays.binarySearch(targets, offsets[i], offsets[i + 1], j);
+    }
+
+    @Override
+    public boolean isEdge(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        return find(i, j) >= 0;
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        int index = find(i, j);
+        return index >= 0 ? weights[index] : 0;
+    }
+
+    @Override
+    public Iterator<Edge> edgeIterator(int i) {
+        checkIndex(i);
+        return new Iterator<>() {
+            private int index = offsets[i];
+
+            @Override
+            public boolean hasNext() {
+                return index < offsets[i + 1];
+            }
+
+            @Override
+            public Edge next() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var edge = new Edge(i, targets[index], weights[index]);
+                index++;
+                return edge;
+            }
+        };
+    }
+
+    @Override
+    public void forEachEdge(int i, Consumer<Edge> consumer) {
+        Objects.requireNonNull(consumer);
+        checkIndex(i);
+        for (int index = offsets[i] ; index < offsets[i + 1] ; ++index) {
+            consumer.accept(new Edge(i, targets[index], weights[index]));
+        }
+    }
+
+    @Override
+    public String toGraphviz() {
+        return GraphvizExporter.toGraphviz(this);
+    }
+}
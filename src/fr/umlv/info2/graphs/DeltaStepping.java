@@ -0,0 +1,234 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Parallel single source shortest paths using the delta-stepping algorithm (Meyer and Sanders).
+ * Vertices are kept in buckets of width delta according to their tentative distance. The smallest bucket is emptied
+ * by repeatedly relaxing the light edges (weight <= delta) of its vertices, then the heavy edges of every vertex
+ * removed from it are relaxed once. Each relaxation phase is split into fork/join tasks.
+ * The distance and the predecessor of each vertex are packed into a single long, so that both are updated by the
+ * same compare-and-set.
+ */
+final class DeltaStepping {
+    private static final int THRESHOLD = 256; // number of vertices relaxed by a leaf task
+
+    private final Adjacency adj;
+    private final int delta;
+    private final ForkJoinPool pool;
+    private final AtomicLongArray state;
+    private final AlgorithmStats stats; // null if not instrumented
+
+    private DeltaStepping(Adjacency adj, int delta, ForkJoinPool pool, AlgorithmStats stats) {
+        this.adj = adj;
+        this.delta = delta;
+        this.pool = pool;
+        this.state = new AtomicLongArray(adj.n);
+        this.stats = stats;
+    }
+
+    private static long pack(int distance, int predecessor) {
+        return ((long) distance << 32) | (predecessor & 0xFFFFFFFFL);
+    }
+
+    private static int distance(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int predecessor(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Choose a bucket width from the graph : the maximum weight divided by the average out degree, which keeps the
+     * number of light relaxations rounds low without making buckets too wide.
+     * @param g a valid graph
+     * @return a positive delta
+     */
+    static int defaultDelta(Graph g) {
+        Objects.requireNonNull(g);
+        int n = g.numberOfVertices();
+        int[] maxWeight = { 1 };
+        for (int v = 0 ; v < n ; ++v) {
+            g.forEachEdge(v, e -> maxWeight[0] = Math.max(maxWeight[0], e.getValue()));
+        }
+        int averageDegree = Math.max(1, g.numberOfEdges() / n);
+        return Math.max(1, maxWeight[0] / averageDegree);
+    }
+
+    static ShortestPathFromOneVertex run(Graph g, int v0, int delta, ForkJoinPool pool, AlgorithmStats stats) {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(pool);
+        int V = g.numberOfVertices();
+        if (v0 < 0 || v0 >= V) {
+            throw new IndexOutOfBoundsException("Index of starting vertex is out of bounds");
+        }
+        if (delta <= 0) {
+            throw new IllegalArgumentException("Delta should be positive");
+        }
+        var st = AlgorithmStats.begin("deltaStepping", g, stats);
+        try {
+            var adj = Adjacency.of(g);
+            for (int w : adj.weights) {
+                if (w < 0) {
+                    throw new IllegalArgumentException("Delta-stepping needs non negative weights");
+                }
+            }
+            if (st != null) {
+                st.endPhase("adjacency");
+            }
+            return new DeltaStepping(adj, delta, pool, st).solve(v0);
+        } finally {
+            if (st != null) {
+                st.end();
+            }
+        }
+    }
+
+    /**
+     * Record a relaxation phase in the stats.
+     */
+    private void record(IntList frontier, IntList improved, String phase) {
+        long scanned = 0;
+        for (int k = 0 ; k < frontier.size() ; ++k) {
+            scanned += adj.degree(frontier.get(k));
+        }
+        stats.frontier(frontier.size());
+        stats.edgesScanned += scanned;
+        stats.edgesRelaxed += improved.size();
+        stats.heapOperations += improved.size();
+        stats.endPhase(phase);
+    }
+
+    private ShortestPathFromOneVertex solve(int v0) {
+        int V = adj.n;
+        for (int v = 0 ; v < V ; ++v) {
+            state.set(v, pack(Integer.MAX_VALUE, Integer.MIN_VALUE));
+        }
+        state.set(v0, pack(0, v0));
+        var buckets = new TreeMap<Integer, IntList>();
+        var first = new IntList();
+        first.add(v0);
+        buckets.put(0, first);
+        // marks avoid treating twice the same vertex in one round, or removing it twice from the same bucket
+        int[] roundMark = new int[V];
+        int[] removedMark = new int[V];
+        int round = 0;
+        while (! buckets.isEmpty()) {
+            var entry = buckets.pollFirstEntry();
+            int i = entry.getKey();
+            var current = entry.getValue();
+            var removed = new IntList();
+            while (! current.isEmpty()) {
+                round++;
+                var frontier = new IntList(current.size());
+                for (int k = 0 ; k < current.size() ; ++k) {
+                    int v = current.get(k);
+                    if (roundMark[v] != round && distance(state.get(v)) / delta == i) {
+                        roundMark[v] = round;
+                        frontier.add(v);
+                        if (removedMark[v] != i + 1) {
+                            removedMark[v] = i + 1;
+                            removed.add(v);
+                        }
+                    }
+                }
+                var improved = pool.invoke(new Relax(frontier.toArray(), 0, frontier.size(), true));
+                if (stats != null) {
+                    record(frontier, improved, "light edges");
+                }
+                current = new IntList();
+                for (int k = 0 ; k < improved.size() ; ++k) {
+                    int t = improved.get(k);
+                    int b = distance(state.get(t)) / delta;
+                    if (b == i) {
+                        current.add(t);
+                    } else {
+                        buckets.computeIfAbsent(b, __ -> new IntList()).add(t);
+                    }
+                }
+            }
+            var improved = pool.invoke(new Relax(removed.toArray(), 0, removed.size(), false));
+            if (stats != null) {
+                stats.verticesSettled += removed.size();
+                record(removed, improved, "heavy edges");
+            }
+            for (int k = 0 ; k < improved.size() ; ++k) {
+                int t = improved.get(k);
+                buckets.computeIfAbsent(distance(state.get(t)) / delta, __ -> new IntList()).add(t);
+            }
+        }
+        int[] d = new int[V];
+        int[] p = new int[V];
+        for (int v = 0 ; v < V ; ++v) {
+            long packed = state.get(v);
+            d[v] = distance(packed);
+            p[v] = predecessor(packed);
+        }
+        return new ShortestPathFromOneVertex(v0, d, p);
+    }
+
+    /**
+     * Relax either the light or the heavy edges of a slice of the frontier, and return the vertices whose
+     * distance was lowered.
+     */
+    @SuppressWarnings("serial")
+    private final class Relax extends RecursiveTask<IntList> {
+        private final int[] frontier;
+        private final int lo;
+        private final int hi;
+        private final boolean light;
+
+        Relax(int[] frontier, int lo, int hi, boolean light) {
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.light = light;
+        }
+
+        @Override
+        protected IntList compute() {
+            if (hi - lo > THRESHOLD) {
+                int mid = (lo + hi) >>> 1;
+                var left = new Relax(frontier, lo, mid, light);
+                left.fork();
+                var right = new Relax(frontier, mid, hi, light).compute();
+                var result = left.join();
+                result.addAll(right);
+                return result;
+            }
+            var improved = new IntList();
+            for (int k = lo ; k < hi ; ++k) {
+                int s = frontier[k];
+                int ds = distance(state.get(s));
+                for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                    int w = adj.weights[e];
+                    if ((w <= delta) != light) {
+                        continue;
+                    }
+                    long candidate = (long) ds + w;
+                    if (candidate >= Integer.MAX_VALUE) {
+                        continue;
+                    }
+                    int t = adj.targets[e];
+                    long packed = pack((int) candidate, s);
+                    while (true) {
+                        long old = state.get(t);
+                        if (distance(old) <= candidate) {
+                            break;
+                        }
+                        if (state.compareAndSet(t, old, packed)) {
+                            improved.add(t);
+                            break;
+                        }
+                    }
+                }
+            }
+            return improved;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Reusable working arrays of a Dijkstra search on an Adjacency, using an indexed binary heap.
+ * Allocating the arrays once per thread instead of once per search avoids allocating and clearing O(n) memory for
+ * each query : after a search, only the entries that were touched are reset.
+ * This class is not thread-safe, each thread must use its own scratch.
+ */
+final class DijkstraScratch {
+    private static final int ABSENT = -1;
+    private static final int SETTLED = -2;
+
+    final int[] d;
+    final int[] pi;
+    private final int[] heap;
+    private final int[] position; // index in heap, ABSENT or SETTLED
+    private final int[] targetMark;
+    private final IntList touched = new IntList();
+    private int heapSize;
+    private int run;
+    private long settledCount;
+
+    DijkstraScratch(int n) {
+        d = new int[n];
+        pi = new int[n];
+        heap = new int[n];
+        position = new int[n];
+        targetMark = new int[n];
+        Arrays.fill(d, Integer.MAX_VALUE);
+        Arrays.fill(pi, Integer.MIN_VALUE);
+        Arrays.fill(position, ABSENT);
+    }
+
+    int size() {
+        return d.length;
+    }
+
+    /**
+     * @return the number of vertices settled by the last search
+     */
+    long settled() {
+        return settledCount;
+    }
+
+    /**
+     * Reset the entries touched by the previous search.
+     */
+    private void clear() {
+        for (int k = 0 ; k < touched.size() ; ++k) {
+            int v = touched.get(k);
+            d[v] = Integer.MAX_VALUE;
+            pi[v] = Integer.MIN_VALUE;
+            position[v] = ABSENT;
+        }
+        touched.clear();
+        heapSize = 0;
+        settledCount = 0;
+    }
+
+    /**
+     * Run a Dijkstra search from source, stopping as soon as all the targets are settled. After this method, d and pi
+     * hold the final distances and predecessors of the targets, and of all the vertices settled before them.
+     * @param adj the graph, whose weights must be non negative
+     * @param source the starting vertex
+     * @param targets the vertices whose distance is wanted, or null to settle every reachable vertex
+     * @param from index of the first target in the targets array
+     * @param to index after the last target in the targets array
+     */
+    void run(Adjacency adj, int source, int[] targets, int from, int to) {
+        clear();
+        run++;
+        int remaining = Integer.MAX_VALUE;
+        if (targets != null) {
+            remaining = 0;
+            for (int k = from ; k < to ; ++k) {
+                if (targetMark[targets[k]] != run) {
+                    targetMark[targets[k]] = run;
+                    remaining++;
+                }
+            }
+        }
+        d[source] = 0;
+        pi[source] = source;
+        touched.add(source);
+        push(source);
+        while (heapSize > 0 && remaining > 0) {
+            int s = pop();
+            settledCount++;
+            if (targets != null && targetMark[s] == run) {
+                remaining--;
+            }
+            int ds = d[s];
+            for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                int t = adj.targets[e];
+                if (position[t] == SETTLED) {
+                    continue;
+                }
+                long candidate = (long) ds + adj.weights[e];
+                if (candidate < d[t]) {
+                    if (d[t] == Integer.MAX_VALUE && position[t] == ABSENT) {
+                        touched.add(t);
+                    }
+                    d[t] = (int) candidate;
+                    pi[t] = s;
+                    if (position[t] == ABSENT) {
+                        push(t);
+                    } else {
+                        siftUp(position[t]);
+                    }
+                }
+            }
+        }
+    }
+
+    private void push(int v) {
+        heap[heapSize] = v;
+        position[v] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int min = heap[0];
+        position[min] = SETTLED;
+        heapSize--;
+        if (heapSize > 0) {
+            int last = heap[heapSize];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int p = heap[parent];
+            if (d[p] <= d[v]) {
+                break;
+            }
+            heap[i] = p;
+            position[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && d[heap[child + 1]] < d[heap[child]]) {
+                child++;
+            }
+            int c = heap[child];
+            if (d[v] <= d[c]) {
+                break;
+            }
+            heap[i] = c;
+            position[c] = i;
+            i = child;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+}
@@ -0,0 +1,392 @@
+package fr.umlv.info2.graphs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Graph stored in a directory, whose modifications survive a crash of the JVM or of the machine.
+ * The directory holds a snapshot of the graph and a log of the edges added since the snapshot. Each call to addEdge
+ * appends a record (with a CRC) to the log, and returns only once the record is forced to the disk. Concurrent calls
+ * are committed as a group : the first writer which finds no write in progress writes and forces all the pending
+ * records at once, while the other writers wait for it, so a single force is paid for the whole group.
+ * When the log reaches a threshold, the graph is written as a new snapshot (to a temporary file, atomically renamed)
+ * and the log is emptied.
+ * Opening the directory loads the snapshot and replays the log, stopping at the first record torn by a crash.
+ * Reads are served by a ConcurrentGraph held in memory, so they never wait for the disk. An edge may be seen by
+ * readers shortly before the addEdge which added it returns.
+ */
+public class DurableGraph implements Graph, AutoCloseable {
+    private static final int SNAPSHOT_MAGIC = 0x47534E50; // GSNP
+    private static final int LOG_MAGIC = 0x474C4F47; // GLOG
+    private static final int HEADER = 8;
+    private static final int RECORD = 16;
+    private static final int DEFAULT_SNAPSHOT_THRESHOLD = 1 << 20;
+
+    private final int n; // number of vertices
+    private final Path snapshotFile;
+    private final ConcurrentGraph memory;
+    private final FileChannel log;
+    private final int snapshotThreshold;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pending = ByteBuffer.allocate(RECORD * 256);
+    private ByteBuffer spare = ByteBuffer.allocate(RECORD * 256);
+    private long appended; // sequence number of the last record appended
+    private long durable; // sequence number of the last record forced to the disk
+    private boolean flushing;
+    private int logRecords;
+    private boolean closed;
+    private IOException failure; // set when a write failed, the log is then unusable
+
+    private DurableGraph(int n, Path snapshotFile, ConcurrentGraph memory, FileChannel log, int logRecords,
+                         int snapshotThreshold) {
+        this.n = n;
+        this.snapshotFile = snapshotFile;
+        this.memory = memory;
+        this.log = log;
+        this.logRecords = logRecords;
+        this.snapshotThreshold = snapshotThreshold;
+    }
+
+    /**
+     * Same as open(directory, nbVertices, snapshotThreshold) with a snapshot every 2^20 edges.
+     */
+    public static DurableGraph open(Path directory, int nbVertices) throws IOException {
+        return open(directory, nbVertices, DEFAULT_SNAPSHOT_THRESHOLD);
+    }
+
+    /**
+     * Open the graph stored in the given directory, or create an empty graph if the directory holds no graph.
+     * @param directory the directory holding the files of the graph, created if needed
+     * @param nbVertices the number of vertices
+     * @param snapshotThreshold the number of records of the log which triggers a new snapshot
+     * @return the graph, with all the edges whose addition returned before the last stop
+     * @throws IOException if I/O error occurs while reading the files
+     * @throws IllegalArgumentException if the directory holds a graph with another number of vertices
+     */
+    public static DurableGraph open(Path directory, int nbVertices, int snapshotThreshold) throws IOException {
+        Objects.requireNonNull(directory);
+        if (snapshotThreshold <= 0) {
+            throw new IllegalArgumentException("Snapshot threshold should be positive");
+        }
+        var memory = new ConcurrentGraph(nbVertices);
+        Files.createDirectories(directory);
+        var snapshotFile = directory.resolve("snapshot.bin");
+        if (Files.exists(snapshotFile)) {
+            readSnapshot(snapshotFile, memory);
+        }
+        var channel = FileChannel.open(directory.resolve("edges.log"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int records = replay(channel, memory);
+            return new DurableGraph(nbVertices, snapshotFile, memory, channel, records, snapshotThreshold);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void checkHeader(ByteBuffer header, int magic, int n, Object file) throws IOException {
+        if (header.remaining() < HEADER || header.getInt() != magic) {
+            throw new IOException("Not a graph file : " + file);
+        }
+        if (header.getInt() != n) {
+            throw new IllegalArgumentException(file + " holds a graph with another number of vertices");
+        }
+    }
+
+    private static void readSnapshot(Path file, ConcurrentGraph memory) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var header = ByteBuffer.allocate(HEADER + 4);
+            IntFiles.readFully(channel, header);
+            checkHeader(header, SNAPSHOT_MAGIC, memory.numberOfVertices(), file);
+            int m = header.getInt();
+            var buffer = ByteBuffer.allocate(12 * 4096);
+            int read = 0;
+            while (read < m) {
+                int expected = 12 * Math.min(4096, m - read);
+                buffer.clear();
+                buffer.limit(expected);
+                IntFiles.readFully(channel, buffer);
+                if (buffer.remaining() != expected) {
+                    throw new IOException("Snapshot is truncated : " + file);
+                }
+                while (buffer.hasRemaining()) {
+                    memory.addEdge(buffer.getInt(), buffer.getInt(), buffer.getInt());
+                    read++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the valid records of the log to the graph, and cut the log after the last one.
+     * @return the number of valid records
+     */
+    private static int replay(FileChannel channel, ConcurrentGraph memory) throws IOException {
+        int n = memory.numberOfVertices();
+        if (channel.size() < HEADER) {
+            channel.truncate(0);
+            var header = ByteBuffer.allocate(HEADER);
+            header.putInt(LOG_MAGIC).putInt(n);
+            IntFiles.writeFully(channel, header);
+            channel.force(false);
+            return 0;
+        }
+        var header = ByteBuffer.allocate(HEADER);
+        channel.position(0);
+        IntFiles.readFully(channel, header);
+        checkHeader(header, LOG_MAGIC, n, "edges.log");
+        var crc = new CRC32();
+        var buffer = ByteBuffer.allocate(RECORD * 4096);
+        long valid = HEADER;
+        int records = 0;
+        loop:
+        while (true) {
+            buffer.clear();
+            IntFiles.readFully(channel, buffer);
+            if (buffer.remaining() < RECORD) {
+                break;
+            }
+            while (buffer.remaining() >= RECORD) {
+                int position = buffer.position();
+                crc.reset();
+                crc.update(buffer.array(), position, 12);
+                int i = buffer.getInt();
+                int j = buffer.getInt();
+                int value = buffer.getInt();
+                if (buffer.getInt() != (int) crc.getValue() || i < 0 || i >= n || j < 0 || j >= n) {
+                    break loop;
+                }
+                memory.addEdge(i, j, value);
+                valid += RECORD;
+                records++;
+            }
+            channel.position(valid);
+        }
+        channel.truncate(valid);
+        channel.position(valid);
+        return records;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " must be >= 0 and <= " + n);
+        }
+    }
+
+    /**
+     * Add an edge, and wait until it is written to the disk.
+     * @throws UncheckedIOException if the log can not be written
+     * @throws IllegalStateException if the graph is closed
+     */
+    @Override
+    public void addEdge(int i, int j, int value) {
+        checkIndex(i);
+        checkIndex(j);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Graph is closed");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Log is unusable after a failed write", failure);
+            }
+            memory.addEdge(i, j, value);
+            if (pending.remaining() < RECORD) {
+                pending = ByteBuffer.allocate(pending.capacity() * 2).put(pending.flip());
+            }
+            int position = pending.position();
+            pending.putInt(i).putInt(j).putInt(value);
+            crc.reset();
+            crc.update(pending.array(), position, 12);
+            pending.putInt((int) crc.getValue());
+            long sequence = ++appended;
+            logRecords++;
+            while (durable < sequence) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Log is unusable after a failed write", failure);
+                }
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                } else {
+                    flush();
+                }
+            }
+            if (logRecords >= snapshotThreshold) {
+                snapshot();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write and force the pending records, releasing the lock during the I/O so that other writers can append the
+     * records of the next group. Called with the lock held.
+     */
+    private void flush() throws IOException {
+        flushing = true;
+        var batch = pending;
+        pending = spare;
+        long upTo = appended;
+        lock.unlock();
+        try {
+            IntFiles.writeFully(log, batch);
+            log.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        } finally {
+            lock.lock();
+            flushing = false;
+            batch.clear();
+            spare = batch;
+            flushed.signalAll();
+        }
+        durable = upTo;
+    }
+
+    /**
+     * Write the whole graph as a new snapshot and empty the log. Writers wait during the snapshot.
+     * @throws IOException if I/O error occurs while writing the files
+     */
+    public void checkpoint() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Graph is closed");
+            }
+            if (failure != null) {
+                throw new IOException("Log is unusable after a failed write", failure);
+            }
+            snapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called with the lock held.
+     */
+    private void snapshot() throws IOException {
+        while (flushing) {
+            flushed.awaitUninterruptibly();
+        }
+        if (durable < appended) {
+            flush();
+        }
+        var adj = memory.toAdjacency();
+        // IntFiles.save forces the rename to the disk before the log it replaces is emptied
+        IntFiles.save(snapshotFile, (channel, buffer) -> {
+            buffer.putInt(SNAPSHOT_MAGIC).putInt(n).putInt(adj.numberOfEdges());
+            for (int s = 0 ; s < n ; ++s) {
+                for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                    if (buffer.remaining() < 12) {
+                        IntFiles.writeFully(channel, buffer);
+                    }
+                    buffer.putInt(s).putInt(adj.targets[e]).putInt(adj.weights[e]);
+                }
+            }
+        });
+        // a crash before the truncation replays the log on the new snapshot, which gives the same graph
+        log.truncate(HEADER);
+        log.position(HEADER);
+        log.force(false);
+        logRecords = 0;
+    }
+
+    /**
+     * @return the number of records in the log, which will be replayed when the graph is opened again
+     */
+    public int logSize() {
+        lock.lock();
+        try {
+            return logRecords;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the log. The edges whose addition returned are on the disk.
+     * @throws IOException if I/O error occurs while closing the log
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            closed = true;
+            log.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int numberOfEdges() {
+        return memory.numberOfEdges();
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return n;
+    }
+
+    @Override
+    public boolean isEdge(int i, int j) {
+        return memory.isEdge(i, j);
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        return memory.getWeight(i, j);
+    }
+
+    @Override
+    public Iterator<Edge> edgeIterator(int i) {
+        return memory.edgeIterator(i);
+    }
+
+    @Override
+    public void forEachEdge(int i, Consumer<Edge> consumer) {
+        memory.forEachEdge(i, consumer);
+    }
+
+    @Override
+    public long modificationCount() {
+        return memory.modificationCount();
+    }
+
+    /**
+     * @return the adjacency arrays of the edges in memory
+     */
+    Adjacency toAdjacency() {
+        return memory.toAdjacency();
+    }
+
+    @Override
+    public String toGraphviz() {
+        return memory.toGraphviz();
+    }
+}
@@ -3,7 +3,6 @@ package fr.umlv.info2.graphs;
 
 import java.io.*;
 import java.nio.channels.FileChannel;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
@@ -22,6 +21,15 @@ public interface Graph {
     void forEachEdge(int i, Consumer<Edge> consumer);
     String toGraphviz();
 
+    /**
+     * Return the number of modifications of the graph, increased by every call to addEdge which changes it.
+     * A result computed on the graph stays valid as long as this number does not change.
+     * @return the modification count, always 0 for a graph which can not be modified
+     */
+    default long modificationCount() {
+        return 0;
+    }
+
     /**
      * Load the graph stored in the file whose path is given in argument.
      * This file should provide a matrix representation of the graph wanted, and needs to be well formatted, which is :
@@ -77,9 +85,9 @@ public interface Graph {
 
     /**
      * This method uses graphviz to generate a .png image representing the graph.
-     * To do so, it writes the dot representation of the graph (gotten using Graph.toGraphviz()) into a .dot file,
+     * To do so, it streams the dot representation of the graph (see GraphvizExporter) into a .dot file,
      * and then uses a dot shell command to convert this file to a .png image.
-     * The method then opens the image generated, and blocks until the file is closed by user.
+     * The method then opens the image generated in a viewer, and returns without waiting for the viewer to close.
      * @param g The graph for which an image view is wanted
      * @param fileName The file to use for writing (should end with a .dot suffix);
      * @throws IOException
@@ -93,7 +101,7 @@ public interface Graph {
         // Writing the graph dot representation to a .dot file
         try (var fc = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE
                                     , StandardOpenOption.TRUNCATE_EXISTING)) {
-            fc.write(StandardCharsets.UTF_8.encode(g.toGraphviz()));
+            new GraphvizExporter().write(g, fc);
             System.out.println("Wrote graph to file " + fileName);
         }
         // Using dot command to convert .dot file to an .png image
@@ -111,16 +119,11 @@ public interface Graph {
         }
         // Opening the .png image generated by graphviz
         cmd.command("eog", graphImg);
-        try {
-            System.out.println("Try to open image...");
-            var process = cmd.start();
-            var rc = process.waitFor();
-            if (rc == 0) {
-                System.out.println("Successfully opened " + graphImg);
-            }
-        } catch (InterruptedException e) {
-            throw new AssertionError("Error while opening the image");
-        }
+        // nobody reads the output of the viewer, which would block once a pipe is full
+        cmd.redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        cmd.redirectError(ProcessBuilder.Redirect.DISCARD);
+        System.out.println("Try to open image...");
+        cmd.start();
     }
 
     /**
@@ -0,0 +1,462 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Read-only views over a graph : an induced subgraph, a subgraph keeping only some edges, and the reversed graph.
+ * A view copies nothing : each call is forwarded to the underlying graph, and the edges are filtered while being
+ * iterated. Modifications of the underlying graph are seen by its views.
+ * The views keep the vertex numbers of the underlying graph. The induced subgraph can also be seen with its vertices
+ * numbered from 0 to k - 1, the mapping being built the first time it is asked for.
+ */
+public final class GraphViews {
+    private GraphViews() {
+    }
+
+    /**
+     * Tells which edges are kept by a filtered view.
+     */
+    @FunctionalInterface
+    public interface EdgePredicate {
+        boolean test(int start, int end, int weight);
+    }
+
+    /**
+     * Create the subgraph induced by a set of vertices : the edges whose both ends are in the set.
+     * The vertices outside the set are still there, but have no edges.
+     * @param g : a valid graph
+     * @param vertices : the vertices kept, which is copied
+     * @return the view of the induced subgraph
+     */
+    public static Induced induced(Graph g, BitSet vertices) {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(vertices);
+        if (vertices.length() > g.numberOfVertices()) {
+            throw new IndexOutOfBoundsException("Vertex " + (vertices.length() - 1) + " is out of bounds");
+        }
+        return new Induced(g, (BitSet) vertices.clone());
+    }
+
+    /**
+     * Create the subgraph of the edges accepted by the predicate, for instance the edges under a weight threshold.
+     * @param g : a valid graph
+     * @param predicate : the edges kept, which must always give the same answer for the same edge
+     * @return the view of the filtered graph
+     */
+    public static Graph filtered(Graph g, EdgePredicate predicate) {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(predicate);
+        return new Filtered(g, predicate);
+    }
+
+    /**
+     * Create the graph with all its edges reversed.
+     * isEdge and getWeight are forwarded directly. Iterating the edges of a vertex needs its incoming edges, which
+     * are indexed in O(V + E) the first time they are asked for, and indexed again after each modification of g.
+     * @param g : a valid graph
+     * @return the view of the reversed graph
+     */
+    public static Graph reversed(Graph g) {
+        Objects.requireNonNull(g);
+        if (g instanceof Reversed) {
+            return ((Reversed) g).g;
+        }
+        return new Reversed(g);
+    }
+
+    /**
+     * Common part of the views : the graph is read-only and its number of edges is counted on demand.
+     */
+    private abstract static class View implements Graph {
+        final Graph g;
+        private long countedVersion = -1;
+        private int nbEdges;
+
+        View(Graph g) {
+            this.g = g;
+        }
+
+        void checkIndex(int index) {
+            if (index < 0 || index >= numberOfVertices()) {
+                throw new IndexOutOfBoundsException("Index " + index + " must be >= 0 and <= " + numberOfVertices());
+            }
+        }
+
+        /**
+         * Count the edges by iterating them, once for each version of the underlying graph.
+         */
+        @Override
+        public synchronized int numberOfEdges() {
+            long version = g.modificationCount();
+            if (countedVersion != version) {
+                int[] count = { 0 };
+                for (int i = 0 ; i < numberOfVertices() ; ++i) {
+                    forEachEdge(i, e -> count[0]++);
+                }
+                nbEdges = count[0];
+                countedVersion = version;
+            }
+            return nbEdges;
+        }
+
+        @Override
+        public int numberOfVertices() {
+            return g.numberOfVertices();
+        }
+
+        @Override
+        public void addEdge(int i, int j, int value) {
+            throw new UnsupportedOperationException("Graph views are immutable");
+        }
+
+        @Override
+        public long modificationCount() {
+            return g.modificationCount();
+        }
+
+        /**
+         * The transposed view, instead of a n*n copy.
+         */
+        @Override
+        public Graph transpose() {
+            return reversed(this);
+        }
+
+        @Override
+        public String toGraphviz() {
+            return GraphvizExporter.toGraphviz(this);
+        }
+    }
+
+    /**
+     * Iterator on the edges of another iterator accepted by the predicate.
+     */
+    private abstract static class FilteringIterator implements Iterator<Edge> {
+        private final Iterator<Edge> it;
+        private Edge next;
+
+        FilteringIterator(Iterator<Edge> it) {
+            this.it = it;
+        }
+
+        abstract boolean accept(Edge e);
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && it.hasNext()) {
+                var e = it.next();
+                if (accept(e)) {
+                    next = e;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Edge next() {
+            if (! hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var e = next;
+            next = null;
+            return e;
+        }
+    }
+
+    /**
+     * Subgraph induced by a set of vertices.
+     */
+    public static final class Induced extends View {
+        private final BitSet vertices;
+        private Graph dense; // built on demand
+        private int[] toDense;
+        private int[] toOriginal;
+
+        private Induced(Graph g, BitSet vertices) {
+            super(g);
+            this.vertices = vertices;
+        }
+
+        /**
+         * @param v : a vertex of the underlying graph
+         * @return true if v is in the subgraph
+         */
+        public boolean contains(int v) {
+            checkIndex(v);
+            return vertices.get(v);
+        }
+
+        /**
+         * @return the number of vertices of the subgraph
+         */
+        public int size() {
+            return vertices.cardinality();
+        }
+
+        @Override
+        public boolean isEdge(int i, int j) {
+            return contains(i) && contains(j) && g.isEdge(i, j);
+        }
+
+        @Override
+        public int getWeight(int i, int j) {
+            return contains(i) && contains(j) ? g.getWeight(i, j) : 0;
+        }
+
+        @Override
+        public Iterator<Edge> edgeIterator(int i) {
+            if (! contains(i)) {
+                return Collections.emptyIterator();
+            }
+            return new FilteringIterator(g.edgeIterator(i)) {
+                @Override
+                boolean accept(Edge e) {
+                    return vertices.get(e.getEnd());
+                }
+            };
+        }
+
+        @Override
+        public void forEachEdge(int i, Consumer<Edge> consumer) {
+            Objects.requireNonNull(consumer);
+            if (! contains(i)) {
+                return;
+            }
+            g.forEachEdge(i, e -> {
+                if (vertices.get(e.getEnd())) {
+                    consumer.accept(e);
+                }
+            });
+        }
+
+        private synchronized void buildMapping() {
+            if (toOriginal != null) {
+                return;
+            }
+            var rank = new int[numberOfVertices()];
+            var original = new int[size()];
+            Arrays.fill(rank, -1);
+            int k = 0;
+            for (int v = vertices.nextSetBit(0) ; v >= 0 ; v = vertices.nextSetBit(v + 1)) {
+                rank[v] = k;
+                original[k++] = v;
+            }
+            toDense = rank;
+            toOriginal = original;
+        }
+
+        /**
+         * @param v : a vertex of the underlying graph
+         * @return the number of v in the dense view, or -1 if v is not in the subgraph
+         */
+        public int toDense(int v) {
+            checkIndex(v);
+            buildMapping();
+            return toDense[v];
+        }
+
+        /**
+         * @param v : a vertex of the dense view
+         * @return the number of v in the underlying graph
+         */
+        public int toOriginal(int v) {
+            buildMapping();
+            Objects.checkIndex(v, toOriginal.length);
+            return toOriginal[v];
+        }
+
+        /**
+         * Give the subgraph with its vertices numbered from 0 to size() - 1, by increasing order of their number in
+         * the underlying graph. The mapping takes O(V) memory, and is only built by the first call.
+         * @return the dense view of the subgraph
+         */
+        public synchronized Graph dense() {
+            if (dense == null) {
+                buildMapping();
+                dense = new Dense(this, toDense, toOriginal);
+            }
+            return dense;
+        }
+    }
+
+    /**
+     * Induced subgraph with its vertices renumbered.
+     */
+    private static final class Dense extends View {
+        private final int[] toDense;
+        private final int[] toOriginal;
+
+        Dense(Induced induced, int[] toDense, int[] toOriginal) {
+            super(induced);
+            this.toDense = toDense;
+            this.toOriginal = toOriginal;
+        }
+
+        @Override
+        public int numberOfVertices() {
+            return toOriginal.length;
+        }
+
+        @Override
+        public boolean isEdge(int i, int j) {
+            checkIndex(i);
+            checkIndex(j);
+            return g.isEdge(toOriginal[i], toOriginal[j]);
+        }
+
+        @Override
+        public int getWeight(int i, int j) {
+            checkIndex(i);
+            checkIndex(j);
+            return g.getWeight(toOriginal[i], toOriginal[j]);
+        }
+
+        @Override
+        public Iterator<Edge> edgeIterator(int i) {
+            checkIndex(i);
+            var it = g.edgeIterator(toOriginal[i]);
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public Edge next() {
+                    var e = it.next();
+                    return new Edge(i, toDense[e.getEnd()], e.getValue());
+                }
+            };
+        }
+
+        @Override
+        public void forEachEdge(int i, Consumer<Edge> consumer) {
+            Objects.requireNonNull(consumer);
+            checkIndex(i);
+            g.forEachEdge(toOriginal[i], e -> consumer.accept(new Edge(i, toDense[e.getEnd()], e.getValue())));
+        }
+    }
+
+    /**
+     * Graph keeping the edges accepted by a predicate.
+     */
+    private static final class Filtered extends View {
+        private final EdgePredicate predicate;
+
+        Filtered(Graph g, EdgePredicate predicate) {
+            super(g);
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean isEdge(int i, int j) {
+            return g.isEdge(i, j) && predicate.test(i, j, g.getWeight(i, j));
+        }
+
+        @Override
+        public int getWeight(int i, int j) {
+            return isEdge(i, j) ? g.getWeight(i, j) : 0;
+        }
+
+        @Override
+        public Iterator<Edge> edgeIterator(int i) {
+            return new FilteringIterator(g.edgeIterator(i)) {
+                @Override
+                boolean accept(Edge e) {
+                    return predicate.test(e.getStart(), e.getEnd(), e.getValue());
+                }
+            };
+        }
+
+        @Override
+        public void forEachEdge(int i, Consumer<Edge> consumer) {
+            Objects.requireNonNull(consumer);
+            g.forEachEdge(i, e -> {
+                if (predicate.test(e.getStart(), e.getEnd(), e.getValue())) {
+                    consumer.accept(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Graph with its edges reversed, iterated through an index of the incoming edges of the underlying graph.
+     */
+    private static final class Reversed extends View {
+        private long indexedVersion = -1;
+        private Adjacency incoming; // built on demand
+
+        Reversed(Graph g) {
+            super(g);
+        }
+
+        private synchronized Adjacency incoming() {
+            long version = g.modificationCount();
+            if (incoming == null || indexedVersion != version) {
+                incoming = Adjacency.of(g).reverse();
+                indexedVersion = version;
+            }
+            return incoming;
+        }
+
+        @Override
+        public int numberOfEdges() {
+            return g.numberOfEdges();
+        }
+
+        @Override
+        public boolean isEdge(int i, int j) {
+            return g.isEdge(j, i);
+        }
+
+        @Override
+        public int getWeight(int i, int j) {
+            return g.getWeight(j, i);
+        }
+
+        @Override
+        public Graph transpose() {
+            return g;
+        }
+
+        @Override
+        public Iterator<Edge> edgeIterator(int i) {
+            checkIndex(i);
+            var adj = incoming();
+            return new Iterator<>() {
+                private int index = adj.offsets[i];
+
+                @Override
+                public boolean hasNext() {
+                    return index < adj.offsets[i + 1];
+                }
+
+                @Override
+                public Edge next() {
+                    if (! hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    var e = new Edge(i, adj.targets[index], adj.weights[index]);
+                    index++;
+                    return e;
+                }
+            };
+        }
+
+        @Override
+        public void forEachEdge(int i, Consumer<Edge> consumer) {
+            Objects.requireNonNull(consumer);
+            checkIndex(i);
+            var adj = incoming();
+            for (int index = adj.offsets[i] ; index < adj.offsets[i + 1] ; ++index) {
+                consumer.accept(new Edge(i, adj.targets[index], adj.weights[index]));
+            }
+        }
+    }
+}
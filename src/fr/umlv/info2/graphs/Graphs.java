@@ -1,7 +1,10 @@
 package fr.umlv.info2.graphs;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 public class Graphs {
     /**
@@ -94,6 +97,82 @@ public class Graphs {
         return res;
     }
 
+    /**
+     * Lazy breadth first traversal from vertex v0, in the same order as BFS(g, v0) but only over the vertices
+     * reachable from v0. Each call to next() returns a vertex and scans its edges, so stopping early (after k vertices,
+     * or when a target is found) only costs the part of the graph explored.
+     * @param g     a valid graph, which must not be modified during the traversal.
+     * @param v0    the vertex on witch the BFS should be started.
+     * @return      an iterator over the vertices reachable from v0, in BFS order.
+     * @throws IndexOutOfBoundsException if the given starting vertex is < 0 or >= g.numberOfVertices()
+     */
+    public static PrimitiveIterator.OfInt bfsIterator(Graph g, int v0) {
+        Objects.requireNonNull(g);
+        return Traversals.bfs(g, v0);
+    }
+
+    /**
+     * Same as bfsIterator(g, v0), as a sequential stream.
+     */
+    public static IntStream bfsStream(Graph g, int v0) {
+        return toStream(bfsIterator(g, v0));
+    }
+
+    /**
+     * Lazy depth first traversal from vertex v0, in the same order as DFS(g, v0) but only over the vertices
+     * reachable from v0. Each call to next() returns a vertex and scans its edges.
+     * @param g     a valid graph, which must not be modified during the traversal.
+     * @param v0    the vertex on witch the DFS should be started.
+     * @return      an iterator over the vertices reachable from v0, in DFS order.
+     * @throws IndexOutOfBoundsException if the given starting vertex is < 0 or >= g.numberOfVertices()
+     */
+    public static PrimitiveIterator.OfInt dfsIterator(Graph g, int v0) {
+        Objects.requireNonNull(g);
+        return Traversals.dfs(g, v0);
+    }
+
+    /**
+     * Same as dfsIterator(g, v0), as a sequential stream.
+     */
+    public static IntStream dfsStream(Graph g, int v0) {
+        return toStream(dfsIterator(g, v0));
+    }
+
+    private static IntStream toStream(PrimitiveIterator.OfInt iterator) {
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Compute the number of edges of the shortest paths from each of the given sources to every vertex, running the
+     * breadth first searches 64 at a time with bitsets : the edges of the graph are scanned once per level for the
+     * whole batch, instead of once per source. Weights of the edges are ignored.
+     * @param g     a valid graph, which must not be modified during the computation.
+     * @param sources   the starting vertices. A source may appear several times.
+     * @param pool  the pool running the batches.
+     * @return      the hop distances from each source to every vertex.
+     * @throws IndexOutOfBoundsException if a source is < 0 or >= g.numberOfVertices()
+     */
+    public static HopDistances multiSourceBFS(Graph g, int[] sources, ForkJoinPool pool) {
+        return MultiSourceBfs.run(g, sources, pool);
+    }
+
+    /**
+     * Same as multiSourceBFS(g, sources, pool), using the common fork/join pool.
+     */
+    public static HopDistances multiSourceBFS(Graph g, int[] sources) {
+        return MultiSourceBfs.run(g, sources, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute the hop distances between all the pairs of vertices, the i-th source being vertex i.
+     * @param g     a valid graph.
+     * @return      the hop distances from every vertex to every vertex.
+     */
+    public static HopDistances allPairsHopDistances(Graph g) {
+        return MultiSourceBfs.run(g, IntStream.range(0, g.numberOfVertices()).toArray(), ForkJoinPool.commonPool());
+    }
+
     /**
      * Recursive method use to compute a timed DFS on the graph given.
      * @param g         a valid graph
@@ -251,6 +330,116 @@ public class Graphs {
         return result;
     }
 
+    /**
+     * Compute the strongly connected components of the graph g in parallel, using the forward-backward algorithm
+     * with trimming. Unlike scc, this method does not recurse along the paths of the graph, and does not build the
+     * n*n transposed matrix.
+     * @param g : a valid graph, which must not be modified during the computation
+     * @param pool : the pool running the tasks
+     * @return an array giving for each vertex the id of its component. Ids go from 0 to the number of components
+     * minus one, and are given by increasing order of the smallest vertex of each component.
+     */
+    public static int[] parallelScc(Graph g, ForkJoinPool pool) {
+        return ParallelScc.run(g, pool);
+    }
+
+    /**
+     * Same as parallelScc(g, pool), using the common fork/join pool.
+     */
+    public static int[] parallelScc(Graph g) {
+        return ParallelScc.run(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Compute the weakly connected components of the graph g, that is the connected components of the graph obtained
+     * by ignoring the direction of the edges. The edges of the vertices are scanned in parallel, and merged in a
+     * lock-free union-find structure.
+     * @param g : a valid graph, which must not be modified during the computation
+     * @param pool : the pool running the tasks
+     * @return an array giving for each vertex the id of its component. Ids go from 0 to the number of components
+     * minus one, and are given by increasing order of the smallest vertex of each component.
+     */
+    public static int[] weaklyConnectedComponents(Graph g, ForkJoinPool pool) {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(pool);
+        int n = g.numberOfVertices();
+        var unionFind = new ConcurrentUnionFind(n);
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach(v ->
+                g.forEachEdge(v, e -> unionFind.union(e.getStart(), e.getEnd())))).join();
+        // the root of each set is its smallest vertex, so it is always numbered before the other vertices of the set
+        int[] components = new int[n];
+        int count = 0;
+        for (int v = 0 ; v < n ; ++v) {
+            int root = unionFind.find(v);
+            components[v] = root == v ? count++ : components[root];
+        }
+        return components;
+    }
+
+    /**
+     * Same as weaklyConnectedComponents(g, pool), using the common fork/join pool.
+     */
+    public static int[] weaklyConnectedComponents(Graph g) {
+        return weaklyConnectedComponents(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Group the vertices by component, from an array of component ids like the one returned by parallelScc.
+     * @param components : the component id of each vertex, from 0 to the number of components minus one
+     * @return a list containing, for each component id, the vertices of this component in increasing order
+     */
+    public static List<List<Integer>> componentsToLists(int[] components) {
+        Objects.requireNonNull(components);
+        List<List<Integer>> result = new ArrayList<>();
+        for (int v = 0 ; v < components.length ; ++v) {
+            while (result.size() <= components[v]) {
+                result.add(new ArrayList<>());
+            }
+            result.get(components[v]).add(v);
+        }
+        return result;
+    }
+
+    /**
+     * Compute the transitive closure of the graph g, which tells in constant time if a vertex can reach another one.
+     * The strongly connected components are condensed first, then the set of reachable components of each component
+     * is computed as a bitset, in parallel. The closure takes c*c/8 bytes, where c is the number of components.
+     * @param g : a valid graph, which must not be modified during the computation
+     * @param pool : the pool running the tasks
+     * @return the transitive closure of g
+     */
+    public static TransitiveClosure transitiveClosure(Graph g, ForkJoinPool pool) {
+        return TransitiveClosure.of(g, pool);
+    }
+
+    /**
+     * Same as transitiveClosure(g, pool), using the common fork/join pool.
+     */
+    public static TransitiveClosure transitiveClosure(Graph g) {
+        return TransitiveClosure.of(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Build a reachability index for the graph g, storing a few interval labels per vertex. Unlike the transitive
+     * closure, the index takes linear memory, but some queries may need a partial traversal of the graph.
+     * @param g : a valid graph, which must not be modified during the computation
+     * @param traversals : number of random interval labels per vertex. More labels answer more queries without
+     *                   traversal, but take more memory.
+     * @param seed : seed of the random order of the traversals
+     * @return the reachability index of g
+     * @throws IllegalArgumentException if traversals is not positive
+     */
+    public static ReachabilityIndex reachabilityIndex(Graph g, int traversals, long seed) {
+        return ReachabilityIndex.of(g, traversals, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as reachabilityIndex(g, traversals, seed), with 3 labels per vertex.
+     */
+    public static ReachabilityIndex reachabilityIndex(Graph g) {
+        return ReachabilityIndex.of(g, 3, 0, ForkJoinPool.commonPool());
+    }
+
     /**
      * Compute the shortest path from the starting vertex v0 to any other vertex of the graph, using
      * the Bellman-Ford algorithm. This method detects if the graph contains negatives cycles.
@@ -261,45 +450,98 @@ public class Graphs {
      * @throws IndexOutOfBoundsException if the given starting vertex is < 0 or >= g.numberOfVertices().
      */
     public static ShortestPathFromOneVertex bellmanFord(Graph g, int v0) {
+        return bellmanFord(g, v0, null);
+    }
+
+    /**
+     * Same as bellmanFord(g, v0), filling the given stats during the computation.
+     * @param stats : the stats to fill, or null
+     */
+    public static ShortestPathFromOneVertex bellmanFord(Graph g, int v0, AlgorithmStats stats) {
+        return bellmanFord(g, v0, stats, null);
+    }
+
+    /**
+     * Same as bellmanFord(g, v0, stats), reporting to the given monitor after each pass.
+     * @param monitor : the monitor of an asynchronous computation, or null
+     */
+    static ShortestPathFromOneVertex bellmanFord(Graph g, int v0, AlgorithmStats stats, Monitor monitor) {
         int V = g.numberOfVertices();
         if (v0 > V) {
             throw new IndexOutOfBoundsException("Index of starting vertex is out of bounds");
         }
-        int[] d = new int[V];
-        int[] p = new int[V];
-        // Initialization
-        for (int i = 0; i < V; ++i) {
-            d[i] = Integer.MAX_VALUE;
-            p[i] = Integer.MIN_VALUE;
-        }
-        d[v0] = 0;
-        p[v0] = v0;
-        // Main loop
-        for (int i = 1; i < V; ++i) {
-            for (int j = 0; j < V ; ++j) {
-                g.forEachEdge(j, edge -> {
+        var st = AlgorithmStats.begin("bellmanFord", g, stats);
+        try {
+            int[] d = new int[V];
+            int[] p = new int[V];
+            // Initialization
+            for (int i = 0; i < V; ++i) {
+                d[i] = Integer.MAX_VALUE;
+                p[i] = Integer.MIN_VALUE;
+            }
+            d[v0] = 0;
+            p[v0] = v0;
+            if (st != null) {
+                st.endPhase("initialization");
+            }
+            // vertices whose distance changed in the current pass, which are the frontier of the pass
+            int[] lastChange = st != null ? new int[V] : null;
+            int[] changed = new int[1];
+            // Main loop
+            for (int i = 1; i < V; ++i) {
+                int pass = i;
+                changed[0] = 0;
+                for (int j = 0; j < V ; ++j) {
+                    g.forEachEdge(j, edge -> {
+                        int s = edge.getStart();
+                        int t = edge.getEnd();
+                        int w = edge.getValue();
+                        if (st != null) {
+                            st.edgesScanned++;
+                        }
+                        if (d[s] != Integer.MAX_VALUE && (d[s] + w) < d[t]) {
+                            d[t] = d[s] + w;
+                            p[t] = s;
+                            if (st != null) {
+                                st.edgesRelaxed++;
+                                if (lastChange[t] != pass) {
+                                    lastChange[t] = pass;
+                                    changed[0]++;
+                                }
+                            }
+                        }
+                    });
+                }
+                if (st != null) {
+                    st.frontier(changed[0]);
+                }
+                if (monitor != null) {
+                    monitor.step(i, V - 1);
+                }
+            }
+            if (st != null) {
+                st.endPhase("relaxation");
+            }
+            // check for negative cycles
+            for (int i = 0 ; i < V ; ++i) {
+                g.forEachEdge(i, edge -> {
                     int s = edge.getStart();
                     int t = edge.getEnd();
                     int w = edge.getValue();
-                    if (d[s] != Integer.MAX_VALUE && (d[s] + w) < d[t]) {
-                        d[t] = d[s] + w;
-                        p[t] = s;
+                    if (d[s] != Integer.MAX_VALUE && d[t] > d[s] + w) {
+                        throw new IllegalStateException("Graph contains a negative cycle");
                     }
                 });
             }
+            if (st != null) {
+                st.endPhase("negative cycle check");
+            }
+            return new ShortestPathFromOneVertex(v0, d, p);
+        } finally {
+            if (st != null) {
+                st.end();
+            }
         }
-        // check for negative cycles
-        for (int i = 0 ; i < V ; ++i) {
-            g.forEachEdge(i, edge -> {
-                int s = edge.getStart();
-                int t = edge.getEnd();
-                int w = edge.getValue();
-                if (d[s] != Integer.MAX_VALUE && d[t] > d[s] + w) {
-                    throw new IllegalStateException("Graph contains a negative cycle");
-                }
-            });
-        }
-        return new ShortestPathFromOneVertex(v0, d, p);
     }
 
     /**
@@ -335,37 +577,121 @@ public class Graphs {
      * @throws IndexOutOfBoundsException if the given starting vertex is < 0 or >= g.numberOfVertices()
      */
     public static ShortestPathFromOneVertex dijkstra(Graph g, int v0) {
+        return dijkstra(g, v0, null);
+    }
+
+    /**
+     * Same as dijkstra(g, v0), filling the given stats during the computation. The vertex of minimum distance is
+     * found by a linear scan, without a heap, so no heap operation is counted.
+     * @param stats : the stats to fill, or null
+     */
+    public static ShortestPathFromOneVertex dijkstra(Graph g, int v0, AlgorithmStats stats) {
+        return dijkstra(g, v0, stats, null);
+    }
+
+    /**
+     * Same as dijkstra(g, v0, stats), reporting to the given monitor after each settled vertex.
+     * @param monitor : the monitor of an asynchronous computation, or null
+     */
+    static ShortestPathFromOneVertex dijkstra(Graph g, int v0, AlgorithmStats stats, Monitor monitor) {
         int V = g.numberOfVertices();
         if (v0 > V) {
             throw new IndexOutOfBoundsException("Index of starting vertex is out of bounds");
         }
-        int[] d = new int[V];
-        int[] p = new int[V];
-        boolean[] todo = new boolean[V];
-        for (var i = 0 ; i < V ; ++i) {
-            d[i] = Integer.MAX_VALUE;
-            p[i] = Integer.MIN_VALUE;
-            todo[i] = true;
-        }
-        d[v0] = 0;
-        p[v0] = v0;
-        while (true) {
-            int s;
-            try {
-                s = extractMinDistanceVertex(d, todo);
-            } catch (IllegalStateException e) {
-                break; // no more vertex to extract
-            }
-            g.forEachEdge(s, edge -> {
-                int t = edge.getEnd();
-                int w = edge.getValue();
-                if (d[s] != Integer.MAX_VALUE && d[s] + w < d[t]) {
-                    d[t] = d[s] + w;
-                    p[t] = s;
+        var st = AlgorithmStats.begin("dijkstra", g, stats);
+        try {
+            int[] d = new int[V];
+            int[] p = new int[V];
+            boolean[] todo = new boolean[V];
+            for (var i = 0 ; i < V ; ++i) {
+                d[i] = Integer.MAX_VALUE;
+                p[i] = Integer.MIN_VALUE;
+                todo[i] = true;
+            }
+            d[v0] = 0;
+            p[v0] = v0;
+            if (st != null) {
+                st.endPhase("initialization");
+            }
+            int settled = 0;
+            while (true) {
+                int s;
+                try {
+                    s = extractMinDistanceVertex(d, todo);
+                } catch (IllegalStateException e) {
+                    break; // no more vertex to extract
                 }
-            });
+                if (monitor != null) {
+                    monitor.step(settled++, V);
+                }
+                if (st != null) {
+                    st.verticesSettled++;
+                }
+                g.forEachEdge(s, edge -> {
+                    int t = edge.getEnd();
+                    int w = edge.getValue();
+                    if (st != null) {
+                        st.edgesScanned++;
+                    }
+                    if (d[s] != Integer.MAX_VALUE && d[s] + w < d[t]) {
+                        d[t] = d[s] + w;
+                        p[t] = s;
+                        if (st != null) {
+                            st.edgesRelaxed++;
+                        }
+                    }
+                });
+            }
+            if (st != null) {
+                st.endPhase("main loop");
+            }
+            return new ShortestPathFromOneVertex(v0, d, p);
+        } finally {
+            if (st != null) {
+                st.end();
+            }
         }
-        return new ShortestPathFromOneVertex(v0, d, p);
+    }
+
+    /**
+     * Compute the shortest path from the starting vertex v0 to any other vertex of the graph, using
+     * the delta-stepping algorithm. Relaxations are run in parallel on the given pool, which makes this method
+     * faster than dijkstra on large graphs. All the weights of the graph must be non negative.
+     * When several shortest paths exist, the predecessors found may differ from one run to another.
+     * @param g : a valid graph, which must not be modified during the computation
+     * @param v0 : starting vertex of the graph
+     * @param delta : width of the buckets. Small values do less useless work, large values expose more parallelism.
+     * @param pool : the pool running the relaxation tasks
+     * @return an ShortestPathFromOneVertex object storing  an array of distances and an array of predecessors.
+     * @throws IndexOutOfBoundsException if the given starting vertex is < 0 or >= g.numberOfVertices()
+     * @throws IllegalArgumentException if delta is not positive or if the graph contains a negative weight.
+     */
+    public static ShortestPathFromOneVertex deltaStepping(Graph g, int v0, int delta, ForkJoinPool pool) {
+        return DeltaStepping.run(g, v0, delta, pool, null);
+    }
+
+    /**
+     * Same as deltaStepping(g, v0, delta, pool), filling the given stats during the computation.
+     * @param stats : the stats to fill, or null
+     */
+    public static ShortestPathFromOneVertex deltaStepping(Graph g, int v0, int delta, ForkJoinPool pool,
+                                                          AlgorithmStats stats) {
+        return DeltaStepping.run(g, v0, delta, pool, stats);
+    }
+
+    /**
+     * Same as deltaStepping(g, v0, delta, pool), using the common fork/join pool.
+     */
+    public static ShortestPathFromOneVertex deltaStepping(Graph g, int v0, int delta) {
+        return DeltaStepping.run(g, v0, delta, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Same as deltaStepping(g, v0, delta), with delta computed from the maximum weight and the average degree of
+     * the graph.
+     */
+    public static ShortestPathFromOneVertex deltaStepping(Graph g, int v0) {
+        return DeltaStepping.run(g, v0, DeltaStepping.defaultDelta(g), ForkJoinPool.commonPool(), null);
     }
 
     /**
@@ -374,11 +700,22 @@ public class Graphs {
      * @return a ShortestPathFromAllVertices objcet storing and array of distances and an array of predecessors.
      */
     public static ShortestPathFromAllVertices floydWarshall(Graph g) {
-        Objects.requireNonNull(g);
+        return floydWarshall(g, null);
+    }
+
+    /**
+     * Same as floydWarshall(g), filling the given stats during the computation.
+     * @param stats the stats to fill, or null
+     */
+    public static ShortestPathFromAllVertices floydWarshall(Graph g, AlgorithmStats stats) {
+        return floydWarshall(g, stats, null);
+    }
+
+    /**
+     * Fill the matrices of Floyd-Warshall with the edges of the graph.
+     */
+    static void floydWarshallInitialization(Graph g, int[][] d, int[][] p) {
         int V = g.numberOfVertices();
-        int[][] d = new int[V][V];
-        int[][] p = new int[V][V];
-        // Initialization
         for (int s = 0 ; s < V ; ++s) {
             for (int t = 0 ; t < V ; ++t) {
                 if (s == t) {
@@ -397,19 +734,64 @@ public class Graphs {
                 }
             }
         }
-        for (int k = 0 ; k < V ; ++k) {
-            for (int s = 0 ; s < V ; ++s) {
-                for (int t = 0 ; t < V ; ++t) {
-                    if (s != k && t != k && d[s][k] != Integer.MAX_VALUE && d[k][t] != Integer.MAX_VALUE) {
-                        if (d[s][t] > d[s][k] + d[k][t]) {
-                            d[s][t] = d[s][k] + d[k][t];
-                            p[s][t] = p[k][t];
-                        }
+    }
+
+    /**
+     * Run the iteration k of Floyd-Warshall : improve the paths going through the vertex k.
+     * @return the number of paths improved
+     */
+    static long floydWarshallRelaxation(int[][] d, int[][] p, int k) {
+        int V = d.length;
+        long relaxed = 0;
+        for (int s = 0 ; s < V ; ++s) {
+            for (int t = 0 ; t < V ; ++t) {
+                if (s != k && t != k && d[s][k] != Integer.MAX_VALUE && d[k][t] != Integer.MAX_VALUE) {
+                    if (d[s][t] > d[s][k] + d[k][t]) {
+                        d[s][t] = d[s][k] + d[k][t];
+                        p[s][t] = p[k][t];
+                        relaxed++;
                     }
                 }
             }
         }
-        return new ShortestPathFromAllVertices(d, p);
+        return relaxed;
+    }
+
+    /**
+     * Same as floydWarshall(g, stats), reporting to the given monitor after each intermediate vertex k.
+     * @param monitor the monitor of an asynchronous computation, or null
+     */
+    static ShortestPathFromAllVertices floydWarshall(Graph g, AlgorithmStats stats, Monitor monitor) {
+        Objects.requireNonNull(g);
+        var st = AlgorithmStats.begin("floydWarshall", g, stats);
+        try {
+            int V = g.numberOfVertices();
+            int[][] d = new int[V][V];
+            int[][] p = new int[V][V];
+            floydWarshallInitialization(g, d, p);
+            if (st != null) {
+                st.endPhase("initialization");
+            }
+            for (int k = 0 ; k < V ; ++k) {
+                long relaxed = floydWarshallRelaxation(d, p, k);
+                if (st != null) {
+                    st.verticesSettled++;
+                    st.edgesScanned += (long) V * V;
+                    st.edgesRelaxed += relaxed;
+                }
+                if (monitor != null) {
+                    monitor.step(k + 1, V);
+                }
+            }
+            if (st != null) {
+                st.endPhase("relaxation");
+            }
+            return new ShortestPathFromAllVertices(d, p);
+        } finally {
+            if (st != null) {
+                st.end();
+            }
+        }
     }
 
 
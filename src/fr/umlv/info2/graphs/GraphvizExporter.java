@@ -0,0 +1,328 @@
+package fr.umlv.info2.graphs;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Writes graphs in the DOT format of Graphviz, in the same format as Graph.toGraphviz(), without building the whole
+ * document in memory : the text is produced in a small buffer, reused and flushed to the destination each time it
+ * is full. The destination can be a Writer, or a channel (the text is ASCII, so it is copied byte per byte into a
+ * reused ByteBuffer).
+ * Options limit the size of the output for large graphs : keeping each edge with a given probability, and stopping
+ * after a given number of edges (a comment then tells that the output is truncated). Instead of the whole graph, the
+ * condensation of the graph (one vertex per strongly connected component) or the neighbourhood of a vertex can be
+ * written.
+ * An exporter can be reused, but not by several threads at once.
+ */
+public class GraphvizExporter {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final StringBuilder text = new StringBuilder(BUFFER_SIZE + 128);
+    private ByteBuffer bytes; // allocated on first use of a channel
+    private long maxEdges = Long.MAX_VALUE;
+    private double probability = 1;
+    private long seed;
+    private SplittableRandom random;
+    private long edges;
+    private Writer writer;
+    private WritableByteChannel channel;
+
+    /**
+     * Stop writing edges after the given number of edges.
+     * @param maxEdges the maximum number of edges written
+     * @return this exporter
+     */
+    public GraphvizExporter maxEdges(long maxEdges) {
+        if (maxEdges < 0) {
+            throw new IllegalArgumentException("Maximum number of edges should not be negative");
+        }
+        this.maxEdges = maxEdges;
+        return this;
+    }
+
+    /**
+     * Write each edge with the given probability. The same seed selects the same edges.
+     * @param probability the probability to keep an edge, between 0 and 1
+     * @param seed the seed of the random generator
+     * @return this exporter
+     */
+    public GraphvizExporter sample(double probability, long seed) {
+        if (! (probability >= 0 && probability <= 1)) {
+            throw new IllegalArgumentException("Probability should be between 0 and 1");
+        }
+        this.probability = probability;
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Write the graph to a writer, which is flushed but not closed.
+     * @param g a valid graph
+     * @param writer the destination
+     * @throws IOException if I/O error occurs while writing
+     */
+    public void write(Graph g, Writer writer) throws IOException {
+        Objects.requireNonNull(writer);
+        start(writer, null);
+        writeGraph(g);
+    }
+
+    /**
+     * Write the graph to a channel, which is not closed.
+     * @param g a valid graph
+     * @param channel the destination
+     * @throws IOException if I/O error occurs while writing
+     */
+    public void write(Graph g, WritableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel);
+        start(null, channel);
+        writeGraph(g);
+    }
+
+    /**
+     * Write the condensation of the graph : one vertex per strongly connected component, labelled by its number and
+     * its size, and one edge between two components if an edge of the graph goes from one to the other.
+     * @param g a valid graph
+     * @param writer the destination
+     * @throws IOException if I/O error occurs while writing
+     */
+    public void writeCondensation(Graph g, Writer writer) throws IOException {
+        Objects.requireNonNull(writer);
+        start(writer, null);
+        writeCondensation(g);
+    }
+
+    /**
+     * Same as writeCondensation(g, writer), to a channel.
+     */
+    public void writeCondensation(Graph g, WritableByteChannel channel) throws IOException {
+        Objects.requireNonNull(channel);
+        start(null, channel);
+        writeCondensation(g);
+    }
+
+    /**
+     * Write the vertices at most radius edges away from center, following edges in both directions, and the edges
+     * between them. The center is drawn in bold.
+     * @param g a valid graph
+     * @param center the vertex at the center of the neighbourhood
+     * @param radius the maximum number of edges between the center and a vertex
+     * @param writer the destination
+     * @throws IOException if I/O error occurs while writing
+     */
+    public void writeNeighbourhood(Graph g, int center, int radius, Writer writer) throws IOException {
+        Objects.requireNonNull(writer);
+        start(writer, null);
+        writeNeighbourhood(g, center, radius);
+    }
+
+    /**
+     * Same as writeNeighbourhood(g, center, radius, writer), to a channel.
+     */
+    public void writeNeighbourhood(Graph g, int center, int radius, WritableByteChannel channel)
+            throws IOException {
+        Objects.requireNonNull(channel);
+        start(null, channel);
+        writeNeighbourhood(g, center, radius);
+    }
+
+    /**
+     * Implementation of Graph.toGraphviz() for the graphs which do not build the text themselves.
+     * @param g a valid graph
+     * @return the whole graph in the DOT format
+     */
+    static String toGraphviz(Graph g) {
+        var writer = new StringWriter();
+        try {
+            new GraphvizExporter().write(g, writer);
+        } catch (IOException e) {
+            throw new AssertionError(e); // a StringWriter never throws
+        }
+        return writer.toString();
+    }
+
+    private void start(Writer writer, WritableByteChannel channel) {
+        this.writer = writer;
+        this.channel = channel;
+        text.setLength(0);
+        edges = 0;
+        random = probability < 1 ? new SplittableRandom(seed) : null;
+    }
+
+    private void flushIfFull() throws IOException {
+        if (text.length() >= BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (writer != null) {
+            writer.append(text);
+        } else {
+            if (bytes == null) {
+                bytes = ByteBuffer.allocate(BUFFER_SIZE + 128);
+            }
+            for (int k = 0 ; k < text.length() ; ++k) {
+                bytes.put((byte) text.charAt(k)); // DOT text written here is ASCII
+            }
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+        text.setLength(0);
+    }
+
+    private void end() throws IOException {
+        text.append("}\n");
+        flush();
+        if (writer != null) {
+            writer.flush();
+        }
+        writer = null;
+        channel = null;
+    }
+
+    /**
+     * @return true if the next edge should be written, false to skip it
+     */
+    private boolean keep() {
+        return random == null || random.nextDouble() < probability;
+    }
+
+    private boolean full() {
+        return edges >= maxEdges;
+    }
+
+    private void truncated() {
+        text.append("\t// truncated after ").append(edges).append(" edges\n");
+    }
+
+    private void vertex(int v) throws IOException {
+        text.append("\t").append(v).append(";\n");
+        flushIfFull();
+    }
+
+    private void edge(int s, int t, int value) throws IOException {
+        text.append("\t")
+                .append(s)
+                .append(" -> ")
+                .append(t)
+                .append(" [ label=\"")
+                .append(value)
+                .append("\" ] ;\n");
+        edges++;
+        flushIfFull();
+    }
+
+    private void writeGraph(Graph g) throws IOException {
+        Objects.requireNonNull(g);
+        text.append("digraph G {\n");
+        loop:
+        for (int s = 0 ; s < g.numberOfVertices() ; ++s) {
+            vertex(s);
+            for (var it = g.edgeIterator(s) ; it.hasNext() ; ) {
+                var e = it.next();
+                if (full()) {
+                    truncated();
+                    break loop;
+                }
+                if (keep()) {
+                    edge(s, e.getEnd(), e.getValue());
+                }
+            }
+        }
+        end();
+    }
+
+    private void writeCondensation(Graph g) throws IOException {
+        var condensation = Condensation.of(g, ForkJoinPool.commonPool());
+        int[] size = new int[condensation.count];
+        for (int c : condensation.component) {
+            size[c]++;
+        }
+        text.append("digraph G {\n");
+        for (int c = 0 ; c < condensation.count ; ++c) {
+            text.append("\t").append(c).append(" [ label=\"").append(c).append(" (").append(size[c])
+                    .append(")\" ] ;\n");
+            flushIfFull();
+        }
+        loop:
+        for (int c = 0 ; c < condensation.count ; ++c) {
+            for (int e = condensation.offsets[c] ; e < condensation.offsets[c + 1] ; ++e) {
+                if (full()) {
+                    truncated();
+                    break loop;
+                }
+                if (keep()) {
+                    text.append("\t").append(c).append(" -> ").append(condensation.targets[e]).append(" ;\n");
+                    edges++;
+                    flushIfFull();
+                }
+            }
+        }
+        end();
+    }
+
+    private void writeNeighbourhood(Graph g, int center, int radius) throws IOException {
+        Objects.requireNonNull(g);
+        if (center < 0 || center >= g.numberOfVertices()) {
+            throw new IndexOutOfBoundsException("Index of center vertex is out of bounds");
+        }
+        if (radius < 0) {
+            throw new IllegalArgumentException("Radius should not be negative");
+        }
+        var adj = Adjacency.of(g);
+        var reverse = adj.reverse();
+        int[] level = new int[adj.n];
+        Arrays.fill(level, -1);
+        var queue = new IntList();
+        queue.add(center);
+        level[center] = 0;
+        for (int head = 0 ; head < queue.size() ; ++head) {
+            int s = queue.get(head);
+            if (level[s] == radius) {
+                continue;
+            }
+            for (var a : new Adjacency[] { adj, reverse }) {
+                for (int e = a.offsets[s] ; e < a.offsets[s + 1] ; ++e) {
+                    int t = a.targets[e];
+                    if (level[t] == -1) {
+                        level[t] = level[s] + 1;
+                        queue.add(t);
+                    }
+                }
+            }
+        }
+        text.append("digraph G {\n");
+        text.append("\t").append(center).append(" [ style=bold ] ;\n");
+        for (int k = 1 ; k < queue.size() ; ++k) {
+            vertex(queue.get(k));
+        }
+        loop:
+        for (int k = 0 ; k < queue.size() ; ++k) {
+            int s = queue.get(k);
+            for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                if (level[adj.targets[e]] == -1) {
+                    continue;
+                }
+                if (full()) {
+                    truncated();
+                    break loop;
+                }
+                if (keep()) {
+                    edge(s, adj.targets[e], adj.weights[e]);
+                }
+            }
+        }
+        end();
+    }
+}
@@ -0,0 +1,125 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Number of edges of the shortest paths from a set of sources to all the vertices of a graph, as computed by
+ * Graphs.multiSourceBFS.
+ * Distances are stored in a single array, one row per source, using the narrowest unsigned type able to hold
+ * n - 1 : one byte per distance for graphs with less than 255 vertices, two bytes for less than 65535 vertices,
+ * and an int otherwise.
+ */
+public class HopDistances {
+    /**
+     * Distance returned for the vertices that can not be reached from the source.
+     */
+    public static final int UNREACHABLE = -1;
+
+    private final int[] sources;
+    private final int n;
+    private final byte[] bytes;
+    private final char[] chars;
+    private final int[] ints;
+
+    HopDistances(int[] sources, int n) {
+        this.sources = sources;
+        this.n = n;
+        int size = Math.multiplyExact(sources.length, n);
+        if (n < 0xFF) {
+            bytes = new byte[size];
+            Arrays.fill(bytes, (byte) 0xFF);
+            chars = null;
+            ints = null;
+        } else if (n < 0xFFFF) {
+            bytes = null;
+            chars = new char[size];
+            Arrays.fill(chars, (char) 0xFFFF);
+            ints = null;
+        } else {
+            bytes = null;
+            chars = null;
+            ints = new int[size];
+            Arrays.fill(ints, UNREACHABLE);
+        }
+    }
+
+    void set(int sourceIndex, int v, int distance) {
+        int index = sourceIndex * n + v;
+        if (bytes != null) {
+            bytes[index] = (byte) distance;
+        } else if (chars != null) {
+            chars[index] = (char) distance;
+        } else {
+            ints[index] = distance;
+        }
+    }
+
+    /**
+     * @param sourceIndex index of the source in the array given to Graphs.multiSourceBFS
+     * @param v a vertex
+     * @return the number of edges of a shortest path from the source to v, or UNREACHABLE if there is no such path
+     */
+    public int getDistance(int sourceIndex, int v) {
+        Objects.checkIndex(sourceIndex, sources.length);
+        Objects.checkIndex(v, n);
+        int index = sourceIndex * n + v;
+        if (bytes != null) {
+            int d = bytes[index] & 0xFF;
+            return d == 0xFF ? UNREACHABLE : d;
+        }
+        if (chars != null) {
+            int d = chars[index];
+            return d == 0xFFFF ? UNREACHABLE : d;
+        }
+        return ints[index];
+    }
+
+    /**
+     * @param sourceIndex index of the source in the array given to Graphs.multiSourceBFS
+     * @return the distances from this source to every vertex
+     */
+    public int[] getDistances(int sourceIndex) {
+        int[] d = new int[n];
+        for (int v = 0 ; v < n ; ++v) {
+            d[v] = getDistance(sourceIndex, v);
+        }
+        return d;
+    }
+
+    /**
+     * Compute the closeness centrality of a source, that is the number of vertices it reaches (itself excluded)
+     * divided by the sum of the distances to them. It is 0 for a source which reaches no other vertex.
+     * @param sourceIndex index of the source in the array given to Graphs.multiSourceBFS
+     * @return the closeness centrality of the source
+     */
+    public double closeness(int sourceIndex) {
+        long sum = 0;
+        int reached = 0;
+        for (int v = 0 ; v < n ; ++v) {
+            int d = getDistance(sourceIndex, v);
+            if (d > 0) {
+                sum += d;
+                reached++;
+            }
+        }
+        return sum == 0 ? 0 : (double) reached / sum;
+    }
+
+    public int numberOfSources() {
+        return sources.length;
+    }
+
+    public int getSource(int sourceIndex) {
+        return sources[sourceIndex];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0 ; i < sources.length ; ++i) {
+            builder.append(sources[i]).append(" ").append(Arrays.toString(getDistances(i))).append("\n");
+        }
+        return builder.toString();
+    }
+}
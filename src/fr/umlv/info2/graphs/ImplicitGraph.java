@@ -0,0 +1,254 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Graph whose edges are not stored but computed on demand by a function, for graphs following a rule like grids or
+ * state spaces. Only the vertices are numbered, from 0 to n - 1 ; each time the edges of a vertex are needed, the
+ * generator is called with this vertex and gives its edges to a callback, without allocating Edge objects.
+ * Optionally, the edges of the most recently used vertices are kept in a bounded cache, for generators which are
+ * expensive compared to reading a few ints.
+ * The algorithms of Graphs run unchanged on an implicit graph. The generator must always give the same edges for a
+ * vertex, and must be thread-safe if the graph is read by several threads.
+ */
+public class ImplicitGraph implements Graph {
+    private static final int[] NO_EDGE = new int[0];
+
+    /**
+     * Receives the edges of a vertex.
+     */
+    @FunctionalInterface
+    public interface EdgeCallback {
+        void accept(int target, int weight);
+    }
+
+    /**
+     * Computes the edges of a vertex.
+     */
+    @FunctionalInterface
+    public interface Neighbours {
+        /**
+         * Give each edge leaving v to the callback, by calling callback.accept(target, weight).
+         */
+        void forEachNeighbour(int v, EdgeCallback callback);
+    }
+
+    private final int n; // number of vertices
+    private final Neighbours neighbours;
+    private final int cacheSize;
+    private final LinkedHashMap<Integer, int[]> cache; // null if there is no cache
+    private int nbEdges = -1; // computed on first use
+
+    /**
+     * Create an implicit graph without cache.
+     * @param nbVertices the number of vertices
+     * @param neighbours the generator of the edges of each vertex
+     */
+    public ImplicitGraph(int nbVertices, Neighbours neighbours) {
+        this(nbVertices, neighbours, 0);
+    }
+
+    /**
+     * @param nbVertices the number of vertices
+     * @param neighbours the generator of the edges of each vertex
+     * @param cacheSize the number of vertices whose edges are kept in memory, 0 for no cache
+     */
+    public ImplicitGraph(int nbVertices, Neighbours neighbours, int cacheSize) {
+        if (nbVertices <= 0) {
+            throw new IllegalArgumentException("Vertices number should be positive");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size should not be negative");
+        }
+        this.n = nbVertices;
+        this.neighbours = Objects.requireNonNull(neighbours);
+        this.cacheSize = cacheSize;
+        this.cache = cacheSize == 0 ? null : new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+                return size() > ImplicitGraph.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Create the grid of width * height vertices, where vertex x + y * width is linked to the vertices above, below,
+     * on the left and on the right of it by edges of weight 1.
+     * @param width the number of columns
+     * @param height the number of rows
+     * @return the grid
+     */
+    public static ImplicitGraph grid(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Width and height should be positive");
+        }
+        return new ImplicitGraph(Math.multiplyExact(width, height), (v, callback) -> {
+            int x = v % width;
+            int y = v / width;
+            if (y > 0) {
+                callback.accept(v - width, 1);
+            }
+            if (x > 0) {
+                callback.accept(v - 1, 1);
+            }
+            if (x < width - 1) {
+                callback.accept(v + 1, 1);
+            }
+            if (y < height - 1) {
+                callback.accept(v + width, 1);
+            }
+        });
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " must be >= 0 and <= " + n);
+        }
+    }
+
+    private void checkTarget(int v, int target) {
+        if (target < 0 || target >= n) {
+            throw new IndexOutOfBoundsException("Generator gave edge " + v + " -> " + target
+                    + ", target must be >= 0 and < " + n);
+        }
+    }
+
+    /**
+     * Give the edges of vertex i to the callback, without allocating any Edge.
+     * @param i a vertex
+     * @param callback receives the target and the weight of each edge
+     */
+    public void forEachSuccessor(int i, EdgeCallback callback) {
+        Objects.requireNonNull(callback);
+        checkIndex(i);
+        if (cache == null) {
+            neighbours.forEachNeighbour(i, (target, weight) -> {
+                checkTarget(i, target);
+                callback.accept(target, weight);
+            });
+            return;
+        }
+        int[] row = row(i);
+        for (int k = 0 ; k < row.length ; k += 2) {
+            callback.accept(row[k], row[k + 1]);
+        }
+    }
+
+    /**
+     * @return the targets and the weights of the edges of i, interleaved, taken from the cache if possible
+     */
+    private int[] row(int i) {
+        if (cache != null) {
+            synchronized (cache) {
+                var row = cache.get(i);
+                if (row != null) {
+                    return row;
+                }
+            }
+        }
+        var list = new IntList();
+        neighbours.forEachNeighbour(i, (target, weight) -> {
+            checkTarget(i, target);
+            list.add(target);
+            list.add(weight);
+        });
+        var row = list.isEmpty() ? NO_EDGE : list.toArray();
+        if (cache != null) {
+            synchronized (cache) {
+                cache.put(i, row);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Count the edges by generating the edges of every vertex once : this takes O(n + m) time, but no memory.
+     */
+    @Override
+    public int numberOfEdges() {
+        if (nbEdges == -1) {
+            long[] count = { 0 };
+            for (int v = 0 ; v < n ; ++v) {
+                neighbours.forEachNeighbour(v, (target, weight) -> count[0]++);
+            }
+            nbEdges = Math.toIntExact(count[0]);
+        }
+        return nbEdges;
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return n;
+    }
+
+    @Override
+    public void addEdge(int i, int j, int value) {
+        throw new UnsupportedOperationException("ImplicitGraph is immutable");
+    }
+
+    @Override
+    public boolean isEdge(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        int[] row = row(i);
+        for (int k = 0 ; k < row.length ; k += 2) {
+            if (row[k] == j) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        checkIndex(i);
+        checkIndex(j);
+        int[] row = row(i);
+        for (int k = 0 ; k < row.length ; k += 2) {
+            if (row[k] == j) {
+                return row[k + 1];
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public Iterator<Edge> edgeIterator(int i) {
+        checkIndex(i);
+        int[] row = row(i);
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < row.length;
+            }
+
+            @Override
+            public Edge next() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var edge = new Edge(i, row[index], row[index + 1]);
+                index += 2;
+                return edge;
+            }
+        };
+    }
+
+    @Override
+    public void forEachEdge(int i, Consumer<Edge> consumer) {
+        Objects.requireNonNull(consumer);
+        forEachSuccessor(i, (target, weight) -> consumer.accept(new Edge(i, target, weight)));
+    }
+
+    @Override
+    public String toGraphviz() {
+        return GraphvizExporter.toGraphviz(this);
+    }
+}
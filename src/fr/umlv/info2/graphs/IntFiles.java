@@ -0,0 +1,119 @@
+package fr.umlv.info2.graphs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary files made of a header and int tables, as saved by Landmarks, ContractionHierarchy, ResumableGraphs and
+ * DurableGraph. The values are written and read through a direct buffer of 64 KiB, refilled or flushed when needed.
+ * A file is written to a temporary file first, forced to the disk, then moved over the destination, and the directory
+ * is forced so that the rename itself is durable : an interrupted save never leaves a truncated file behind, and once
+ * save returns, the new file survives a crash.
+ */
+final class IntFiles {
+    private static final int CHUNK = 1 << 16;
+
+    private IntFiles() {
+    }
+
+    /**
+     * Writes the content of a file : the header directly in the buffer, then the tables with writeInts.
+     */
+    @FunctionalInterface
+    interface Content {
+        void write(FileChannel channel, ByteBuffer buffer) throws IOException;
+    }
+
+    /**
+     * Write a file atomically.
+     * @param path : the file to write
+     * @param content : writes the content of the file
+     * @throws IOException if the file can not be written
+     */
+    static void save(Path path, Content content) throws IOException {
+        var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (var channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.allocateDirect(CHUNK);
+            content.write(channel, buffer);
+            writeFully(channel, buffer);
+            channel.force(false);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        try (var directory = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            directory.force(true);
+        }
+    }
+
+    /**
+     * Write the content of the buffer (from 0 to its position), and clear it.
+     */
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int value : values) {
+            if (buffer.remaining() < Integer.BYTES) {
+                writeFully(channel, buffer);
+            }
+            buffer.putInt(value);
+        }
+    }
+
+    /**
+     * Read from the channel until the buffer is full or the file ends, then flip the buffer.
+     * The caller checks the number of bytes remaining in the buffer.
+     */
+    static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * @return an empty buffer to read a file with fill and readInts
+     */
+    static ByteBuffer readBuffer() {
+        return ByteBuffer.allocateDirect(CHUNK).flip();
+    }
+
+    /**
+     * Read from the channel until at least count bytes are available in the buffer.
+     * @param path : the file read, for the error message
+     * @throws IOException if the file ends before
+     */
+    static void fill(FileChannel channel, ByteBuffer buffer, int count, Path path) throws IOException {
+        if (buffer.remaining() >= count) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < count) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("File is truncated : " + path);
+            }
+        }
+        buffer.flip();
+    }
+
+    static int[] readInts(FileChannel channel, ByteBuffer buffer, int count, Path path) throws IOException {
+        var values = new int[count];
+        for (int i = 0 ; i < count ; ++i) {
+            fill(channel, buffer, Integer.BYTES, path);
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+}
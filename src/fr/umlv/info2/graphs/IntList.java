@@ -0,0 +1,59 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Minimal growable array of primitive ints, used by the parallel algorithms to avoid boxing vertices.
+ * This class is not thread-safe : each task fills its own list, and lists are merged after the tasks are joined.
+ */
+final class IntList {
+    private int[] values;
+    private int size;
+
+    IntList() {
+        this(16);
+    }
+
+    IntList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = value;
+    }
+
+    void addAll(IntList other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(size + other.size, size << 1));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int removeLast() {
+        return values[--size];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,526 @@
+package fr.umlv.info2.graphs;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Landmark tables of the ALT algorithm (A*, landmarks and triangle inequality, Goldberg and Harrelson), answering
+ * point to point shortest path queries with an A* search.
+ * For each landmark L, the distances d(L, v) and d(v, L) to every vertex v are computed once. By the triangle
+ * inequality, d(v, t) >= d(L, t) - d(L, v) and d(v, t) >= d(v, L) - d(t, L), so the maximum of these bounds over the
+ * landmarks is a lower bound of the distance to the destination, which guides the search towards it. The better the
+ * landmarks surround the graph, the fewer vertices are settled.
+ * The distances are stored as one int per (vertex, landmark) pair and per direction, the k values of a vertex being
+ * next to each other so that computing a bound reads contiguous memory.
+ * The queries run on the graph as it was when the tables were computed, and may be run by several threads at once.
+ */
+public final class Landmarks {
+    private static final int MAGIC = 0x47414C54; // GALT
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final Graph g;
+    private final Adjacency adj;
+    private final int n;
+    private final int[] landmarks;
+    private final int[] forward; // forward[v * k + i] = d(landmarks[i], v)
+    private final int[] backward; // backward[v * k + i] = d(v, landmarks[i])
+    private final ThreadLocal<Search> searches;
+
+    private Landmarks(Graph g, Adjacency adj, int[] landmarks, int[] forward, int[] backward) {
+        this.g = g;
+        this.adj = adj;
+        this.n = adj.n;
+        this.landmarks = landmarks;
+        this.forward = forward;
+        this.backward = backward;
+        this.searches = ThreadLocal.withInitial(() -> new Search(n));
+    }
+
+    private static Adjacency adjacency(Graph g, int k) {
+        Objects.requireNonNull(g);
+        if (k <= 0 || k > g.numberOfVertices()) {
+            throw new IllegalArgumentException("Number of landmarks should be between 1 and " + g.numberOfVertices());
+        }
+        var adj = Adjacency.of(g);
+        for (int w : adj.weights) {
+            if (w < 0) {
+                throw new IllegalArgumentException("ALT needs non negative weights");
+            }
+        }
+        return adj;
+    }
+
+    /**
+     * Compute the distances from (or to) a landmark to (or from) every vertex.
+     */
+    private static int[] distances(Adjacency adj, int landmark) {
+        var scratch = new DijkstraScratch(adj.n);
+        scratch.run(adj, landmark, null, 0, 0);
+        return scratch.d.clone();
+    }
+
+    /**
+     * Compute the forward and backward distances of a new landmark, both searches running in parallel.
+     */
+    private static int[][] distances(Adjacency adj, Adjacency reverse, int landmark) {
+        var rows = new int[2][];
+        IntStream.range(0, 2).parallel().forEach(i -> rows[i] = distances(i == 0 ? adj : reverse, landmark));
+        return rows;
+    }
+
+    /**
+     * Compute the tables of the given landmarks, the 2k searches running in parallel.
+     * @param g : a valid graph, whose weights are non negative
+     * @param landmarks : the landmarks, which are copied
+     * @return the landmark tables of g
+     */
+    public static Landmarks of(Graph g, int[] landmarks) {
+        Objects.requireNonNull(landmarks);
+        var adj = adjacency(g, landmarks.length);
+        for (int landmark : landmarks) {
+            if (landmark < 0 || landmark >= adj.n) {
+                throw new IndexOutOfBoundsException("Landmark " + landmark + " is out of bounds");
+            }
+        }
+        var reverse = adj.reverse();
+        int k = landmarks.length;
+        var rows = new int[2 * k][];
+        IntStream.range(0, 2 * k).parallel()
+                .forEach(i -> rows[i] = distances(i < k ? adj : reverse, landmarks[i % k]));
+        return build(g, adj, landmarks.clone(), Arrays.copyOfRange(rows, 0, k), Arrays.copyOfRange(rows, k, 2 * k));
+    }
+
+    /**
+     * Choose k landmarks by the farthest strategy : the first landmark is the vertex farthest from vertex 0, then each
+     * landmark is the vertex whose distance to and from the landmarks already chosen is the largest. Vertices which
+     * can not be reached from the landmarks are the farthest, so each part of a disconnected graph gets a landmark.
+     * @param g : a valid graph, whose weights are non negative
+     * @param k : the number of landmarks
+     * @return the landmark tables of g
+     */
+    public static Landmarks farthest(Graph g, int k) {
+        var adj = adjacency(g, k);
+        var reverse = adj.reverse();
+        var chosen = new int[k];
+        var forward = new int[k][];
+        var backward = new int[k][];
+        var closest = new long[adj.n]; // smallest d(L, v) + d(v, L) over the landmarks chosen so far
+        Arrays.fill(closest, Long.MAX_VALUE);
+        var start = distances(adj, 0);
+        chosen[0] = farthestVertex(start, null);
+        for (int i = 0 ; i < k ; ++i) {
+            if (i > 0) {
+                chosen[i] = farthestVertex(null, closest);
+            }
+            var rows = distances(adj, reverse, chosen[i]);
+            forward[i] = rows[0];
+            backward[i] = rows[1];
+            for (int v = 0 ; v < adj.n ; ++v) {
+                closest[v] = Math.min(closest[v], roundTrip(forward[i][v], backward[i][v]));
+            }
+        }
+        return build(g, adj, chosen, forward, backward);
+    }
+
+    private static long roundTrip(int to, int from) {
+        return (to == INF ? (long) INF << 1 : to) + (from == INF ? (long) INF << 1 : from);
+    }
+
+    /**
+     * @return the vertex with the largest distance, or the largest round trip distance if distance is null
+     */
+    private static int farthestVertex(int[] distance, long[] closest) {
+        int best = 0;
+        long max = -1;
+        int n = distance != null ? distance.length : closest.length;
+        for (int v = 0 ; v < n ; ++v) {
+            long value = distance != null ? (distance[v] == INF ? Long.MAX_VALUE : distance[v]) : closest[v];
+            if (value > max) {
+                max = value;
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Choose k landmarks by the avoid strategy (Goldberg and Werneck). For each new landmark, a shortest path tree is
+     * grown from a random root, and each vertex is weighted by the error of the current lower bound of its distance
+     * from the root. The new landmark is the leaf reached by following from the root the subtrees of largest total
+     * weight among those containing no landmark : it covers the region where the bounds are the worst.
+     * @param g : a valid graph, whose weights are non negative
+     * @param k : the number of landmarks
+     * @param seed : the seed choosing the roots
+     * @return the landmark tables of g
+     */
+    public static Landmarks avoid(Graph g, int k, long seed) {
+        var adj = adjacency(g, k);
+        var reverse = adj.reverse();
+        int n = adj.n;
+        var random = new Random(seed);
+        var chosen = new int[k];
+        var forward = new int[k][];
+        var backward = new int[k][];
+        var isLandmark = new boolean[n];
+        var closest = new long[n];
+        Arrays.fill(closest, Long.MAX_VALUE);
+        var scratch = new DijkstraScratch(n);
+        var order = new int[n];
+        var childOffsets = new int[n + 1];
+        var children = new int[n];
+        var size = new long[n];
+        for (int i = 0 ; i < k ; ++i) {
+            int root = random.nextInt(n);
+            scratch.run(adj, root, null, 0, 0);
+            int reached = treeOrder(scratch, root, order, childOffsets, children);
+            for (int j = reached - 1 ; j >= 0 ; --j) {
+                int v = order[j];
+                long bound = 0;
+                for (int l = 0 ; l < i ; ++l) {
+                    bound = Math.max(bound, bound(forward[l][root], forward[l][v], backward[l][root], backward[l][v]));
+                }
+                long weight = scratch.d[v] - Math.min(bound, scratch.d[v]);
+                boolean covered = isLandmark[v];
+                long total = weight;
+                for (int c = childOffsets[v] ; c < childOffsets[v + 1] ; ++c) {
+                    if (size[children[c]] < 0) {
+                        covered = true;
+                    }
+                    total += size[children[c]];
+                }
+                size[v] = covered ? -1 : total; // -1 marks the subtrees containing a landmark
+            }
+            int landmark = root;
+            while (true) {
+                int next = -1;
+                for (int c = childOffsets[landmark] ; c < childOffsets[landmark + 1] ; ++c) {
+                    if (size[children[c]] > 0 && (next == -1 || size[children[c]] > size[next])) {
+                        next = children[c];
+                    }
+                }
+                if (next == -1) {
+                    break;
+                }
+                landmark = next;
+            }
+            if (isLandmark[landmark]) {
+                landmark = farthestVertex(null, closest); // the tree of the root is already covered
+            }
+            chosen[i] = landmark;
+            isLandmark[landmark] = true;
+            var rows = distances(adj, reverse, landmark);
+            forward[i] = rows[0];
+            backward[i] = rows[1];
+            for (int v = 0 ; v < n ; ++v) {
+                closest[v] = Math.min(closest[v], roundTrip(forward[i][v], backward[i][v]));
+            }
+        }
+        return build(g, adj, chosen, forward, backward);
+    }
+
+    /**
+     * Compute the children of each vertex in the shortest path tree of the last search of scratch, and the vertices
+     * of the tree in breadth first order, so that each vertex comes after its parent.
+     * @return the number of vertices in the tree
+     */
+    private static int treeOrder(DijkstraScratch scratch, int root, int[] order, int[] childOffsets, int[] children) {
+        int n = scratch.size();
+        Arrays.fill(childOffsets, 0);
+        for (int v = 0 ; v < n ; ++v) {
+            if (v != root && scratch.pi[v] != Integer.MIN_VALUE) {
+                childOffsets[scratch.pi[v] + 1]++;
+            }
+        }
+        for (int v = 0 ; v < n ; ++v) {
+            childOffsets[v + 1] += childOffsets[v];
+        }
+        var next = Arrays.copyOf(childOffsets, n);
+        for (int v = 0 ; v < n ; ++v) {
+            if (v != root && scratch.pi[v] != Integer.MIN_VALUE) {
+                children[next[scratch.pi[v]]++] = v;
+            }
+        }
+        int size = 0;
+        order[size++] = root;
+        for (int head = 0 ; head < size ; ++head) {
+            int v = order[head];
+            for (int c = childOffsets[v] ; c < childOffsets[v + 1] ; ++c) {
+                order[size++] = children[c];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Interleave the rows of each landmark into the vertex major tables.
+     */
+    private static Landmarks build(Graph g, Adjacency adj, int[] landmarks, int[][] forwardRows,
+                                   int[][] backwardRows) {
+        int k = landmarks.length;
+        var forward = new int[adj.n * k];
+        var backward = new int[adj.n * k];
+        IntStream.range(0, adj.n).parallel().forEach(v -> {
+            for (int i = 0 ; i < k ; ++i) {
+                forward[v * k + i] = forwardRows[i][v];
+                backward[v * k + i] = backwardRows[i][v];
+            }
+        });
+        return new Landmarks(g, adj, landmarks, forward, backward);
+    }
+
+    /**
+     * Lower bound of d(v, t) given by one landmark L.
+     * @return the bound, or Long.MAX_VALUE if t can not be reached from v
+     */
+    private static long bound(int fromLandmarkToV, int fromLandmarkToT, int fromVToLandmark, int fromTToLandmark) {
+        long bound = 0;
+        if (fromLandmarkToV != INF) {
+            if (fromLandmarkToT == INF) {
+                return Long.MAX_VALUE; // L reaches v but not t
+            }
+            bound = (long) fromLandmarkToT - fromLandmarkToV;
+        }
+        if (fromTToLandmark != INF) {
+            if (fromVToLandmark == INF) {
+                return Long.MAX_VALUE; // t reaches L but not v
+            }
+            bound = Math.max(bound, (long) fromVToLandmark - fromTToLandmark);
+        }
+        return bound;
+    }
+
+    /**
+     * @return the lower bound of d(v, t) over all the landmarks, or Long.MAX_VALUE if t can not be reached from v
+     */
+    private long lowerBound(int v, int t) {
+        int k = landmarks.length;
+        int vk = v * k;
+        int tk = t * k;
+        long max = 0;
+        for (int i = 0 ; i < k ; ++i) {
+            max = Math.max(max, bound(forward[vk + i], forward[tk + i], backward[vk + i], backward[tk + i]));
+        }
+        return max;
+    }
+
+    /**
+     * @return the landmarks, in the order they were chosen
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * @return the number of landmarks
+     */
+    public int size() {
+        return landmarks.length;
+    }
+
+    /**
+     * @return d(landmarks[i], v)
+     */
+    public int distanceFrom(int i, int v) {
+        Objects.checkIndex(i, landmarks.length);
+        Objects.checkIndex(v, n);
+        return forward[v * landmarks.length + i];
+    }
+
+    /**
+     * @return d(v, landmarks[i])
+     */
+    public int distanceTo(int i, int v) {
+        Objects.checkIndex(i, landmarks.length);
+        Objects.checkIndex(v, n);
+        return backward[v * landmarks.length + i];
+    }
+
+    /**
+     * Compute a shortest path from source to destination with an A* search guided by the landmarks.
+     * @param source : the starting vertex
+     * @param destination : the destination vertex
+     * @return a shortest path and its length
+     */
+    public PathAnswer query(int source, int destination) {
+        return query(source, destination, null);
+    }
+
+    /**
+     * Same as query(source, destination), filling the given stats during the computation.
+     * @param stats : the stats to fill, or null
+     */
+    public PathAnswer query(int source, int destination, AlgorithmStats stats) {
+        if (source < 0 || source >= n) {
+            throw new IndexOutOfBoundsException("Index of starting vertex is out of bounds");
+        }
+        if (destination < 0 || destination >= n) {
+            throw new IndexOutOfBoundsException("Index of destination vertex is out of bounds");
+        }
+        var st = AlgorithmStats.begin("alt", g, stats);
+        try {
+            return searches.get().run(this, source, destination, st);
+        } finally {
+            if (st != null) {
+                st.end();
+            }
+        }
+    }
+
+    /**
+     * Working arrays of the A* search of one thread. The vertices seen by the current search are marked with its
+     * number, so that nothing is cleared between two searches. The queue is a binary heap of (key, vertex) pairs
+     * packed into longs, where key = d(source, v) + lowerBound(v, destination) ; a vertex whose distance is lowered
+     * is pushed again, and the stale entries are skipped when they are popped.
+     * A search does not keep a reference to the tables it runs on, so that the value held by a thread does not keep
+     * the tables alive.
+     */
+    private static final class Search {
+        private final int[] d;
+        private final int[] pi;
+        private final long[] h;
+        private final int[] seen;
+        private final int[] settled;
+        private final LongHeap heap = new LongHeap();
+        private int run;
+
+        Search(int n) {
+            d = new int[n];
+            pi = new int[n];
+            h = new long[n];
+            seen = new int[n];
+            settled = new int[n];
+        }
+
+        private boolean reach(Landmarks tables, int v, int destination, int distance, int predecessor) {
+            if (seen[v] != run) {
+                seen[v] = run;
+                h[v] = tables.lowerBound(v, destination);
+            } else if (d[v] <= distance) {
+                return false;
+            }
+            d[v] = distance;
+            pi[v] = predecessor;
+            if (h[v] >= INF - distance) {
+                return false; // the destination can not be reached through v, or not with an int distance
+            }
+            heap.push(((distance + h[v]) << 32) | v);
+            return true;
+        }
+
+        PathAnswer run(Landmarks tables, int source, int destination, AlgorithmStats st) {
+            var adj = tables.adj;
+            run++;
+            heap.clear();
+            reach(tables, source, destination, 0, source);
+            while (! heap.isEmpty()) {
+                long top = heap.pop();
+                int s = (int) top;
+                if (settled[s] == run || (top >>> 32) != d[s] + h[s]) {
+                    continue; // stale entry
+                }
+                settled[s] = run;
+                if (st != null) {
+                    st.verticesSettled++;
+                    st.heapOperations++;
+                }
+                if (s == destination) {
+                    return answer(source, destination);
+                }
+                int ds = d[s];
+                for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                    int t = adj.targets[e];
+                    if (st != null) {
+                        st.edgesScanned++;
+                    }
+                    long candidate = (long) ds + adj.weights[e];
+                    if (settled[t] != run && candidate < INF && reach(tables, t, destination, (int) candidate, s)
+                            && st != null) {
+                        st.edgesRelaxed++;
+                    }
+                }
+            }
+            return new PathAnswer(source, destination, INF, new int[0]);
+        }
+
+        private PathAnswer answer(int source, int destination) {
+            int length = 1;
+            for (int v = destination ; v != source ; v = pi[v]) {
+                length++;
+            }
+            var path = new int[length];
+            int v = destination;
+            for (int i = length - 1 ; i >= 0 ; --i) {
+                path[i] = v;
+                v = pi[v];
+            }
+            return new PathAnswer(source, destination, d[destination], path);
+        }
+    }
+
+    /**
+     * Save the tables, with a fingerprint of the graph checked when they are loaded. The file is replaced atomically.
+     * @param path : the file to write
+     * @throws IOException if the file can not be written
+     */
+    public void save(Path path) throws IOException {
+        Objects.requireNonNull(path);
+        IntFiles.save(path, (channel, buffer) -> {
+            buffer.putInt(MAGIC).putInt(n).putInt(landmarks.length).putLong(ResumableGraphs.fingerprint(g));
+            IntFiles.writeInts(channel, buffer, landmarks);
+            IntFiles.writeInts(channel, buffer, forward);
+            IntFiles.writeInts(channel, buffer, backward);
+        });
+    }
+
+    /**
+     * Load tables saved by save(path).
+     * @param g : the graph the tables were computed for
+     * @param path : the file to read
+     * @return the landmark tables of g
+     * @throws IOException if the file can not be read or is not a landmark file
+     * @throws IllegalArgumentException if the tables were computed for another graph
+     */
+    public static Landmarks load(Graph g, Path path) throws IOException {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(path);
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var buffer = IntFiles.readBuffer();
+            IntFiles.fill(channel, buffer, 20, path);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a landmark file : " + path);
+            }
+            int n = buffer.getInt();
+            int k = buffer.getInt();
+            if (n != g.numberOfVertices() || buffer.getLong() != ResumableGraphs.fingerprint(g)) {
+                throw new IllegalArgumentException("Landmarks " + path + " were computed for another graph");
+            }
+            if (k <= 0 || k > n) {
+                throw new IOException("Invalid number of landmarks in " + path);
+            }
+            if (channel.size() != 20 + 4L * (k + 2L * n * k)) {
+                throw new IOException("Invalid landmark file : " + path);
+            }
+            var landmarks = IntFiles.readInts(channel, buffer, k, path);
+            var forward = IntFiles.readInts(channel, buffer, n * k, path);
+            var backward = IntFiles.readInts(channel, buffer, n * k, path);
+            for (int i = 0 ; i < k ; ++i) {
+                int l = landmarks[i];
+                if (l < 0 || l >= n || forward[l * k + i] != 0 || backward[l * k + i] != 0) {
+                    throw new IOException("Invalid landmark file : " + path);
+                }
+            }
+            for (int i = 0 ; i < n * k ; ++i) {
+                if (forward[i] < 0 || backward[i] < 0) { // distances are non negative, or INF
+                    throw new IOException("Invalid landmark file : " + path);
+                }
+            }
+            return new Landmarks(g, Adjacency.of(g), landmarks, forward, backward);
+        }
+    }
+}
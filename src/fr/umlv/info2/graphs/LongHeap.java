@@ -0,0 +1,73 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min heap of longs, growing as needed.
+ * The searches pack a (key, vertex) pair into each long, the key in the high bits, so that the order of the longs is
+ * the order of the keys. Instead of decreasing the key of a vertex, they push it again and skip the stale entries
+ * when they are popped.
+ * This class is not thread-safe.
+ */
+final class LongHeap {
+    private long[] heap = new long[64];
+    private int size;
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void push(long entry) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    long peek() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    long pop() {
+        long min = peek();
+        long last = heap[--size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return min;
+    }
+}
@@ -9,6 +9,7 @@ public class MatGraph implements  Graph {
     private final int[][] mat;
     private final int n; // number of vertices
     private int nbEdges;
+    private long modCount;
 
     public MatGraph(int nbVertices) {
         if (nbVertices <= 0) {
@@ -40,6 +41,12 @@ public class MatGraph implements  Graph {
         checkIndex(j);
         mat[i][j] = value;
         nbEdges++;
+        modCount++;
+    }
+
+    @Override
+    public long modificationCount() {
+        return modCount;
     }
 
     @Override
@@ -0,0 +1,237 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Dense all pairs shortest paths on distance matrices, built on min-plus row kernels : Floyd-Warshall, and the
+ * min-plus product of matrices used to compute the distances by repeated squaring.
+ * Both are made of the same operation, row[t] = min(row[t], x + kRow[t]) for every column t, which the Vector API can
+ * run on several columns at once, while C2 does not vectorise the branchy scalar loop of Graphs.floydWarshall.
+ * The vectorised kernel is only available when the JVM is started with --add-modules jdk.incubator.vector ; best()
+ * checks it at runtime and falls back to the scalar kernel otherwise. Both kernels give the same results.
+ * Infinity is Integer.MAX_VALUE, as in Graphs, and is never added to a distance.
+ */
+public final class MinPlus {
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int PARALLEL_THRESHOLD = 256; // rows are processed in parallel from this size
+    private static final MinPlus SCALAR = new MinPlus(new Scalar(), false);
+    private static final MinPlus BEST = vectorKernel().map(kernel -> new MinPlus(kernel, true)).orElse(SCALAR);
+
+    /**
+     * Min-plus operations on one row of a matrix.
+     */
+    interface Kernel {
+        /**
+         * Floyd-Warshall update of the row of s through k : row[t] = min(row[t], dik + kRow[t]), copying the
+         * predecessor of t on the path from k when the path through k is strictly shorter.
+         * @return the number of improved paths
+         */
+        long relax(int[] row, int[] pRow, int dik, int[] kRow, int[] pkRow);
+
+        /**
+         * Min-plus product step : row[t] = min(row[t], aik + kRow[t]).
+         */
+        void minPlus(int[] row, int aik, int[] kRow);
+    }
+
+    private static final class Scalar implements Kernel {
+        @Override
+        public long relax(int[] row, int[] pRow, int dik, int[] kRow, int[] pkRow) {
+            long relaxed = 0;
+            for (int t = 0 ; t < row.length ; ++t) {
+                if (kRow[t] != INF && row[t] > dik + kRow[t]) {
+                    row[t] = dik + kRow[t];
+                    pRow[t] = pkRow[t];
+                    relaxed++;
+                }
+            }
+            return relaxed;
+        }
+
+        @Override
+        public void minPlus(int[] row, int aik, int[] kRow) {
+            for (int t = 0 ; t < row.length ; ++t) {
+                if (kRow[t] != INF && row[t] > aik + kRow[t]) {
+                    row[t] = aik + kRow[t];
+                }
+            }
+        }
+    }
+
+    private static Optional<Kernel> vectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            return VectorMinPlus.isSupported() ? Optional.of(new VectorMinPlus()) : Optional.empty();
+        } catch (LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    private final Kernel kernel;
+    private final boolean vectorized;
+
+    private MinPlus(Kernel kernel, boolean vectorized) {
+        this.kernel = kernel;
+        this.vectorized = vectorized;
+    }
+
+    /**
+     * @return the vectorised kernels if the Vector API is available and useful on this processor, the scalar ones
+     * otherwise
+     */
+    public static MinPlus best() {
+        return BEST;
+    }
+
+    /**
+     * @return the scalar kernels
+     */
+    public static MinPlus scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * @return the vectorised kernels
+     * @throws UnsupportedOperationException if the Vector API is not available
+     */
+    public static MinPlus vectorized() {
+        if (! BEST.vectorized) {
+            throw new UnsupportedOperationException(
+                    "Vector API is not available, the JVM should be started with --add-modules jdk.incubator.vector");
+        }
+        return BEST;
+    }
+
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    private static IntStream rows(int n) {
+        var rows = IntStream.range(0, n);
+        return n >= PARALLEL_THRESHOLD ? rows.parallel() : rows;
+    }
+
+    /**
+     * Same as Graphs.floydWarshall(g), giving the same distances and predecessors.
+     * @param g : a valid graph
+     * @return the distances and predecessors between all the pairs of vertices
+     */
+    public ShortestPathFromAllVertices floydWarshall(Graph g) {
+        return floydWarshall(g, null);
+    }
+
+    /**
+     * Same as floydWarshall(g), filling the given stats during the computation.
+     * @param stats : the stats to fill, or null
+     */
+    public ShortestPathFromAllVertices floydWarshall(Graph g, AlgorithmStats stats) {
+        Objects.requireNonNull(g);
+        var st = AlgorithmStats.begin(vectorized ? "floydWarshallVector" : "floydWarshallScalar", g, stats);
+        try {
+            int V = g.numberOfVertices();
+            int[][] d = new int[V][V];
+            int[][] p = new int[V][V];
+            Graphs.floydWarshallInitialization(g, d, p);
+            if (st != null) {
+                st.endPhase("initialization");
+            }
+            for (int k = 0 ; k < V ; ++k) {
+                int pivot = k;
+                long relaxed = rows(V).mapToLong(s -> {
+                    int dsk = d[s][pivot];
+                    if (s == pivot || dsk == INF) {
+                        return 0;
+                    }
+                    // the column k can only change through a negative cycle, which Graphs.floydWarshall ignores
+                    int psk = p[s][pivot];
+                    long count = kernel.relax(d[s], p[s], dsk, d[pivot], p[pivot]);
+                    if (d[s][pivot] != dsk) {
+                        d[s][pivot] = dsk;
+                        p[s][pivot] = psk;
+                        count--;
+                    }
+                    return count;
+                }).sum();
+                if (st != null) {
+                    st.verticesSettled++;
+                    st.edgesScanned += (long) V * V;
+                    st.edgesRelaxed += relaxed;
+                }
+            }
+            if (st != null) {
+                st.endPhase("relaxation");
+            }
+            return new ShortestPathFromAllVertices(d, p);
+        } finally {
+            if (st != null) {
+                st.end();
+            }
+        }
+    }
+
+    /**
+     * Compute the min-plus product of two square matrices : c[i][j] = min over k of a[i][k] + b[k][j].
+     * @param a : a n*n matrix
+     * @param b : a n*n matrix
+     * @return the product
+     */
+    public int[][] multiply(int[][] a, int[][] b) {
+        Objects.requireNonNull(a);
+        Objects.requireNonNull(b);
+        int n = a.length;
+        if (b.length != n) {
+            throw new IllegalArgumentException("Matrices should have the same size");
+        }
+        for (int i = 0 ; i < n ; ++i) {
+            if (a[i].length != n || b[i].length != n) {
+                throw new IllegalArgumentException("Matrices should be square");
+            }
+        }
+        int[][] c = new int[n][];
+        rows(n).forEach(i -> {
+            int[] row = new int[n];
+            Arrays.fill(row, INF);
+            for (int k = 0 ; k < n ; ++k) {
+                if (a[i][k] != INF) {
+                    kernel.minPlus(row, a[i][k], b[k]);
+                }
+            }
+            c[i] = row;
+        });
+        return c;
+    }
+
+    /**
+     * Compute the distances between all the pairs of vertices by repeated squaring of the weight matrix : after m
+     * squarings, the matrix holds the lengths of the shortest paths of at most 2^m edges. This takes
+     * O(n^3 log n) operations instead of O(n^3), but each of them is a row kernel over independent rows.
+     * @param g : a valid graph
+     * @return the matrix of the distances, Integer.MAX_VALUE when there is no path
+     * @throws IllegalStateException if the graph contains a negative cycle
+     */
+    public int[][] allPairsDistances(Graph g) {
+        Objects.requireNonNull(g);
+        int V = g.numberOfVertices();
+        int[][] d = new int[V][V];
+        for (int s = 0 ; s < V ; ++s) {
+            int[] row = d[s];
+            Arrays.fill(row, INF);
+            row[s] = 0;
+            g.forEachEdge(s, e -> row[e.getEnd()] = Math.min(row[e.getEnd()], e.getValue()));
+        }
+        for (long edges = 1 ; edges < V ; edges <<= 1) { // V edges, to go around any cycle
+            d = multiply(d, d);
+        }
+        for (int s = 0 ; s < V ; ++s) {
+            if (d[s][s] < 0) {
+                throw new IllegalStateException("Graph contains a negative cycle");
+            }
+        }
+        return d;
+    }
+}
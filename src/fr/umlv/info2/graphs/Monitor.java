@@ -0,0 +1,29 @@
+package fr.umlv.info2.graphs;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Link between an algorithm running asynchronously and the future of its result.
+ * The algorithm calls step() at each outer loop boundary. As soon as the future is completed by someone else
+ * (cancelled, timed out by orTimeout, or completed by hand), step() throws a CancellationException which stops the
+ * computation.
+ */
+final class Monitor {
+    private final CompletableFuture<?> future;
+    private final ProgressListener listener; // null if no progress is reported
+
+    Monitor(CompletableFuture<?> future, ProgressListener listener) {
+        this.future = future;
+        this.listener = listener;
+    }
+
+    void step(long done, long total) {
+        if (future.isDone()) {
+            throw new CancellationException("Computation was stopped");
+        }
+        if (listener != null) {
+            listener.progress(done, total);
+        }
+    }
+}
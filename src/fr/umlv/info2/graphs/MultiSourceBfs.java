@@ -0,0 +1,81 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-source breadth first search (MS-BFS, Then et al.).
+ * Sources are grouped by batches of 64, and each vertex holds a long whose bit i tells if the i-th source of the
+ * batch has reached it. One level of the 64 searches is then computed with a single pass over the edges of the
+ * frontier, a vertex passing all its bits to its successors at once. Batches are independent and run in parallel.
+ */
+final class MultiSourceBfs {
+    private MultiSourceBfs() {
+    }
+
+    static HopDistances run(Graph g, int[] sources, ForkJoinPool pool) {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(sources);
+        Objects.requireNonNull(pool);
+        int n = g.numberOfVertices();
+        for (int s : sources) {
+            if (s < 0 || s >= n) {
+                throw new IndexOutOfBoundsException("Index of starting vertex " + s + " is out of bounds");
+            }
+        }
+        var adj = Adjacency.of(g);
+        var result = new HopDistances(sources.clone(), n);
+        int batches = (sources.length + 63) >>> 6;
+        pool.submit(() -> IntStream.range(0, batches).parallel().forEach(b ->
+                runBatch(adj, sources, b << 6, Math.min(sources.length, (b + 1) << 6), result))).join();
+        return result;
+    }
+
+    private static void runBatch(Adjacency adj, int[] sources, int from, int to, HopDistances result) {
+        int n = adj.n;
+        long[] seen = new long[n];
+        long[] visit = new long[n];
+        long[] visitNext = new long[n];
+        for (int i = from ; i < to ; ++i) {
+            long bit = 1L << (i - from);
+            seen[sources[i]] |= bit;
+            visit[sources[i]] |= bit;
+            result.set(i, sources[i], 0);
+        }
+        int level = 0;
+        boolean active = true;
+        while (active) {
+            level++;
+            for (int v = 0 ; v < n ; ++v) {
+                long bits = visit[v];
+                if (bits == 0) {
+                    continue;
+                }
+                for (int e = adj.offsets[v] ; e < adj.offsets[v + 1] ; ++e) {
+                    visitNext[adj.targets[e]] |= bits;
+                }
+            }
+            active = false;
+            for (int v = 0 ; v < n ; ++v) {
+                long bits = visitNext[v] & ~seen[v];
+                visitNext[v] = bits;
+                if (bits == 0) {
+                    continue;
+                }
+                active = true;
+                seen[v] |= bits;
+                while (bits != 0) {
+                    int i = Long.numberOfTrailingZeros(bits);
+                    result.set(from + i, v, level);
+                    bits &= bits - 1;
+                }
+            }
+            long[] tmp = visit;
+            visit = visitNext;
+            visitNext = tmp;
+            Arrays.fill(visitNext, 0);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package fr.umlv.info2.graphs;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel strongly connected components using the forward-backward algorithm with trimming
+ * (Fleischer, Hendrickson and Pinar, improved by McLendon et al.).
+ * Every subproblem is a set of vertices sharing the same label. A subproblem is first trimmed : vertices without
+ * predecessor or without successor inside the subproblem are components on their own. Then the vertices reachable
+ * from a pivot (forward) and the ones reaching it (backward) are computed ; their intersection is the component
+ * of the pivot, and the three remaining sets (forward only, backward only, neither) are independent subproblems
+ * solved by fork/join tasks.
+ * Labels are never reused, so a task only reads the labels of the vertices of other subproblems and never confuses
+ * them with its own.
+ */
+final class ParallelScc {
+    private static final int DONE = -1;
+    private static final int PARALLEL_THRESHOLD = 4096; // below this size, degrees are computed sequentially
+
+    private final Adjacency adj;
+    private final Adjacency radj;
+    private final int[] label;
+    private final int[] component;
+    private final int[] inDegree;
+    private final int[] outDegree;
+    private final AtomicInteger labels = new AtomicInteger(1);
+    private final AtomicInteger components = new AtomicInteger();
+
+    private ParallelScc(Adjacency adj) {
+        this.adj = adj;
+        this.radj = adj.reverse();
+        this.label = new int[adj.n];
+        this.component = new int[adj.n];
+        this.inDegree = new int[adj.n];
+        this.outDegree = new int[adj.n];
+    }
+
+    static int[] run(Graph g, ForkJoinPool pool) {
+        Objects.requireNonNull(g);
+        return run(Adjacency.of(g), pool);
+    }
+
+    static int[] run(Adjacency adj, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        var scc = new ParallelScc(adj);
+        int[] all = IntStream.range(0, adj.n).toArray();
+        pool.invoke(scc.new Solve(all, 0));
+        return scc.renumber();
+    }
+
+    /**
+     * Component ids are given in a non deterministic order by the tasks : number them again by order of their
+     * smallest vertex so that two runs on the same graph return the same array.
+     */
+    private int[] renumber() {
+        int n = adj.n;
+        int[] mapping = new int[components.get()];
+        for (int i = 0 ; i < mapping.length ; ++i) {
+            mapping[i] = -1;
+        }
+        int next = 0;
+        int[] result = new int[n];
+        for (int v = 0 ; v < n ; ++v) {
+            int c = component[v];
+            if (mapping[c] == -1) {
+                mapping[c] = next++;
+            }
+            result[v] = mapping[c];
+        }
+        return result;
+    }
+
+    private void assign(int v, int c) {
+        component[v] = c;
+        label[v] = DONE;
+    }
+
+    @SuppressWarnings("serial")
+    private final class Solve extends RecursiveAction {
+        private final int[] vertices;
+        private final int id;
+
+        Solve(int[] vertices, int id) {
+            this.vertices = vertices;
+            this.id = id;
+        }
+
+        @Override
+        protected void compute() {
+            // the largest subproblem is solved by this task, the others are forked, which keeps the stack shallow
+            // on graphs where each step only peels off a small component
+            var forked = new ArrayList<Solve>();
+            int[] current = vertices;
+            int currentId = id;
+            while (current != null) {
+                var subproblems = split(current, currentId);
+                current = null;
+                int largest = -1;
+                for (int i = 0 ; i < subproblems.size() ; ++i) {
+                    if (largest == -1 || subproblems.get(i).vertices.length > subproblems.get(largest).vertices.length) {
+                        largest = i;
+                    }
+                }
+                for (int i = 0 ; i < subproblems.size() ; ++i) {
+                    var subproblem = subproblems.get(i);
+                    if (i == largest) {
+                        current = subproblem.vertices;
+                        currentId = subproblem.id;
+                    } else {
+                        subproblem.fork();
+                        forked.add(subproblem);
+                    }
+                }
+            }
+            for (var task : forked) {
+                task.join();
+            }
+        }
+
+        /**
+         * Trim the subproblem, extract the component of a pivot and split what is left.
+         * @param vertices  the vertices of the subproblem
+         * @param id        the label of the subproblem
+         * @return the non empty subproblems left to solve
+         */
+        private ArrayList<Solve> split(int[] vertices, int id) {
+            var subproblems = new ArrayList<Solve>(3);
+            var remaining = trim(vertices, id);
+            if (remaining.isEmpty()) {
+                return subproblems;
+            }
+            // a random pivot splits chains of components in halves on average, like the pivot of a quicksort
+            int pivot = remaining.get(ThreadLocalRandom.current().nextInt(remaining.size()));
+            int forwardId = labels.getAndIncrement();
+            int backwardId = labels.getAndIncrement();
+            int restId = labels.getAndIncrement();
+            var forward = new IntList();
+            label[pivot] = forwardId;
+            forward.add(pivot);
+            for (int k = 0 ; k < forward.size() ; ++k) {
+                int s = forward.get(k);
+                for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                    int t = adj.targets[e];
+                    if (label[t] == id) {
+                        label[t] = forwardId;
+                        forward.add(t);
+                    }
+                }
+            }
+            int c = components.getAndIncrement();
+            var backward = new IntList();
+            var queue = new IntList();
+            assign(pivot, c);
+            queue.add(pivot);
+            for (int k = 0 ; k < queue.size() ; ++k) {
+                int s = queue.get(k);
+                for (int e = radj.offsets[s] ; e < radj.offsets[s + 1] ; ++e) {
+                    int t = radj.targets[e];
+                    if (label[t] == forwardId) {
+                        assign(t, c);
+                        queue.add(t);
+                    } else if (label[t] == id) {
+                        label[t] = backwardId;
+                        backward.add(t);
+                        queue.add(t);
+                    }
+                }
+            }
+            var forwardOnly = new IntList();
+            for (int k = 0 ; k < forward.size() ; ++k) {
+                if (label[forward.get(k)] == forwardId) {
+                    forwardOnly.add(forward.get(k));
+                }
+            }
+            var rest = new IntList();
+            for (int k = 0 ; k < remaining.size() ; ++k) {
+                int v = remaining.get(k);
+                if (label[v] == id) {
+                    label[v] = restId;
+                    rest.add(v);
+                }
+            }
+            if (! forwardOnly.isEmpty()) {
+                subproblems.add(new Solve(forwardOnly.toArray(), forwardId));
+            }
+            if (! backward.isEmpty()) {
+                subproblems.add(new Solve(backward.toArray(), backwardId));
+            }
+            if (! rest.isEmpty()) {
+                subproblems.add(new Solve(rest.toArray(), restId));
+            }
+            return subproblems;
+        }
+
+        /**
+         * Repeatedly remove the vertices having no predecessor or no successor in the subproblem, each one of them
+         * being a component of size 1.
+         * @param vertices  the vertices of the subproblem
+         * @param id        the label of the subproblem
+         * @return the vertices of the subproblem that were not removed
+         */
+        private IntList trim(int[] vertices, int id) {
+            if (vertices.length > PARALLEL_THRESHOLD) {
+                IntStream.of(vertices).parallel().forEach(v -> computeDegrees(v, id));
+            } else {
+                for (int v : vertices) {
+                    computeDegrees(v, id);
+                }
+            }
+            var queue = new IntList();
+            for (int v : vertices) {
+                if (inDegree[v] == 0 || outDegree[v] == 0) {
+                    queue.add(v);
+                }
+            }
+            for (int k = 0 ; k < queue.size() ; ++k) {
+                int v = queue.get(k);
+                if (label[v] != id) {
+                    continue;
+                }
+                assign(v, components.getAndIncrement());
+                for (int e = adj.offsets[v] ; e < adj.offsets[v + 1] ; ++e) {
+                    int t = adj.targets[e];
+                    if (label[t] == id && --inDegree[t] == 0) {
+                        queue.add(t);
+                    }
+                }
+                for (int e = radj.offsets[v] ; e < radj.offsets[v + 1] ; ++e) {
+                    int t = radj.targets[e];
+                    if (label[t] == id && --outDegree[t] == 0) {
+                        queue.add(t);
+                    }
+                }
+            }
+            var remaining = new IntList(vertices.length);
+            for (int v : vertices) {
+                if (label[v] == id) {
+                    remaining.add(v);
+                }
+            }
+            return remaining;
+        }
+
+        private void computeDegrees(int v, int id) {
+            int out = 0;
+            for (int e = adj.offsets[v] ; e < adj.offsets[v + 1] ; ++e) {
+                int t = adj.targets[e];
+                if (t != v && label[t] == id) {
+                    out++;
+                }
+            }
+            int in = 0;
+            for (int e = radj.offsets[v] ; e < radj.offsets[v + 1] ; ++e) {
+                int t = radj.targets[e];
+                if (t != v && label[t] == id) {
+                    in++;
+                }
+            }
+            outDegree[v] = out;
+            inDegree[v] = in;
+        }
+    }
+}
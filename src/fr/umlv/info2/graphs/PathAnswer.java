@@ -0,0 +1,52 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+
+/**
+ * Answer to one (source, destination) shortest path query.
+ */
+public class PathAnswer {
+    private final int source;
+    private final int destination;
+    private final int distance;
+    private final int[] path;
+
+    PathAnswer(int source, int destination, int distance, int[] path) {
+        this.source = source;
+        this.destination = destination;
+        this.distance = distance;
+        this.path = path;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    public int getDestination() {
+        return destination;
+    }
+
+    /**
+     * @return the length of a shortest path, or Integer.MAX_VALUE if the destination is not reachable
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    public boolean isReachable() {
+        return distance != Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the vertices of a shortest path from the source to the destination, both included, or an empty array
+     * if the destination is not reachable
+     */
+    public int[] getPath() {
+        return path.clone();
+    }
+
+    @Override
+    public String toString() {
+        return source + " -> " + destination + " " + distance + " " + Arrays.toString(path);
+    }
+}
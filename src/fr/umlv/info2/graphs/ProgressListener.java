@@ -0,0 +1,17 @@
+package fr.umlv.info2.graphs;
+
+/**
+ * Receives the progress of a long computation, started by AsyncGraphs or ResumableGraphs.
+ * It is called by the thread running the computation, at every outer loop boundary of the algorithm, so it should
+ * return quickly.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * @param done number of units of work done : passes for bellmanFord, settled vertices for dijkstra,
+     *             intermediate vertices for floydWarshall, finished sources for johnson
+     * @param total number of units of work of the whole computation (an upper bound for dijkstra, which only settles
+     *              the reachable vertices)
+     */
+    void progress(long done, long total);
+}
@@ -0,0 +1,181 @@
+package fr.umlv.info2.graphs;
+
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compact reachability index using interval labels (GRAIL, Yildirim et al.), taking O(k * n) memory where k is the
+ * number of labels per vertex.
+ * The index is built on the condensation of the graph, which is acyclic. Each traversal is a depth first search with
+ * a random order of the children : the post-order rank of a component and the lowest rank of its descendants give an
+ * interval which contains the intervals of all the components it can reach. If the interval of v is not contained
+ * in the one of u, then v is not reachable from u. The start and end times of the first search, like the ones of
+ * Graphs.timedDepthFirstSearch, also answer positively when v is a descendant of u in the search tree.
+ * Queries that are decided by neither test fall back to a depth first search pruned by the intervals.
+ * Once built, the index can be queried from several threads at once.
+ */
+public class ReachabilityIndex {
+    private final int[] component;
+    private final int count;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int traversals;
+    private final int[] low;   // low[c * traversals + i] : lowest post-order rank below c during traversal i
+    private final int[] rank;  // rank[c * traversals + i] : post-order rank of c during traversal i
+    private final int[] start; // start time of c during the first traversal
+    private final int[] end;   // end time of c during the first traversal
+
+    private ReachabilityIndex(Condensation condensation, int traversals, long seed) {
+        this.component = condensation.component;
+        this.count = condensation.count;
+        this.offsets = condensation.offsets;
+        this.targets = condensation.targets;
+        this.traversals = traversals;
+        this.low = new int[count * traversals];
+        this.rank = new int[count * traversals];
+        this.start = new int[count];
+        this.end = new int[count];
+        var random = new SplittableRandom(seed);
+        for (int i = 0 ; i < traversals ; ++i) {
+            label(i, random);
+        }
+    }
+
+    static ReachabilityIndex of(Graph g, int traversals, long seed, ForkJoinPool pool) {
+        if (traversals <= 0) {
+            throw new IllegalArgumentException("Number of traversals should be positive");
+        }
+        return new ReachabilityIndex(Condensation.of(g, pool), traversals, seed);
+    }
+
+    /**
+     * Run one depth first search over all the components, the roots and the children being visited in a random
+     * order, and store the interval of each component for this traversal.
+     */
+    private void label(int traversal, SplittableRandom random) {
+        int[] roots = new int[count];
+        for (int c = 0 ; c < count ; ++c) {
+            roots[c] = c;
+        }
+        shuffle(roots, 0, count, random);
+        int[] children = targets.clone();
+        for (int c = 0 ; c < count ; ++c) {
+            shuffle(children, offsets[c], offsets[c + 1], random);
+        }
+        var visited = new boolean[count];
+        int[] stack = new int[count];
+        int[] edge = new int[count]; // next child to visit for each component of the stack
+        int nextRank = 0;
+        int time = 0;
+        for (int root : roots) {
+            if (visited[root]) {
+                continue;
+            }
+            int top = 0;
+            stack[0] = root;
+            edge[root] = offsets[root];
+            visited[root] = true;
+            low[root * traversals + traversal] = Integer.MAX_VALUE;
+            if (traversal == 0) {
+                start[root] = time++;
+            }
+            while (top >= 0) {
+                int c = stack[top];
+                if (edge[c] < offsets[c + 1]) {
+                    int t = children[edge[c]++];
+                    if (! visited[t]) {
+                        visited[t] = true;
+                        edge[t] = offsets[t];
+                        low[t * traversals + traversal] = Integer.MAX_VALUE;
+                        if (traversal == 0) {
+                            start[t] = time++;
+                        }
+                        stack[++top] = t;
+                    } else {
+                        int slot = c * traversals + traversal;
+                        low[slot] = Math.min(low[slot], low[t * traversals + traversal]);
+                    }
+                    continue;
+                }
+                int slot = c * traversals + traversal;
+                rank[slot] = nextRank++;
+                low[slot] = Math.min(low[slot], rank[slot]);
+                if (traversal == 0) {
+                    end[c] = time++;
+                }
+                top--;
+                if (top >= 0) {
+                    int parent = stack[top] * traversals + traversal;
+                    low[parent] = Math.min(low[parent], low[slot]);
+                }
+            }
+        }
+    }
+
+    private static void shuffle(int[] array, int from, int to, SplittableRandom random) {
+        for (int i = to - 1 ; i > from ; --i) {
+            int j = from + random.nextInt(i - from + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+
+    /**
+     * @return false if the intervals prove that b is not reachable from a, true if it may be
+     */
+    private boolean mayReach(int a, int b) {
+        for (int i = 0 ; i < traversals ; ++i) {
+            int sa = a * traversals + i;
+            int sb = b * traversals + i;
+            if (low[sb] < low[sa] || rank[sb] > rank[sa]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isDescendant(int a, int b) {
+        return start[a] <= start[b] && end[b] <= end[a];
+    }
+
+    /**
+     * Tell if there is a path from u to v. Every vertex can reach itself.
+     * @param u the starting vertex
+     * @param v the ending vertex
+     * @return true if v can be reached from u
+     */
+    public boolean isReachable(int u, int v) {
+        Objects.checkIndex(u, component.length);
+        Objects.checkIndex(v, component.length);
+        int a = component[u];
+        int b = component[v];
+        if (a == b || isDescendant(a, b)) {
+            return true;
+        }
+        if (! mayReach(a, b)) {
+            return false;
+        }
+        // the labels could not decide : depth first search, only going through components that may reach b
+        var visited = new BitSet();
+        var stack = new IntList();
+        visited.set(a);
+        stack.add(a);
+        while (! stack.isEmpty()) {
+            int c = stack.removeLast();
+            for (int e = offsets[c] ; e < offsets[c + 1] ; ++e) {
+                int t = targets[e];
+                if (t == b || isDescendant(t, b)) {
+                    return true;
+                }
+                if (! visited.get(t) && mayReach(t, b)) {
+                    visited.set(t);
+                    stack.add(t);
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,330 @@
+package fr.umlv.info2.graphs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * All pairs shortest paths computations which save their progress to a file, so that a run stopped by a crash or a
+ * restart of the JVM can be resumed where it was.
+ * A checkpoint file records a fingerprint of the graph : resuming with a graph different from the one of the
+ * checkpoint fails instead of mixing the results of two graphs. The file is deleted when the computation completes.
+ *
+ * Two computations are available :
+ *      - floydWarshall periodically saves its whole d and pi matrices with the next value of k. The file is written
+ *        sequentially by chunks into a temporary file, which then atomically replaces the previous checkpoint, so a
+ *        crash during a save keeps the previous checkpoint intact.
+ *      - johnson computes the shortest paths from each source with Dijkstra on reweighted edges (sources in parallel),
+ *        and appends each finished source with its rows to a log, checked by a CRC. On resume, the sources found in
+ *        the log are not computed again, and a record torn by a crash is discarded.
+ */
+public class ResumableGraphs {
+    private static final int FLOYD_WARSHALL_MAGIC = 0x47465743; // GFWC
+    private static final int JOHNSON_MAGIC = 0x474A484E; // GJHN
+
+    private ResumableGraphs() {
+    }
+
+    /**
+     * Compute a hash of the vertices and edges of the graph.
+     */
+    static long fingerprint(Graph g) {
+        long[] hash = { g.numberOfVertices() };
+        for (int v = 0 ; v < g.numberOfVertices() ; ++v) {
+            g.forEachEdge(v, e -> {
+                long h = ((long) e.getStart() * 0x9E3779B97F4A7C15L) ^ ((long) e.getEnd() << 32) ^ e.getValue();
+                h *= 0xBF58476D1CE4E5B9L;
+                hash[0] += h ^ (h >>> 31); // order independent
+            });
+        }
+        return hash[0];
+    }
+
+    private static void check(Graph g, Path checkpoint, Duration period) {
+        Objects.requireNonNull(g);
+        Objects.requireNonNull(checkpoint);
+        Objects.requireNonNull(period);
+        if (period.isNegative()) {
+            throw new IllegalArgumentException("Checkpoint period should not be negative");
+        }
+    }
+
+    /**
+     * Same as Graphs.floydWarshall(g), saving its state to the checkpoint file at most once per period, and resuming
+     * from this file if it exists.
+     * @param g : a valid graph
+     * @param checkpoint : the checkpoint file
+     * @param period : the minimum time between two checkpoints, Duration.ZERO to save after each intermediate vertex
+     * @param listener : called after each intermediate vertex, or null
+     * @return the shortest paths between all pairs of vertices
+     * @throws UncheckedIOException if the checkpoint file can not be read or written
+     * @throws IllegalArgumentException if the checkpoint file was written for another graph
+     */
+    public static ShortestPathFromAllVertices floydWarshall(Graph g, Path checkpoint, Duration period,
+                                                           ProgressListener listener) {
+        check(g, checkpoint, period);
+        int V = g.numberOfVertices();
+        long fingerprint = fingerprint(g);
+        int[][] d = new int[V][V];
+        int[][] p = new int[V][V];
+        try {
+            int k = 0;
+            if (Files.exists(checkpoint)) {
+                k = readFloydWarshall(checkpoint, fingerprint, d, p);
+            } else {
+                Graphs.floydWarshallInitialization(g, d, p);
+            }
+            long last = System.nanoTime();
+            for ( ; k < V ; ++k) {
+                Graphs.floydWarshallRelaxation(d, p, k);
+                if (k + 1 < V && System.nanoTime() - last >= period.toNanos()) {
+                    writeFloydWarshall(checkpoint, fingerprint, k + 1, d, p);
+                    last = System.nanoTime();
+                }
+                if (listener != null) {
+                    listener.progress(k + 1, V);
+                }
+            }
+            Files.deleteIfExists(checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ShortestPathFromAllVertices(d, p);
+    }
+
+    private static int readFloydWarshall(Path checkpoint, long fingerprint, int[][] d, int[][] p) throws IOException {
+        try (var channel = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+            var buffer = IntFiles.readBuffer();
+            IntFiles.fill(channel, buffer, 20, checkpoint);
+            if (buffer.getInt() != FLOYD_WARSHALL_MAGIC) {
+                throw new IOException("Not a Floyd-Warshall checkpoint : " + checkpoint);
+            }
+            if (buffer.getInt() != d.length || buffer.getLong() != fingerprint) {
+                throw new IllegalArgumentException("Checkpoint " + checkpoint + " was written for another graph");
+            }
+            int k = buffer.getInt();
+            int V = d.length;
+            if (k < 0 || k >= V || channel.size() != 20 + 8L * V * V) {
+                throw new IOException("Invalid Floyd-Warshall checkpoint : " + checkpoint);
+            }
+            for (int s = 0 ; s < V ; ++s) {
+                d[s] = IntFiles.readInts(channel, buffer, V, checkpoint);
+            }
+            for (int s = 0 ; s < V ; ++s) {
+                p[s] = IntFiles.readInts(channel, buffer, V, checkpoint);
+            }
+            return k;
+        }
+    }
+
+    private static void writeFloydWarshall(Path checkpoint, long fingerprint, int k, int[][] d, int[][] p)
+            throws IOException {
+        IntFiles.save(checkpoint, (channel, buffer) -> {
+            buffer.putInt(FLOYD_WARSHALL_MAGIC).putInt(d.length).putLong(fingerprint).putInt(k);
+            for (var rows : new int[][][] { d, p }) {
+                for (int[] row : rows) {
+                    IntFiles.writeInts(channel, buffer, row);
+                }
+            }
+        });
+    }
+
+    /**
+     * Compute the potentials of Johnson's algorithm : the distances from a virtual vertex linked to every vertex by
+     * an edge of weight 0, found by Bellman-Ford.
+     * @throws IllegalStateException if the graph contains a negative cycle
+     */
+    private static int[] potentials(Adjacency adj) {
+        int[] h = new int[adj.n];
+        for (int pass = 0 ; pass <= adj.n ; ++pass) {
+            boolean changed = false;
+            for (int s = 0 ; s < adj.n ; ++s) {
+                for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                    int t = adj.targets[e];
+                    if (h[s] + adj.weights[e] < h[t]) {
+                        h[t] = h[s] + adj.weights[e];
+                        changed = true;
+                    }
+                }
+            }
+            if (! changed) {
+                return h;
+            }
+        }
+        throw new IllegalStateException("Graph contains a negative cycle");
+    }
+
+    /**
+     * Compute the shortest paths between all pairs of vertices with Johnson's algorithm, recording each finished
+     * source in the checkpoint file, and skipping the sources already recorded in this file if it exists.
+     * Negative weights are allowed. This is faster than floydWarshall on sparse graphs.
+     * @param g : a valid graph
+     * @param checkpoint : the checkpoint file
+     * @param period : the minimum time between two flushes of the checkpoint file to the disk
+     * @param listener : called each time a source is finished, with the number of finished sources, or null
+     * @return the shortest paths between all pairs of vertices
+     * @throws IllegalStateException if the graph contains a negative cycle
+     * @throws UncheckedIOException if the checkpoint file can not be read or written
+     * @throws IllegalArgumentException if the checkpoint file was written for another graph
+     */
+    public static ShortestPathFromAllVertices johnson(Graph g, Path checkpoint, Duration period,
+                                                     ProgressListener listener) {
+        check(g, checkpoint, period);
+        int V = g.numberOfVertices();
+        long fingerprint = fingerprint(g);
+        var adj = Adjacency.of(g);
+        int[] h = potentials(adj);
+        int[] weights = new int[adj.weights.length];
+        for (int s = 0 ; s < V ; ++s) {
+            for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                weights[e] = adj.weights[e] + h[s] - h[adj.targets[e]];
+            }
+        }
+        var reweighted = Adjacency.of(V, adj.offsets, adj.targets, weights);
+        int[][] d = new int[V][];
+        int[][] p = new int[V][];
+        try (var log = new JohnsonLog(checkpoint, V, fingerprint, d, p, period, listener)) {
+            var scratch = ThreadLocal.withInitial(() -> new DijkstraScratch(V));
+            var todo = IntStream.range(0, V).filter(s -> d[s] == null).toArray();
+            IntStream.of(todo).parallel().forEach(s -> {
+                var sc = scratch.get();
+                sc.run(reweighted, s, null, 0, 0);
+                int[] distances = new int[V];
+                for (int t = 0 ; t < V ; ++t) {
+                    distances[t] = sc.d[t] == Integer.MAX_VALUE ? Integer.MAX_VALUE : sc.d[t] - h[s] + h[t];
+                }
+                log.append(s, distances, Arrays.copyOf(sc.pi, V));
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.deleteIfExists(checkpoint);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ShortestPathFromAllVertices(d, p);
+    }
+
+    /**
+     * Append only log of the sources finished by johnson. Each record holds the source, its row of d, its row of pi
+     * and the CRC32 of these values.
+     */
+    private static final class JohnsonLog implements AutoCloseable {
+        private static final int HEADER = 16;
+
+        private final FileChannel channel;
+        private final int n;
+        private final int[][] d;
+        private final int[][] p;
+        private final long period;
+        private final ProgressListener listener;
+        private final ByteBuffer record;
+        private final CRC32 crc = new CRC32();
+        private long lastForce = System.nanoTime();
+        private int finished;
+
+        JohnsonLog(Path path, int n, long fingerprint, int[][] d, int[][] p, Duration period,
+                   ProgressListener listener) throws IOException {
+            this.n = n;
+            this.d = d;
+            this.p = p;
+            this.period = period.toNanos();
+            this.listener = listener;
+            this.record = ByteBuffer.allocate(recordSize());
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                if (channel.size() < HEADER) {
+                    channel.truncate(0);
+                    var header = ByteBuffer.allocate(HEADER);
+                    header.putInt(JOHNSON_MAGIC).putInt(n).putLong(fingerprint);
+                    IntFiles.writeFully(channel, header);
+                } else {
+                    recover(fingerprint, path);
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private int recordSize() {
+            return 4 * (2 * n + 2);
+        }
+
+        /**
+         * Read the records of the log, keep the valid ones, and cut the log after the last valid record.
+         */
+        private void recover(long fingerprint, Path path) throws IOException {
+            var header = ByteBuffer.allocate(HEADER);
+            channel.position(0);
+            IntFiles.readFully(channel, header);
+            if (header.getInt() != JOHNSON_MAGIC) {
+                throw new IOException("Not a Johnson checkpoint : " + path);
+            }
+            if (header.getInt() != n || header.getLong() != fingerprint) {
+                throw new IllegalArgumentException("Checkpoint " + path + " was written for another graph");
+            }
+            long valid = HEADER;
+            while (valid + recordSize() <= channel.size()) {
+                record.clear();
+                IntFiles.readFully(channel, record);
+                crc.reset();
+                crc.update(record.array(), 0, recordSize() - 4);
+                int source = record.getInt();
+                if (record.getInt(recordSize() - 4) != (int) crc.getValue() || source < 0 || source >= n) {
+                    break;
+                }
+                int[] distances = new int[n];
+                int[] predecessors = new int[n];
+                record.asIntBuffer().get(distances).get(predecessors);
+                d[source] = distances;
+                p[source] = predecessors;
+                finished++;
+                valid += recordSize();
+            }
+            channel.truncate(valid);
+            channel.position(valid);
+        }
+
+        synchronized void append(int source, int[] distances, int[] predecessors) {
+            record.clear();
+            record.putInt(source);
+            record.asIntBuffer().put(distances).put(predecessors);
+            record.position(4 + 8 * n);
+            crc.reset();
+            crc.update(record.array(), 0, recordSize() - 4);
+            record.putInt((int) crc.getValue());
+            try {
+                IntFiles.writeFully(channel, record);
+                if (System.nanoTime() - lastForce >= period) {
+                    channel.force(false);
+                    lastForce = System.nanoTime();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            d[source] = distances;
+            p[source] = predecessors;
+            finished++;
+            if (listener != null) {
+                listener.progress(finished, n);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+/**
+ * Least recently used cache of the single source shortest paths of a graph.
+ * Results are keyed by (modification count of the graph, algorithm, source) : as soon as the graph is modified,
+ * the results computed before are dropped and recomputed on demand.
+ * The cache can be used by several threads at once. When several threads ask for the same missing result, it is
+ * computed only once and the other threads wait for it. The computations themselves run outside of the lock.
+ * The size of the cache is bounded by an estimate of the memory used by the d and pi arrays of the results.
+ * The results returned are shared by all the callers and must not be modified.
+ */
+public class ShortestPathCache {
+    private static final int ENTRY_OVERHEAD = 128; // bytes of the key, the entry and the arrays headers
+
+    private final Graph g;
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true); // access order
+    private long version;
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    private static final class Key {
+        private final long version;
+        private final String algorithm;
+        private final int source;
+
+        Key(long version, String algorithm, int source) {
+            this.version = version;
+            this.algorithm = algorithm;
+            this.source = source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && version == key.version && source == key.source
+                    && algorithm.equals(key.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(version) ^ algorithm.hashCode() ^ source * 31;
+        }
+    }
+
+    private static final class CachedResult {
+        private final CompletableFuture<ShortestPathFromOneVertex> future = new CompletableFuture<>();
+        private long bytes; // 0 while the result is being computed
+    }
+
+    /**
+     * @param g a valid graph
+     * @param maxBytes the maximum memory used by the cached results
+     */
+    public ShortestPathCache(Graph g, long maxBytes) {
+        this.g = Objects.requireNonNull(g);
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Maximum size of the cache should be positive");
+        }
+        this.maxBytes = maxBytes;
+        this.version = g.modificationCount();
+    }
+
+    /**
+     * Same as Graphs.dijkstra(g, source), reusing the result of a previous call if the graph has not changed.
+     */
+    public ShortestPathFromOneVertex dijkstra(int source) {
+        return get("dijkstra", source, v -> Graphs.dijkstra(g, v));
+    }
+
+    /**
+     * Same as Graphs.bellmanFord(g, source), reusing the result of a previous call if the graph has not changed.
+     */
+    public ShortestPathFromOneVertex bellmanFord(int source) {
+        return get("bellmanFord", source, v -> Graphs.bellmanFord(g, v));
+    }
+
+    /**
+     * Same as Graphs.deltaStepping(g, source), reusing the result of a previous call if the graph has not changed.
+     */
+    public ShortestPathFromOneVertex deltaStepping(int source) {
+        return get("deltaStepping", source, v -> Graphs.deltaStepping(g, v));
+    }
+
+    private ShortestPathFromOneVertex get(String algorithm, int source, IntFunction<ShortestPathFromOneVertex> compute) {
+        if (source < 0 || source >= g.numberOfVertices()) {
+            throw new IndexOutOfBoundsException("Index of starting vertex is out of bounds");
+        }
+        long current = g.modificationCount();
+        var key = new Key(current, algorithm, source);
+        CachedResult entry;
+        boolean owner = false;
+        lock.lock();
+        try {
+            if (current != version) {
+                entries.clear();
+                bytes = 0;
+                version = current;
+            }
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new CachedResult();
+                entries.put(key, entry);
+                owner = true;
+                misses++;
+            } else {
+                hits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (owner) {
+            ShortestPathFromOneVertex result;
+            try {
+                result = compute.apply(source);
+            } catch (RuntimeException | Error e) {
+                remove(key, entry);
+                entry.future.completeExceptionally(e);
+                throw e;
+            }
+            entry.future.complete(result);
+            account(key, entry, 8L * result.getD().length + ENTRY_OVERHEAD);
+            return result;
+        }
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void remove(Key key, CachedResult entry) {
+        lock.lock();
+        try {
+            entries.remove(key, entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record the size of a computed result, and evict the least recently used results while the cache is too big.
+     * The result just computed is kept even if it is bigger than the cache alone.
+     */
+    private void account(Key key, CachedResult entry, long size) {
+        lock.lock();
+        try {
+            if (entries.get(key) != entry) { // dropped because the graph changed
+                return;
+            }
+            entry.bytes = size;
+            bytes += size;
+            Iterator<Map.Entry<Key, CachedResult>> it = entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                var eldest = it.next();
+                var e = eldest.getValue();
+                if (e == entry || e.bytes == 0) { // the result just computed, or a result being computed
+                    continue;
+                }
+                bytes -= e.bytes;
+                it.remove();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop all the cached results.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the estimated memory used by the cached results, in bytes
+     */
+    public long getBytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        lock.lock();
+        try {
+            return hits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getMisses() {
+        lock.lock();
+        try {
+            return misses;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -12,6 +12,14 @@ public class ShortestPathFromAllVertices {
         this.pi = pi;
     }
 
+    public int[][] getD() {
+        return d;
+    }
+
+    public int[][] getPi() {
+        return pi;
+    }
+
     @Override
     public String toString() {
         StringBuilder bf = new StringBuilder();
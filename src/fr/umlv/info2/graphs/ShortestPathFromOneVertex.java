@@ -33,6 +33,10 @@ public class ShortestPathFromOneVertex {
         return res;
     }
 
+    public int getSource() {
+        return source;
+    }
+
     public int[] getD() {
         return d;
     }
@@ -0,0 +1,97 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Transitive closure of a graph, answering in constant time whether a vertex can reach another one.
+ * The closure is computed on the condensation of the graph : each component stores the set of the components it can
+ * reach as a row of bits, which is the union of the rows of its successors. Rows are computed by increasing height,
+ * all the components of a same height in parallel.
+ * The memory used is c*c/8 bytes, where c is the number of strongly connected components of the graph.
+ */
+public class TransitiveClosure {
+    private final int[] component;
+    private final int words; // number of longs per row
+    private final long[] rows;
+
+    private TransitiveClosure(int[] component, int words, long[] rows) {
+        this.component = component;
+        this.words = words;
+        this.rows = rows;
+    }
+
+    static TransitiveClosure of(Graph g, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        var condensation = Condensation.of(g, pool);
+        int count = condensation.count;
+        int words = (count + 63) >>> 6;
+        long[] rows = new long[Math.multiplyExact(count, words)];
+        int[] height = condensation.heights();
+        int maxHeight = 0;
+        for (int h : height) {
+            maxHeight = Math.max(maxHeight, h);
+        }
+        // components grouped by height, with a counting sort
+        int[] start = new int[maxHeight + 2];
+        for (int h : height) {
+            start[h + 1]++;
+        }
+        for (int h = 0 ; h <= maxHeight ; ++h) {
+            start[h + 1] += start[h];
+        }
+        int[] next = new int[maxHeight + 1];
+        System.arraycopy(start, 0, next, 0, maxHeight + 1);
+        int[] byHeight = new int[count];
+        for (int c = 0 ; c < count ; ++c) {
+            byHeight[next[height[c]]++] = c;
+        }
+        for (int h = 0 ; h <= maxHeight ; ++h) {
+            int from = start[h];
+            int to = start[h + 1];
+            pool.submit(() -> IntStream.range(from, to).parallel().forEach(i -> {
+                int c = byHeight[i];
+                int row = c * words;
+                rows[row + (c >>> 6)] |= 1L << c;
+                for (int e = condensation.offsets[c] ; e < condensation.offsets[c + 1] ; ++e) {
+                    int successor = condensation.targets[e] * words;
+                    for (int w = 0 ; w < words ; ++w) {
+                        rows[row + w] |= rows[successor + w];
+                    }
+                }
+            })).join();
+        }
+        return new TransitiveClosure(condensation.component, words, rows);
+    }
+
+    /**
+     * Tell if there is a path from u to v. Every vertex can reach itself.
+     * @param u the starting vertex
+     * @param v the ending vertex
+     * @return true if v can be reached from u
+     */
+    public boolean isReachable(int u, int v) {
+        Objects.checkIndex(u, component.length);
+        Objects.checkIndex(v, component.length);
+        int target = component[v];
+        return (rows[component[u] * words + (target >>> 6)] & (1L << target)) != 0;
+    }
+
+    /**
+     * Count the vertices reachable from u, including u itself.
+     * @param u the starting vertex
+     * @return the number of vertices v such that isReachable(u, v)
+     */
+    public int countReachable(int u) {
+        Objects.checkIndex(u, component.length);
+        int row = component[u] * words;
+        int count = 0;
+        for (int c : component) {
+            if ((rows[row + (c >>> 6)] & (1L << c)) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,95 @@
+package fr.umlv.info2.graphs;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Lazy breadth first and depth first traversals. A vertex is only expanded (its edges scanned) when it is returned by
+ * next(), so stopping the iteration early costs only the part of the graph explored so far. The state is a bitset of
+ * the vertices already seen and an array of vertices, without boxing.
+ */
+final class Traversals {
+    private Traversals() {
+    }
+
+    private static void checkVertex(Graph g, int v0) {
+        if (v0 < 0 || v0 >= g.numberOfVertices()) {
+            throw new IndexOutOfBoundsException("Index of starting vertex is out of bounds");
+        }
+    }
+
+    /**
+     * Breadth first traversal : a queue of vertices, each vertex being marked when it enters the queue.
+     */
+    static PrimitiveIterator.OfInt bfs(Graph g, int v0) {
+        checkVertex(g, v0);
+        long[] seen = new long[(g.numberOfVertices() + 63) >>> 6];
+        var queue = new IntList();
+        queue.add(v0);
+        seen[v0 >>> 6] |= 1L << v0;
+        return new PrimitiveIterator.OfInt() {
+            private int head;
+
+            @Override
+            public boolean hasNext() {
+                return head < queue.size();
+            }
+
+            @Override
+            public int nextInt() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int s = queue.get(head++);
+                g.forEachEdge(s, edge -> {
+                    int t = edge.getEnd();
+                    if ((seen[t >>> 6] & (1L << t)) == 0) {
+                        seen[t >>> 6] |= 1L << t;
+                        queue.add(t);
+                    }
+                });
+                return s;
+            }
+        };
+    }
+
+    /**
+     * Depth first traversal in the same order as Graphs.DFS : a stack of vertices, each vertex being marked when it
+     * is popped for the first time, then pushing its unvisited successors.
+     */
+    static PrimitiveIterator.OfInt dfs(Graph g, int v0) {
+        checkVertex(g, v0);
+        long[] visited = new long[(g.numberOfVertices() + 63) >>> 6];
+        var stack = new IntList();
+        stack.add(v0);
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                while (! stack.isEmpty()) {
+                    int top = stack.get(stack.size() - 1);
+                    if ((visited[top >>> 6] & (1L << top)) == 0) {
+                        return true;
+                    }
+                    stack.removeLast();
+                }
+                return false;
+            }
+
+            @Override
+            public int nextInt() {
+                if (! hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int s = stack.removeLast();
+                visited[s >>> 6] |= 1L << s;
+                g.forEachEdge(s, edge -> {
+                    int t = edge.getEnd();
+                    if ((visited[t >>> 6] & (1L << t)) == 0) {
+                        stack.add(t);
+                    }
+                });
+                return s;
+            }
+        };
+    }
+}
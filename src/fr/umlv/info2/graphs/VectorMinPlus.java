@@ -0,0 +1,70 @@
+package fr.umlv.info2.graphs;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Min-plus row kernels using the Vector API, processing as many columns at once as the preferred vector shape of the
+ * processor holds (8 with AVX2, 16 with AVX-512). Infinity is never added : the lanes where the row of k is infinite
+ * are masked out, and the last columns which do not fill a vector are processed one by one.
+ * This is the only class referencing jdk.incubator.vector. MinPlus only loads it when the module is present, that is
+ * when the JVM was started with --add-modules jdk.incubator.vector.
+ */
+final class VectorMinPlus implements MinPlus.Kernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int INF = Integer.MAX_VALUE;
+
+    /**
+     * @return true if a vector holds more than one int, so that this kernel is worth using
+     */
+    static boolean isSupported() {
+        return SPECIES.length() > 1;
+    }
+
+    @Override
+    public long relax(int[] row, int[] pRow, int dik, int[] kRow, int[] pkRow) {
+        int n = row.length;
+        int bound = SPECIES.loopBound(n);
+        long relaxed = 0;
+        int t = 0;
+        for (; t < bound ; t += SPECIES.length()) {
+            var dkt = IntVector.fromArray(SPECIES, kRow, t);
+            var dst = IntVector.fromArray(SPECIES, row, t);
+            var candidate = dkt.add(dik);
+            VectorMask<Integer> better = candidate.lt(dst).and(dkt.lt(INF));
+            if (better.anyTrue()) {
+                // blend then store the whole vector, masked stores are not compiled to vector instructions by JDK 17
+                dst.blend(candidate, better).intoArray(row, t);
+                IntVector.fromArray(SPECIES, pRow, t).blend(IntVector.fromArray(SPECIES, pkRow, t), better)
+                        .intoArray(pRow, t);
+                relaxed += better.trueCount();
+            }
+        }
+        for (; t < n ; ++t) {
+            if (kRow[t] != INF && row[t] > dik + kRow[t]) {
+                row[t] = dik + kRow[t];
+                pRow[t] = pkRow[t];
+                relaxed++;
+            }
+        }
+        return relaxed;
+    }
+
+    @Override
+    public void minPlus(int[] row, int aik, int[] kRow) {
+        int n = row.length;
+        int bound = SPECIES.loopBound(n);
+        int t = 0;
+        for (; t < bound ; t += SPECIES.length()) {
+            var bkt = IntVector.fromArray(SPECIES, kRow, t);
+            var candidate = bkt.add(aik).blend(INF, bkt.eq(INF));
+            IntVector.fromArray(SPECIES, row, t).min(candidate).intoArray(row, t);
+        }
+        for (; t < n ; ++t) {
+            if (kRow[t] != INF && row[t] > aik + kRow[t]) {
+                row[t] = aik + kRow[t];
+            }
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package fr.umlv.info2.graphs;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Graph keeping multiple versions, so that long computations can read a stable graph while writers add edges.
+ * snapshot() returns in O(1) an immutable Graph : the graph as it was when snapshot() was called, whatever the
+ * edges added afterwards. Readers of a snapshot never take a lock, and writers never wait for readers.
+ *
+ * The graph is made of generations. A generation is a compact base (a CsrGraph) and a delta : an append-only log of
+ * the edges added since the base was built, where the entries of each vertex are chained from the newest to the
+ * oldest. A version is a generation and a length of its log ; a snapshot reads the base and the entries of the log
+ * before its length. When the log reaches a threshold, a compaction builds in the background a new base from the
+ * latest version, then starts a new generation with the entries added during the compaction. Older snapshots
+ * keep their generation, which is garbage collected with them.
+ *
+ * There is at most one edge between two vertices : adding an existing edge replaces its weight.
+ * Writers are serialized by a lock. Reading the VersionedGraph itself reads the latest version.
+ */
+public class VersionedGraph implements Graph {
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 1 << 16;
+
+    private final int n; // number of vertices
+    private final int compactionThreshold;
+    private final Executor executor;
+    private final Object writeLock = new Object();
+    private final Object compactionLock = new Object();
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean();
+    private volatile Version latest;
+
+    /**
+     * Append-only arrays of the delta of a generation, replaced by bigger copies when they are full.
+     */
+    private static final class Log {
+        private final int[] sources;
+        private final int[] targets;
+        private final int[] weights;
+        private final int[] next; // previous entry of the same source, -1 if none
+
+        Log(int capacity) {
+            sources = new int[capacity];
+            targets = new int[capacity];
+            weights = new int[capacity];
+            next = new int[capacity];
+        }
+
+        Log grow() {
+            var log = new Log(Math.max(16, sources.length * 2));
+            System.arraycopy(sources, 0, log.sources, 0, sources.length);
+            System.arraycopy(targets, 0, log.targets, 0, targets.length);
+            System.arraycopy(weights, 0, log.weights, 0, weights.length);
+            System.arraycopy(next, 0, log.next, 0, next.length);
+            return log;
+        }
+    }
+
+    private static final class Generation {
+        private final CsrGraph base;
+        private final AtomicIntegerArray head; // newest entry of each vertex, -1 if none
+        private volatile Log log = new Log(16);
+
+        Generation(CsrGraph base) {
+            this.base = base;
+            int n = base.numberOfVertices();
+            head = new AtomicIntegerArray(n);
+            for (int v = 0 ; v < n ; ++v) {
+                head.set(v, -1);
+            }
+        }
+
+        /**
+         * Append an entry, visible to the versions created afterwards. Called with the write lock.
+         */
+        void append(int index, int i, int j, int value) {
+            var current = log;
+            if (index == current.sources.length) {
+                current = current.grow();
+                log = current;
+            }
+            current.sources[index] = i;
+            current.targets[index] = j;
+            current.weights[index] = value;
+            current.next[index] = head.get(i);
+            head.set(i, index);
+        }
+
+        /**
+         * @return the newest entry of vertex v in the first size entries of the log, or -1
+         */
+        int first(int v, int size) {
+            int e = head.get(v);
+            var current = log; // read after head, so that it contains e
+            while (e >= size) {
+                e = current.next[e];
+            }
+            return e;
+        }
+    }
+
+    private static final class Version {
+        private final Generation generation;
+        private final int size; // number of entries of the log of the generation in this version
+        private final int nbEdges;
+        private final long modCount;
+
+        Version(Generation generation, int size, int nbEdges, long modCount) {
+            this.generation = generation;
+            this.size = size;
+            this.nbEdges = nbEdges;
+            this.modCount = modCount;
+        }
+    }
+
+    /**
+     * Create a graph compacted in the common pool when its delta reaches 65536 edges.
+     * @param nbVertices the number of vertices
+     */
+    public VersionedGraph(int nbVertices) {
+        this(nbVertices, DEFAULT_COMPACTION_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param nbVertices the number of vertices
+     * @param compactionThreshold the size of the delta which triggers a compaction
+     * @param executor the executor running the compactions
+     */
+    public VersionedGraph(int nbVertices, int compactionThreshold, Executor executor) {
+        if (nbVertices <= 0) {
+            throw new IllegalArgumentException("Vertices number should be positive");
+        }
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("Compaction threshold should be positive");
+        }
+        this.n = nbVertices;
+        this.compactionThreshold = compactionThreshold;
+        this.executor = Objects.requireNonNull(executor);
+        var empty = CsrGraph.fromEdges(n, new int[0], new int[0], new int[0]);
+        latest = new Version(new Generation(empty), 0, 0, 0);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("Index " + index + " must be >= 0 and <= " + n);
+        }
+    }
+
+    /**
+     * Return the current version of the graph, in O(1).
+     * @return an immutable graph, which can be read by several threads at once
+     */
+    public Graph snapshot() {
+        return new Snapshot(latest);
+    }
+
+    /**
+     * @return the number of edges in the delta of the current generation, which the next compaction will merge
+     */
+    public int deltaSize() {
+        return latest.size;
+    }
+
+    @Override
+    public void addEdge(int i, int j, int value) {
+        checkIndex(i);
+        checkIndex(j);
+        Version version;
+        synchronized (writeLock) {
+            var current = latest;
+            var snapshot = new Snapshot(current);
+            boolean exists = snapshot.isEdge(i, j);
+            if (exists && snapshot.getWeight(i, j) == value) {
+                return;
+            }
+            current.generation.append(current.size, i, j, value);
+            version = new Version(current.generation, current.size + 1, current.nbEdges + (exists ? 0 : 1),
+                    current.modCount + 1);
+            latest = version;
+        }
+        if (version.size >= compactionThreshold && compactionScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    compact();
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Merge the delta into a new base. Writers and readers are not blocked while the base is built, only while the
+     * edges added meanwhile are moved to the new generation.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            var version = latest;
+            if (version.size == 0) {
+                return;
+            }
+            var snapshot = new Snapshot(version);
+            int[] sources = new int[version.nbEdges];
+            int[] targets = new int[version.nbEdges];
+            int[] weights = new int[version.nbEdges];
+            int index = 0;
+            for (int v = 0 ; v < n ; ++v) {
+                var row = snapshot.row(v);
+                for (int k = 0 ; k < row.length / 2 ; ++k) {
+                    sources[index] = v;
+                    targets[index] = row[2 * k];
+                    weights[index] = row[2 * k + 1];
+                    index++;
+                }
+            }
+            var generation = new Generation(CsrGraph.fromEdges(n, sources, targets, weights));
+            synchronized (writeLock) {
+                var current = latest;
+                var old = current.generation;
+                var log = old.log;
+                int size = 0;
+                for (int e = version.size ; e < current.size ; ++e) {
+                    generation.append(size++, log.sources[e], log.targets[e], log.weights[e]);
+                }
+                latest = new Version(generation, size, current.nbEdges, current.modCount);
+            }
+        }
+    }
+
+    @Override
+    public int numberOfEdges() {
+        return latest.nbEdges;
+    }
+
+    @Override
+    public int numberOfVertices() {
+        return n;
+    }
+
+    @Override
+    public boolean isEdge(int i, int j) {
+        return snapshot().isEdge(i, j);
+    }
+
+    @Override
+    public int getWeight(int i, int j) {
+        return snapshot().getWeight(i, j);
+    }
+
+    @Override
+    public Iterator<Edge> edgeIterator(int i) {
+        return snapshot().edgeIterator(i);
+    }
+
+    @Override
+    public void forEachEdge(int i, Consumer<Edge> consumer) {
+        snapshot().forEachEdge(i, consumer);
+    }
+
+    @Override
+    public long modificationCount() {
+        return latest.modCount;
+    }
+
+    @Override
+    public String toGraphviz() {
+        return snapshot().toGraphviz();
+    }
+
+    /**
+     * Immutable view of one version of the graph.
+     */
+    private static final class Snapshot implements Graph {
+        private final Version version;
+        private final Generation generation;
+        private final int n;
+
+        Snapshot(Version version) {
+            this.version = version;
+            this.generation = version.generation;
+            this.n = generation.base.numberOfVertices();
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= n) {
+                throw new IndexOutOfBoundsException("Index " + index + " must be >= 0 and <= " + n);
+            }
+        }
+
+        /**
+         * @return the index of the newest entry of the delta from i to j, or -1
+         */
+        private int find(int i, int j) {
+            int e = generation.first(i, version.size);
+            var log = generation.log; // read after first, so that it contains e
+            for ( ; e != -1 ; e = log.next[e]) {
+                if (log.targets[e] == j) {
+                    return e;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Merge the delta and the base edges of a vertex, the newest weight of an edge hiding the older ones.
+         * @return the targets and the weights of the edges, interleaved
+         */
+        int[] row(int v) {
+            int first = generation.first(v, version.size);
+            var log = generation.log; // read after first, so that it contains first
+            int count = 0;
+            for (int e = first ; e != -1 ; e = log.next[e]) {
+                count++;
+            }
+            var base = generation.base.toAdjacency();
+            int from = base.offsets[v];
+            int to = base.offsets[v + 1];
+            if (count == 0) {
+                int[] row = new int[2 * (to - from)];
+                for (int k = from ; k < to ; ++k) {
+                    row[2 * (k - from)] = base.targets[k];
+                    row[2 * (k - from) + 1] = base.weights[k];
+                }
+                return row;
+            }
+            // sort the delta entries by target, then from the newest to the oldest, and keep the first of each target
+            long[] entries = new long[count];
+            int order = 0;
+            for (int e = first ; e != -1 ; e = log.next[e]) {
+                entries[order] = ((long) log.targets[e] << 32) | order;
+                order++;
+            }
+            Arrays.sort(entries);
+            int[] deltaTargets = new int[count];
+            int[] deltaOrders = new int[count];
+            int kept = 0;
+            for (long entry : entries) {
+                int target = (int) (entry >>> 32);
+                if (kept == 0 || deltaTargets[kept - 1] != target) {
+                    deltaTargets[kept] = target;
+                    deltaOrders[kept] = (int) entry;
+                    kept++;
+                }
+            }
+            int[] weightsByOrder = new int[count];
+            order = 0;
+            for (int e = first ; e != -1 ; e = log.next[e]) {
+                weightsByOrder[order++] = log.weights[e];
+            }
+            var row = new IntList(2 * (kept + to - from));
+            for (int k = 0 ; k < kept ; ++k) {
+                row.add(deltaTargets[k]);
+                row.add(weightsByOrder[deltaOrders[k]]);
+            }
+            for (int k = from ; k < to ; ++k) {
+                if (Arrays.binarySearch(deltaTargets, 0, kept, base.targets[k]) < 0) {
+                    row.add(base.targets[k]);
+                    row.add(base.weights[k]);
+                }
+            }
+            return row.toArray();
+        }
+
+        @Override
+        public int numberOfEdges() {
+            return version.nbEdges;
+        }
+
+        @Override
+        public int numberOfVertices() {
+            return n;
+        }
+
+        @Override
+        public void addEdge(int i, int j, int value) {
+            throw new UnsupportedOperationException("Snapshot is immutable");
+        }
+
+        @Override
+        public boolean isEdge(int i, int j) {
+            checkIndex(i);
+            checkIndex(j);
+            return find(i, j) != -1 || generation.base.isEdge(i, j);
+        }
+
+        @Override
+        public int getWeight(int i, int j) {
+            checkIndex(i);
+            checkIndex(j);
+            int e = find(i, j);
+            return e != -1 ? generation.log.weights[e] : generation.base.getWeight(i, j);
+        }
+
+        @Override
+        public Iterator<Edge> edgeIterator(int i) {
+            checkIndex(i);
+            int[] row = row(i);
+            return new Iterator<>() {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < row.length;
+                }
+
+                @Override
+                public Edge next() {
+                    if (! hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    var edge = new Edge(i, row[index], row[index + 1]);
+                    index += 2;
+                    return edge;
+                }
+            };
+        }
+
+        @Override
+        public void forEachEdge(int i, Consumer<Edge> consumer) {
+            Objects.requireNonNull(consumer);
+            checkIndex(i);
+            int[] row = row(i);
+            for (int index = 0 ; index < row.length ; index += 2) {
+                consumer.accept(new Edge(i, row[index], row[index + 1]));
+            }
+        }
+
+        @Override
+        public String toGraphviz() {
+            return GraphvizExporter.toGraphviz(this);
+        }
+    }
+}
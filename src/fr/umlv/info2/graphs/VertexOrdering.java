@@ -0,0 +1,338 @@
+package fr.umlv.info2.graphs;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Permutation of the vertices of a graph, used to relabel a graph so that vertices which are close in the graph get
+ * close ids, and so that the traversals of the relabelled graph read memory in a more sequential way.
+ * A permutation is computed by one of the static methods, then apply() builds the relabelled graph, on which the
+ * algorithms of Graphs run unchanged. The toOriginal methods translate their results back to the ids of the
+ * original graph.
+ */
+public class VertexOrdering {
+    private final int[] newId; // new id of each original vertex
+    private final int[] oldId; // original id of each new vertex
+
+    private VertexOrdering(int[] oldId) {
+        this.oldId = oldId;
+        this.newId = new int[oldId.length];
+        for (int v = 0 ; v < oldId.length ; ++v) {
+            newId[oldId[v]] = v;
+        }
+    }
+
+    /**
+     * Build an ordering from an explicit permutation.
+     * @param order the original vertices, in their new order : order[k] gets the new id k
+     * @return the ordering
+     * @throws IllegalArgumentException if order is not a permutation of 0 .. order.length - 1
+     */
+    public static VertexOrdering of(int[] order) {
+        Objects.requireNonNull(order);
+        var seen = new boolean[order.length];
+        for (int v : order) {
+            if (v < 0 || v >= order.length || seen[v]) {
+                throw new IllegalArgumentException("Order should be a permutation of the vertices");
+            }
+            seen[v] = true;
+        }
+        return new VertexOrdering(order.clone());
+    }
+
+    /**
+     * Degrees of the vertices, ignoring the direction of the edges.
+     */
+    private static int[] undirectedDegrees(Adjacency adj, Adjacency reverse) {
+        int[] degree = new int[adj.n];
+        for (int v = 0 ; v < adj.n ; ++v) {
+            degree[v] = adj.degree(v) + reverse.degree(v);
+        }
+        return degree;
+    }
+
+    /**
+     * Order the vertices by decreasing out degree, keeping the original order between vertices of the same degree,
+     * so that the hubs, which are visited the most, share the same cache lines.
+     * @param g : a valid graph
+     * @return the ordering
+     */
+    public static VertexOrdering degreeDescending(Graph g) {
+        var adj = Adjacency.of(g);
+        var order = new Integer[adj.n];
+        for (int v = 0 ; v < adj.n ; ++v) {
+            order[v] = v;
+        }
+        Arrays.sort(order, (u, v) -> Integer.compare(adj.degree(v), adj.degree(u)));
+        return new VertexOrdering(Arrays.stream(order).mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Order the vertices by a breadth first search ignoring the direction of the edges, each connected part starting
+     * from its smallest vertex, so that the neighbours of a vertex get close ids.
+     * @param g : a valid graph
+     * @return the ordering
+     */
+    public static VertexOrdering bfs(Graph g) {
+        var adj = Adjacency.of(g);
+        var reverse = adj.reverse();
+        return new VertexOrdering(bfsOrder(adj, reverse, null, null));
+    }
+
+    /**
+     * Order the vertices with the reverse Cuthill-McKee algorithm, ignoring the direction of the edges : a breadth
+     * first search from a vertex of small degree far from the others (found by repeated searches), visiting the
+     * neighbours of each vertex by increasing degree, then reversed. This keeps the ids of the two ends of each edge
+     * close, which minimizes the bandwidth of the adjacency matrix.
+     * @param g : a valid graph
+     * @return the ordering
+     */
+    public static VertexOrdering reverseCuthillMcKee(Graph g) {
+        var adj = Adjacency.of(g);
+        var reverse = adj.reverse();
+        int[] degree = undirectedDegrees(adj, reverse);
+        int[] order = bfsOrder(adj, reverse, degree, degree);
+        for (int i = 0, j = order.length - 1 ; i < j ; ++i, --j) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return new VertexOrdering(order);
+    }
+
+    /**
+     * Breadth first search over the edges in both directions, covering every vertex.
+     * @param degree if not null, the neighbours of each vertex are visited by increasing degree
+     * @param peripheral if not null, each search starts from a pseudo peripheral vertex of small degree
+     */
+    private static int[] bfsOrder(Adjacency adj, Adjacency reverse, int[] degree, int[] peripheral) {
+        int n = adj.n;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int size = 0;
+        Integer[] starts = new Integer[n];
+        for (int v = 0 ; v < n ; ++v) {
+            starts[v] = v;
+        }
+        if (peripheral != null) {
+            Arrays.sort(starts, (u, v) -> Integer.compare(peripheral[u], peripheral[v]));
+        }
+        var neighbours = new IntList();
+        int[] level = new int[n];
+        Arrays.fill(level, -1);
+        for (int start : starts) {
+            if (visited[start]) {
+                continue;
+            }
+            int root = peripheral != null ? pseudoPeripheral(adj, reverse, start, peripheral, level) : start;
+            visited[root] = true;
+            order[size++] = root;
+            for (int head = size - 1 ; head < size ; ++head) {
+                int s = order[head];
+                neighbours.clear();
+                for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                    neighbours.add(adj.targets[e]);
+                }
+                for (int e = reverse.offsets[s] ; e < reverse.offsets[s + 1] ; ++e) {
+                    neighbours.add(reverse.targets[e]);
+                }
+                int[] next = neighbours.toArray();
+                if (degree != null) {
+                    sortByDegree(next, degree);
+                }
+                for (int t : next) {
+                    if (! visited[t]) {
+                        visited[t] = true;
+                        order[size++] = t;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    private static void sortByDegree(int[] vertices, int[] degree) {
+        long[] keys = new long[vertices.length];
+        for (int k = 0 ; k < vertices.length ; ++k) {
+            keys[k] = ((long) degree[vertices[k]] << 32) | vertices[k];
+        }
+        Arrays.sort(keys);
+        for (int k = 0 ; k < vertices.length ; ++k) {
+            vertices[k] = (int) keys[k];
+        }
+    }
+
+    /**
+     * Find a vertex far from start (George and Liu) : repeat a breadth first search from the vertex of smallest
+     * degree of the last level, as long as the number of levels grows.
+     * @param level an array filled with -1, and left so
+     */
+    private static int pseudoPeripheral(Adjacency adj, Adjacency reverse, int start, int[] degree, int[] level) {
+        int root = start;
+        int levels = -1;
+        var queue = new IntList();
+        while (true) {
+            queue.clear();
+            queue.add(root);
+            level[root] = 0;
+            int last = 0;
+            for (int head = 0 ; head < queue.size() ; ++head) {
+                int s = queue.get(head);
+                last = level[s];
+                for (var a : new Adjacency[] { adj, reverse }) {
+                    for (int e = a.offsets[s] ; e < a.offsets[s + 1] ; ++e) {
+                        int t = a.targets[e];
+                        if (level[t] == -1) {
+                            level[t] = level[s] + 1;
+                            queue.add(t);
+                        }
+                    }
+                }
+            }
+            int best = -1;
+            for (int k = queue.size() - 1 ; k >= 0 && level[queue.get(k)] == last ; --k) {
+                int v = queue.get(k);
+                if (best == -1 || degree[v] < degree[best]) {
+                    best = v;
+                }
+            }
+            for (int k = 0 ; k < queue.size() ; ++k) {
+                level[queue.get(k)] = -1;
+            }
+            if (last <= levels) {
+                return root;
+            }
+            levels = last;
+            root = best;
+        }
+    }
+
+    /**
+     * @return the number of vertices
+     */
+    public int size() {
+        return oldId.length;
+    }
+
+    /**
+     * @param v an original vertex
+     * @return the id of v in the relabelled graph
+     */
+    public int toNew(int v) {
+        return newId[v];
+    }
+
+    /**
+     * @param v a vertex of the relabelled graph
+     * @return the id of v in the original graph
+     */
+    public int toOld(int v) {
+        return oldId[v];
+    }
+
+    /**
+     * Build the relabelled graph, where each edge (s, t) of g becomes (toNew(s), toNew(t)).
+     * @param g : a valid graph, with as many vertices as the ordering
+     * @return the relabelled graph
+     */
+    public CsrGraph apply(Graph g) {
+        var adj = Adjacency.of(g);
+        if (adj.n != size()) {
+            throw new IllegalArgumentException("Graph should have " + size() + " vertices");
+        }
+        int m = adj.numberOfEdges();
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        for (int s = 0 ; s < adj.n ; ++s) {
+            for (int e = adj.offsets[s] ; e < adj.offsets[s + 1] ; ++e) {
+                sources[e] = newId[s];
+                targets[e] = newId[adj.targets[e]];
+            }
+        }
+        return CsrGraph.fromEdges(adj.n, sources, targets, adj.weights.clone());
+    }
+
+    private int oldIdOrSame(int v) {
+        return v < 0 ? v : oldId[v]; // keeps the markers of unreachable vertices
+    }
+
+    /**
+     * Translate a result computed on the relabelled graph to the original ids.
+     * @param result the shortest paths from a vertex of the relabelled graph
+     * @return the same shortest paths, indexed and labelled by original ids
+     */
+    public ShortestPathFromOneVertex toOriginal(ShortestPathFromOneVertex result) {
+        int[] d = result.getD();
+        int[] pi = result.getPi();
+        int[] od = new int[d.length];
+        int[] opi = new int[pi.length];
+        for (int v = 0 ; v < d.length ; ++v) {
+            od[v] = d[newId[v]];
+            opi[v] = oldIdOrSame(pi[newId[v]]);
+        }
+        return new ShortestPathFromOneVertex(oldId[result.getSource()], od, opi);
+    }
+
+    /**
+     * Translate a result computed on the relabelled graph to the original ids.
+     * @param result the shortest paths between all pairs of vertices of the relabelled graph
+     * @return the same shortest paths, indexed and labelled by original ids
+     */
+    public ShortestPathFromAllVertices toOriginal(ShortestPathFromAllVertices result) {
+        int[][] d = result.getD();
+        int[][] pi = result.getPi();
+        int n = d.length;
+        int[][] od = new int[n][n];
+        int[][] opi = new int[n][n];
+        for (int s = 0 ; s < n ; ++s) {
+            for (int t = 0 ; t < n ; ++t) {
+                od[s][t] = d[newId[s]][newId[t]];
+                opi[s][t] = oldIdOrSame(pi[newId[s]][newId[t]]);
+            }
+        }
+        return new ShortestPathFromAllVertices(od, opi);
+    }
+
+    /**
+     * Translate lists of vertices, like the strongly connected components returned by Graphs.scc, to the original
+     * ids. Each list is sorted by increasing id.
+     * @param lists lists of vertices of the relabelled graph
+     * @return the same lists of original vertices
+     */
+    public List<List<Integer>> toOriginal(List<List<Integer>> lists) {
+        var result = new ArrayList<List<Integer>>(lists.size());
+        for (var list : lists) {
+            var translated = new ArrayList<Integer>(list.size());
+            for (int v : list) {
+                translated.add(oldId[v]);
+            }
+            Collections.sort(translated);
+            result.add(translated);
+        }
+        return result;
+    }
+
+    /**
+     * Translate a value per vertex, like the component ids returned by Graphs.parallelScc or the distances of
+     * Graphs.multiSourceBFS, to the original ids. The values themselves are unchanged.
+     * @param values the value of each vertex of the relabelled graph
+     * @return the value of each original vertex
+     */
+    public int[] toOriginal(int[] values) {
+        int[] result = new int[values.length];
+        for (int v = 0 ; v < values.length ; ++v) {
+            result[v] = values[newId[v]];
+        }
+        return result;
+    }
+
+    /**
+     * @return the original vertices, in their new order
+     */
+    public int[] toArray() {
+        return oldId.clone();
+    }
+}
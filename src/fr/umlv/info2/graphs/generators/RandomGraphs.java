@@ -0,0 +1,337 @@
+package fr.umlv.info2.graphs.generators;
+
+import fr.umlv.info2.graphs.CsrGraph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded random graph generators, producing sparse CsrGraph objects.
+ * Generation is split into a fixed number of chunks, each one drawing from its own SplittableRandom, split from
+ * the seed in a fixed order. The chunks run in parallel, but the graph generated only depends on the seed and on the
+ * parameters, never on the number of threads.
+ * Weights are drawn uniformly between 1 and maxWeight. Self loops are allowed, as in Graph.createRandomGraph.
+ */
+public final class RandomGraphs {
+    private static final int CHUNKS = 256;
+
+    private RandomGraphs() {
+    }
+
+    private static void checkArguments(int n, int maxWeight) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Number of vertices should be positive");
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight should be positive");
+        }
+    }
+
+    private static SplittableRandom[] split(long seed, int chunks) {
+        var root = new SplittableRandom(seed);
+        var randoms = new SplittableRandom[chunks];
+        for (int i = 0 ; i < chunks ; ++i) {
+            randoms[i] = root.split();
+        }
+        return randoms;
+    }
+
+    /**
+     * Generate an Erdos-Renyi G(n, m) graph : m distinct edges chosen uniformly among the n*n possible ones.
+     * Positions are drawn in parallel, sorted and deduplicated, and the surplus is removed at random, which keeps
+     * the choice uniform. When m is more than half of n*n, the missing edges are drawn instead.
+     * @param n         number of vertices
+     * @param m         number of edges
+     * @param maxWeight maximum weight of an edge
+     * @param seed      seed of the generator
+     * @return the random graph created
+     * @throws IllegalArgumentException if n is not positive, or if m is not between 0 and n*n
+     */
+    public static CsrGraph gnm(int n, int m, int maxWeight, long seed) {
+        checkArguments(n, maxWeight);
+        long total = (long) n * n;
+        if (m < 0 || m > total) {
+            throw new IllegalArgumentException("Number of edges should be between 0 and n*n");
+        }
+        var randoms = split(seed, CHUNKS + 1);
+        boolean complement = m > total / 2;
+        int wanted = (int) (complement ? total - m : m);
+        long[] positions = distinctPositions(total, wanted, randoms);
+        long[] edges;
+        if (complement) {
+            edges = new long[m];
+            int next = 0;
+            int skip = 0;
+            for (long p = 0 ; p < total ; ++p) {
+                if (skip < positions.length && positions[skip] == p) {
+                    skip++;
+                } else {
+                    edges[next++] = p;
+                }
+            }
+        } else {
+            edges = positions;
+        }
+        int[] sources = new int[edges.length];
+        int[] targets = new int[edges.length];
+        int[] weights = new int[edges.length];
+        int chunk = (edges.length + CHUNKS - 1) / CHUNKS;
+        IntStream.range(0, CHUNKS).parallel().forEach(c -> {
+            var random = randoms[c];
+            for (int k = c * chunk ; k < Math.min(edges.length, (c + 1) * chunk) ; ++k) {
+                sources[k] = (int) (edges[k] / n);
+                targets[k] = (int) (edges[k] % n);
+                weights[k] = 1 + random.nextInt(maxWeight);
+            }
+        });
+        return CsrGraph.fromEdges(n, sources, targets, weights);
+    }
+
+    /**
+     * Draw 'wanted' distinct positions uniformly in [0, total), sorted by increasing order.
+     */
+    private static long[] distinctPositions(long total, int wanted, SplittableRandom[] randoms) {
+        long[] positions = new long[0];
+        while (positions.length < wanted) {
+            int missing = wanted - positions.length;
+            // draw a bit more than needed, so that duplicates rarely require another round
+            int draw = (int) Math.min(Integer.MAX_VALUE - 8, missing + (long) (missing * 0.05) + 16);
+            long[] drawn = new long[positions.length + draw];
+            System.arraycopy(positions, 0, drawn, 0, positions.length);
+            int offset = positions.length;
+            int chunk = (draw + CHUNKS - 1) / CHUNKS;
+            IntStream.range(0, CHUNKS).parallel().forEach(c -> {
+                var random = randoms[c];
+                for (int k = c * chunk ; k < Math.min(draw, (c + 1) * chunk) ; ++k) {
+                    drawn[offset + k] = random.nextLong(total);
+                }
+            });
+            Arrays.parallelSort(drawn);
+            int distinct = 0;
+            for (int k = 0 ; k < drawn.length ; ++k) {
+                if (distinct == 0 || drawn[k] != drawn[distinct - 1]) {
+                    drawn[distinct++] = drawn[k];
+                }
+            }
+            positions = Arrays.copyOf(drawn, distinct);
+        }
+        if (positions.length > wanted) {
+            // a uniform subset of a uniform set of distinct positions is still uniform
+            var random = randoms[CHUNKS];
+            for (int i = 0 ; i < wanted ; ++i) {
+                int j = i + random.nextInt(positions.length - i);
+                long tmp = positions[i];
+                positions[i] = positions[j];
+                positions[j] = tmp;
+            }
+            positions = Arrays.copyOf(positions, wanted);
+            Arrays.parallelSort(positions);
+        }
+        return positions;
+    }
+
+    /**
+     * Generate an Erdos-Renyi G(n, p) graph : each of the n*n possible edges is present with probability p.
+     * Instead of drawing a number per possible edge, the gap to the next present edge of a row is drawn from a
+     * geometric distribution, which takes a time proportional to the number of edges generated. Rows are split
+     * between the chunks.
+     * @param n         number of vertices
+     * @param p         probability of each edge
+     * @param maxWeight maximum weight of an edge
+     * @param seed      seed of the generator
+     * @return the random graph created
+     * @throws IllegalArgumentException if n is not positive or if p is not between 0 and 1
+     */
+    public static CsrGraph gnp(int n, double p, int maxWeight, long seed) {
+        checkArguments(n, maxWeight);
+        if (! (p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("Probability should be between 0 and 1");
+        }
+        var randoms = split(seed, CHUNKS);
+        int rows = (n + CHUNKS - 1) / CHUNKS;
+        var chunks = new int[CHUNKS][][];
+        double logQ = Math.log1p(-p);
+        IntStream.range(0, CHUNKS).parallel().forEach(c -> {
+            var random = randoms[c];
+            var sources = new GrowableIntArray();
+            var targets = new GrowableIntArray();
+            var weights = new GrowableIntArray();
+            for (int s = c * rows ; s < Math.min(n, (c + 1) * rows) ; ++s) {
+                if (p == 0) {
+                    continue;
+                }
+                int t = -1;
+                while (true) {
+                    // number of absent edges before the next present one
+                    double skip = p == 1 ? 0 : Math.floor(Math.log(1 - random.nextDouble()) / logQ);
+                    if (t + 1 + skip >= n) {
+                        break;
+                    }
+                    t += 1 + (int) skip;
+                    sources.add(s);
+                    targets.add(t);
+                    weights.add(1 + random.nextInt(maxWeight));
+                }
+            }
+            chunks[c] = new int[][] { sources.toArray(), targets.toArray(), weights.toArray() };
+        });
+        return concat(n, chunks);
+    }
+
+    /**
+     * Generate an R-MAT graph (Chakrabarti, Zhan and Faloutsos) with 2^scale vertices : each edge is placed by
+     * recursively choosing one of the four quarters of the adjacency matrix with probabilities a, b, c and
+     * 1 - a - b - c. This gives the skewed degrees and the communities of real world graphs.
+     * Edges drawn twice are merged, so the graph may have slightly less than m edges.
+     * @param scale     logarithm in base 2 of the number of vertices
+     * @param m         number of edges drawn
+     * @param a         probability of the top left quarter
+     * @param b         probability of the top right quarter
+     * @param c         probability of the bottom left quarter
+     * @param maxWeight maximum weight of an edge
+     * @param seed      seed of the generator
+     * @return the random graph created
+     * @throws IllegalArgumentException if scale is not between 1 and 30, if m is negative or if the probabilities
+     * are not valid
+     */
+    public static CsrGraph rmat(int scale, int m, double a, double b, double c, int maxWeight, long seed) {
+        if (scale < 1 || scale > 30) {
+            throw new IllegalArgumentException("Scale should be between 1 and 30");
+        }
+        int n = 1 << scale;
+        checkArguments(n, maxWeight);
+        if (m < 0) {
+            throw new IllegalArgumentException("Number of edges should be positive");
+        }
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1) {
+            throw new IllegalArgumentException("Probabilities should be positive and their sum should be at most 1");
+        }
+        var randoms = split(seed, CHUNKS);
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int chunk = (m + CHUNKS - 1) / CHUNKS;
+        double ab = a + b;
+        double abc = a + b + c;
+        IntStream.range(0, CHUNKS).parallel().forEach(k -> {
+            var random = randoms[k];
+            for (int e = k * chunk ; e < Math.min(m, (k + 1) * chunk) ; ++e) {
+                int s = 0;
+                int t = 0;
+                for (int bit = scale - 1 ; bit >= 0 ; --bit) {
+                    double r = random.nextDouble();
+                    if (r >= abc) {
+                        s |= 1 << bit;
+                        t |= 1 << bit;
+                    } else if (r >= ab) {
+                        s |= 1 << bit;
+                    } else if (r >= a) {
+                        t |= 1 << bit;
+                    }
+                }
+                sources[e] = s;
+                targets[e] = t;
+                weights[e] = 1 + random.nextInt(maxWeight);
+            }
+        });
+        return CsrGraph.fromEdges(n, sources, targets, weights);
+    }
+
+    /**
+     * Same as rmat(scale, m, a, b, c, maxWeight, seed) with the probabilities of the Graph500 benchmark
+     * (a = 0.57, b = 0.19, c = 0.19).
+     */
+    public static CsrGraph rmat(int scale, int m, int maxWeight, long seed) {
+        return rmat(scale, m, 0.57, 0.19, 0.19, maxWeight, seed);
+    }
+
+    /**
+     * Generate a Barabasi-Albert preferential attachment graph : each vertex v adds d edges from v to older
+     * vertices, chosen with a probability proportional to their degree.
+     * Following Batagelj and Brandes, the ends of the edges form a list where each vertex appears once per incident
+     * edge, and the target of an edge is a uniform position of the list before it. As proposed by Sanders and
+     * Schulz, the random position of each edge is a hash of its index : the target of any edge can then be found
+     * without generating the previous ones, by following the positions back to a source, and the edges are
+     * generated in parallel.
+     * Since the position of the source of an edge is also a candidate, self loops may appear, and edges drawn twice
+     * are merged, so the graph may have slightly less than n * d edges.
+     * @param n         number of vertices
+     * @param d         number of edges added by each vertex
+     * @param maxWeight maximum weight of an edge
+     * @param seed      seed of the generator
+     * @return the random graph created
+     * @throws IllegalArgumentException if n or d is not positive, or if n * d is too large
+     */
+    public static CsrGraph barabasiAlbert(int n, int d, int maxWeight, long seed) {
+        checkArguments(n, maxWeight);
+        if (d <= 0) {
+            throw new IllegalArgumentException("Number of edges per vertex should be positive");
+        }
+        long total = (long) n * d;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Number of edges is too large");
+        }
+        int m = (int) total;
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        IntStream.range(0, m).parallel().forEach(e -> {
+            sources[e] = e / d;
+            long position = 2L * e + 1;
+            // position 2i is the source of edge i, position 2i + 1 its target
+            while ((position & 1) == 1) {
+                long i = position >>> 1;
+                position = Long.remainderUnsigned(mix(seed, i), 2 * i + 1);
+            }
+            targets[e] = (int) ((position >>> 1) / d);
+            weights[e] = 1 + (int) Long.remainderUnsigned(mix(seed ^ 0x5DEECE66DL, e), maxWeight);
+        });
+        return CsrGraph.fromEdges(n, sources, targets, weights);
+    }
+
+    /**
+     * Hash of an index, used as its random number (finalizer of SplitMix64).
+     */
+    private static long mix(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static CsrGraph concat(int n, int[][][] chunks) {
+        int m = 0;
+        for (int[][] chunk : chunks) {
+            m += chunk[0].length;
+        }
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int offset = 0;
+        for (int[][] chunk : chunks) {
+            int length = chunk[0].length;
+            System.arraycopy(chunk[0], 0, sources, offset, length);
+            System.arraycopy(chunk[1], 0, targets, offset, length);
+            System.arraycopy(chunk[2], 0, weights, offset, length);
+            offset += length;
+        }
+        return CsrGraph.fromEdges(n, sources, targets, weights);
+    }
+
+    private static final class GrowableIntArray {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.AlgorithmStats;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlgorithmStatsTest {
+
+    @Test
+    void shouldCountDijkstraOperations() throws IOException {
+        var g = Graph.loadGraph("data/5vertices_dijkstra.mat", "matrix");
+        var stats = new AlgorithmStats();
+        var shortest = Graphs.dijkstra(g, 0, stats);
+        assertArrayEquals(Graphs.dijkstra(g, 0).getD(), shortest.getD());
+        assertEquals("dijkstra", stats.getAlgorithm());
+        assertEquals(5, stats.getVerticesSettled());
+        assertEquals(g.numberOfEdges(), stats.getEdgesScanned());
+        assertTrue(stats.getEdgesRelaxed() >= 4);
+        assertEquals(0, stats.getHeapOperations()); // the minimum is found by a linear scan
+        assertEquals(List.of("initialization", "main loop"), List.copyOf(stats.getPhaseNanos().keySet()));
+        assertTrue(stats.getTotalNanos() > 0);
+    }
+
+    @Test
+    void shouldResetStatsOnReuse() throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "list");
+        var stats = new AlgorithmStats();
+        Graphs.floydWarshall(g, stats);
+        assertEquals(8, stats.getVerticesSettled());
+        assertEquals(64 * 8, stats.getEdgesScanned());
+        Graphs.bellmanFord(g, 0, stats);
+        assertEquals("bellmanFord", stats.getAlgorithm());
+        assertEquals(7, stats.getFrontiers());
+        assertTrue(stats.getMaxFrontierSize() > 0);
+        assertTrue(stats.getTotalFrontierSize() <= stats.getEdgesRelaxed());
+        assertEquals(7L * g.numberOfEdges(), stats.getEdgesScanned());
+        assertEquals(List.of("initialization", "relaxation", "negative cycle check"),
+                List.copyOf(stats.getPhaseNanos().keySet()));
+    }
+
+    @Test
+    void shouldCountDeltaSteppingOperations() {
+        var g = Graph.createRandomGraph(50, 300);
+        var stats = new AlgorithmStats();
+        Graphs.deltaStepping(g, 0, 3, ForkJoinPool.commonPool(), stats);
+        int reachable = 0;
+        for (int d : Graphs.dijkstra(g, 0).getD()) {
+            if (d != Integer.MAX_VALUE) {
+                reachable++;
+            }
+        }
+        assertEquals(reachable, stats.getVerticesSettled());
+        assertTrue(stats.getFrontiers() > 0);
+        assertTrue(stats.getMaxFrontierSize() > 0);
+        assertTrue(stats.getPhaseNanos().containsKey("light edges"));
+    }
+
+    @Test
+    void shouldEndStatsWhenAlgorithmFails() throws IOException {
+        var g = Graph.loadGraph("data/6vertices_shortest2.mat", "list"); // contains a negative cycle
+        var stats = new AlgorithmStats();
+        assertThrows(IllegalStateException.class, () -> Graphs.bellmanFord(g, 0, stats));
+        assertEquals("bellmanFord", stats.getAlgorithm());
+        assertTrue(stats.getTotalNanos() > 0);
+        var negative = new AdjGraph(2);
+        negative.addEdge(0, 1, -1);
+        var deltaStats = new AlgorithmStats();
+        assertThrows(IllegalArgumentException.class,
+                () -> Graphs.deltaStepping(negative, 0, 1, ForkJoinPool.commonPool(), deltaStats));
+        assertEquals("deltaStepping", deltaStats.getAlgorithm());
+        assertTrue(deltaStats.getTotalNanos() > 0);
+    }
+}
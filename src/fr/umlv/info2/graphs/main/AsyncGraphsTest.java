@@ -0,0 +1,91 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AsyncGraphs;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncGraphsTest {
+
+    @Test
+    void shouldComputeSameResultsAsynchronously() throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "list");
+        assertArrayEquals(Graphs.dijkstra(g, 0).getD(), AsyncGraphs.dijkstra(g, 0).join().getD());
+        assertArrayEquals(Graphs.bellmanFord(g, 0).getD(), AsyncGraphs.bellmanFord(g, 0).join().getD());
+        assertEquals(Graphs.floydWarshall(g).toString(), AsyncGraphs.floydWarshall(g).join().toString());
+    }
+
+    @Test
+    void shouldReportProgress() throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "matrix");
+        var steps = new ArrayList<Long>();
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            AsyncGraphs.floydWarshall(g, executor, (done, total) -> {
+                assertEquals(8, total);
+                steps.add(done);
+            }).join();
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), steps);
+    }
+
+    @Test
+    void shouldFailOnNegativeCycle() throws IOException {
+        var g = Graph.loadGraph("data/6vertices_shortest2.mat", "list");
+        g.addEdge(1, 0, -100);
+        g.addEdge(0, 1, -100);
+        var e = assertThrows(CompletionException.class, () -> AsyncGraphs.bellmanFord(g, 0).join());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void shouldStopOnCancel() throws InterruptedException {
+        var g = RandomGraphs.gnm(600, 20000, 100, 3);
+        var executor = Executors.newSingleThreadExecutor();
+        var started = new CountDownLatch(1);
+        var lastStep = new long[1];
+        try {
+            var future = AsyncGraphs.floydWarshall(g, executor, (done, total) -> {
+                lastStep[0] = done;
+                started.countDown();
+            });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            assertTrue(future.cancel(true));
+            assertThrows(CancellationException.class, future::join);
+        } finally {
+            executor.shutdown();
+        }
+        // the computation gives the thread back after at most one more step
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(lastStep[0] < 600);
+    }
+
+    @Test
+    void shouldStopAtDeadline() throws InterruptedException {
+        var g = RandomGraphs.gnm(1500, 100000, 100, 4);
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var future = AsyncGraphs.floydWarshall(g, executor, null).orTimeout(50, TimeUnit.MILLISECONDS);
+            var e = assertThrows(CompletionException.class, future::join);
+            assertInstanceOf(TimeoutException.class, e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,94 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.BatchShortestPaths;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.PathAnswer;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchShortestPathsTest {
+
+    private static void assertValidPath(Graph g, PathAnswer answer) {
+        int[] path = answer.getPath();
+        assertEquals(answer.getSource(), path[0]);
+        assertEquals(answer.getDestination(), path[path.length - 1]);
+        int length = 0;
+        for (int k = 0 ; k + 1 < path.length ; ++k) {
+            assertTrue(g.isEdge(path[k], path[k + 1]));
+            length += g.getWeight(path[k], path[k + 1]);
+        }
+        assertEquals(answer.getDistance(), length);
+    }
+
+    @Test
+    void shouldMatchDijkstraOnRandomBatch() {
+        var g = RandomGraphs.gnm(500, 4000, 50, 7);
+        var random = new Random(3);
+        int[] sources = new int[2000];
+        int[] destinations = new int[2000];
+        for (int i = 0 ; i < sources.length ; ++i) {
+            sources[i] = random.nextInt(20);
+            destinations[i] = random.nextInt(500);
+        }
+        try (var engine = new BatchShortestPaths(g, 3)) {
+            var answers = engine.query(sources, destinations).join();
+            for (int i = 0 ; i < sources.length ; ++i) {
+                var expected = Graphs.dijkstra(g, sources[i]).getD()[destinations[i]];
+                assertEquals(sources[i], answers[i].getSource());
+                assertEquals(destinations[i], answers[i].getDestination());
+                assertEquals(expected, answers[i].getDistance());
+                if (answers[i].isReachable()) {
+                    assertValidPath(g, answers[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldAnswerSingleQueryOnCallerExecutor() throws IOException {
+        var g = Graph.loadGraph("data/5vertices_dijkstra.mat", "list");
+        var executor = Executors.newSingleThreadExecutor();
+        try (var engine = new BatchShortestPaths(g, executor)) {
+            var answer = engine.query(0, 4).join();
+            assertEquals(Graphs.dijkstra(g, 0).getD()[4], answer.getDistance());
+            assertValidPath(g, answer);
+            var self = engine.query(2, 2).join();
+            assertEquals(0, self.getDistance());
+            assertArrayEquals(new int[] { 2 }, self.getPath());
+        }
+        assertFalse(executor.isShutdown());
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldReportUnreachableDestination() {
+        var g = new AdjGraph(3);
+        g.addEdge(0, 1, 4);
+        try (var engine = new BatchShortestPaths(g, 1)) {
+            var answer = engine.query(0, 2).join();
+            assertFalse(answer.isReachable());
+            assertEquals(Integer.MAX_VALUE, answer.getDistance());
+            assertEquals(0, answer.getPath().length);
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidQueries() throws IOException {
+        var g = Graph.loadGraph("data/6vertices_shortest2.mat", "list");
+        assertThrows(IllegalArgumentException.class, () -> new BatchShortestPaths(g, 1));
+        var h = Graph.loadGraph("data/5vertices_dijkstra.mat", "list");
+        assertThrows(IllegalArgumentException.class, () -> new BatchShortestPaths(h, 0));
+        try (var engine = new BatchShortestPaths(h, 1)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> engine.query(0, 5));
+            assertThrows(IllegalArgumentException.class, () -> engine.query(new int[] { 0 }, new int[0]));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Betweenness;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BetweennessTest {
+
+    /**
+     * Betweenness from its definition : count the shortest paths between every pair, then sum the fractions going
+     * through each vertex.
+     */
+    private static double[] naive(Graph g, boolean weighted) {
+        int n = g.numberOfVertices();
+        var d = new int[n][];
+        var sigma = new double[n][n];
+        for (int s = 0 ; s < n ; ++s) {
+            if (weighted) {
+                d[s] = Graphs.dijkstra(g, s).getD();
+            } else {
+                var unit = new AdjGraph(n);
+                for (int v = 0 ; v < n ; ++v) {
+                    g.forEachEdge(v, e -> unit.addEdge(e.getStart(), e.getEnd(), 1));
+                }
+                d[s] = Graphs.dijkstra(unit, s).getD();
+            }
+            int[] ds = d[s];
+            var byDistance = IntStream.range(0, n).filter(v -> ds[v] != Integer.MAX_VALUE).boxed()
+                    .sorted(Comparator.comparingInt(v -> ds[v])).mapToInt(Integer::intValue).toArray();
+            sigma[s][s] = 1;
+            for (int v : byDistance) {
+                int source = s;
+                g.forEachEdge(v, e -> {
+                    int w = weighted ? e.getValue() : 1;
+                    if (e.getEnd() != v && ds[v] + w == ds[e.getEnd()]) {
+                        sigma[source][e.getEnd()] += sigma[source][v];
+                    }
+                });
+            }
+        }
+        var result = new double[n];
+        for (int s = 0 ; s < n ; ++s) {
+            for (int t = 0 ; t < n ; ++t) {
+                if (s == t || d[s][t] == Integer.MAX_VALUE) {
+                    continue;
+                }
+                for (int v = 0 ; v < n ; ++v) {
+                    if (v != s && v != t && d[s][v] != Integer.MAX_VALUE && d[v][t] != Integer.MAX_VALUE
+                            && (long) d[s][v] + d[v][t] == d[s][t]) {
+                        result[v] += sigma[s][v] * sigma[v][t] / sigma[s][t];
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    void shouldMatchDefinition() throws IOException {
+        for (var file : new String[] { "data/9vertices_scc.mat", "data/8vertices_shortest.mat",
+                "data/7vertices_traversal.mat", "data/14edges_acyclic.mat" }) {
+            var g = Graph.loadGraph(file, "list");
+            assertArrayEquals(naive(g, false), Betweenness.unweighted(g), 1e-9, file);
+            assertArrayEquals(naive(g, true), Betweenness.weighted(g), 1e-9, file);
+        }
+        for (long seed = 0 ; seed < 4 ; ++seed) {
+            var g = RandomGraphs.gnm(60, 200, 3, seed);
+            assertArrayEquals(naive(g, false), Betweenness.unweighted(g), 1e-9);
+            assertArrayEquals(naive(g, true), Betweenness.weighted(g), 1e-9);
+        }
+    }
+
+    @Test
+    void shouldCountPathsOfSmallGraphs() {
+        var g = new AdjGraph(4); // two shortest paths from 0 to 3, through 1 and through 2
+        g.addEdge(0, 1, 1);
+        g.addEdge(0, 2, 1);
+        g.addEdge(1, 3, 1);
+        g.addEdge(2, 3, 1);
+        assertArrayEquals(new double[] { 0, 0.5, 0.5, 0 }, Betweenness.unweighted(g), 1e-12);
+        g.addEdge(2, 1, 1);
+        assertArrayEquals(new double[] { 0, 0.5, 0.5, 0 }, Betweenness.unweighted(g), 1e-12);
+        var weighted = new AdjGraph(4);
+        weighted.addEdge(0, 1, 1);
+        weighted.addEdge(0, 2, 5);
+        weighted.addEdge(1, 3, 1);
+        weighted.addEdge(2, 3, 1);
+        weighted.addEdge(1, 2, 1);
+        assertArrayEquals(new double[] { 0, 2, 0, 0 }, Betweenness.weighted(weighted), 1e-12);
+    }
+
+    @Test
+    void shouldGiveSameResultWithAnyParallelism() {
+        var g = RandomGraphs.gnm(400, 2000, 10, 9);
+        var sequential = new ForkJoinPool(1);
+        var parallel = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(Betweenness.compute(g, true, 400, 0, sequential),
+                    Betweenness.compute(g, true, 400, 0, parallel), 1e-6);
+            assertArrayEquals(Betweenness.compute(g, false, 400, 0, sequential),
+                    Betweenness.compute(g, false, 400, 0, parallel), 1e-6);
+        } finally {
+            sequential.shutdown();
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void approximationShouldBeCloseToExactValues() {
+        var g = RandomGraphs.barabasiAlbert(500, 3, 1, 2);
+        var exact = Betweenness.unweighted(g);
+        var approximate = Betweenness.approximate(g, false, 250, 1);
+        assertArrayEquals(exact, Betweenness.approximate(g, false, 500, 1), 1e-6);
+        int top = IntStream.range(0, 500).boxed().max(Comparator.comparingDouble(v -> exact[v])).orElseThrow();
+        assertEquals(exact[top], approximate[top], exact[top] * 0.25);
+        double total = 0;
+        double totalApproximate = 0;
+        for (int v = 0 ; v < 500 ; ++v) {
+            total += exact[v];
+            totalApproximate += approximate[v];
+        }
+        assertEquals(total, totalApproximate, total * 0.1);
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        var g = new AdjGraph(3);
+        g.addEdge(0, 1, 0);
+        assertThrows(IllegalArgumentException.class, () -> Betweenness.weighted(g));
+        assertArrayEquals(new double[3], Betweenness.unweighted(g));
+        assertThrows(IllegalArgumentException.class, () -> Betweenness.approximate(g, false, 4, 0));
+        assertThrows(IllegalArgumentException.class, () -> Betweenness.approximate(g, false, 0, 0));
+    }
+}
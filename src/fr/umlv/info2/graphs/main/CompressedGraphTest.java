@@ -0,0 +1,73 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.CompressedGraph;
+import fr.umlv.info2.graphs.CsrGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.VertexOrdering;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressedGraphTest {
+
+    private static void assertSameEdges(Graph expected, Graph actual) {
+        assertEquals(expected.numberOfVertices(), actual.numberOfVertices());
+        assertEquals(expected.numberOfEdges(), actual.numberOfEdges());
+        for (int v = 0 ; v < expected.numberOfVertices() ; ++v) {
+            var expectedEdges = new ArrayList<String>();
+            var edges = new ArrayList<String>();
+            expected.forEachEdge(v, e -> expectedEdges.add(e.toString()));
+            actual.forEachEdge(v, e -> edges.add(e.toString()));
+            expectedEdges.sort(null);
+            edges.sort(null);
+            assertEquals(expectedEdges, edges);
+        }
+    }
+
+    @Test
+    void shouldKeepEdgesAndWeights() throws IOException {
+        var g = Graph.loadGraph("data/6vertices_shortest2.mat", "list");
+        var compressed = CompressedGraph.copyOf(g);
+        assertSameEdges(g, compressed);
+        for (int s = 0 ; s < 6 ; ++s) {
+            for (int t = 0 ; t < 6 ; ++t) {
+                assertEquals(g.isEdge(s, t), compressed.isEdge(s, t));
+                assertEquals(g.getWeight(s, t), compressed.getWeight(s, t));
+            }
+        }
+        assertThrows(UnsupportedOperationException.class, () -> compressed.addEdge(0, 1, 1));
+    }
+
+    @Test
+    void shouldEncodeLargeGapsAndWeights() {
+        int n = 1 << 20;
+        var g = CsrGraph.fromEdges(n, new int[] { 0, 0, n - 1, 5, 5 }, new int[] { n - 1, 3, 0, 4, 6 },
+                new int[] { Integer.MAX_VALUE, -7, Integer.MIN_VALUE, 300, -300 });
+        var compressed = CompressedGraph.copyOf(g);
+        assertSameEdges(g, compressed);
+        assertEquals(Integer.MIN_VALUE, compressed.getWeight(n - 1, 0));
+        assertEquals(2, compressed.degree(0));
+        var it = compressed.edgeIterator(5);
+        assertEquals(4, it.next().getEnd());
+        assertEquals(6, it.next().getEnd());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void shouldRunAlgorithmsWithLessMemory() {
+        var g = RandomGraphs.rmat(12, 40000, 20, 3);
+        var reordered = VertexOrdering.reverseCuthillMcKee(g).apply(g);
+        var compressed = CompressedGraph.copyOf(reordered);
+        assertSameEdges(reordered, compressed);
+        long flat = 8L * reordered.numberOfEdges() + 4L * reordered.numberOfVertices(); // int targets and weights
+        assertTrue(compressed.memoryBytes() * 3 <= flat);
+        assertEquals(Graphs.BFS(reordered, 0), Graphs.BFS(compressed, 0));
+        assertEquals(Graphs.DFS(reordered, 0), Graphs.DFS(compressed, 0));
+        assertArrayEquals(Graphs.dijkstra(reordered, 0).getD(), Graphs.dijkstra(compressed, 0).getD());
+    }
+}
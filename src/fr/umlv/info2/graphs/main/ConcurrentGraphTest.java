@@ -0,0 +1,104 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.ConcurrentGraph;
+import fr.umlv.info2.graphs.Graphs;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentGraphTest {
+
+    @Test
+    void shouldBehaveLikeAdjGraph() {
+        var g = new ConcurrentGraph(4, 3);
+        g.addEdge(0, 1, 2);
+        g.addEdge(1, 3, 1);
+        g.addEdge(1, 3, 1);
+        assertEquals(2, g.numberOfEdges());
+        assertEquals(2, g.modificationCount());
+        g.addEdge(1, 3, 5); // replaces the weight
+        assertEquals(2, g.numberOfEdges());
+        assertEquals(3, g.modificationCount());
+        assertEquals(5, g.getWeight(1, 3));
+        assertTrue(g.isEdge(0, 1));
+        assertFalse(g.isEdge(1, 0));
+        assertEquals(0, g.getWeight(1, 0));
+        assertEquals(1, g.degree(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.addEdge(0, 4, 1));
+        assertArrayEquals(new int[] { 0, 2, Integer.MAX_VALUE, 7 }, Graphs.dijkstra(g, 0).getD());
+    }
+
+    @Test
+    void shouldFindEdgesOfHighDegreeVertex() {
+        int n = 1000;
+        var g = new ConcurrentGraph(n, 1);
+        for (int j = n - 3 ; j > 0 ; j -= 3) { // enough successors to index the targets of 0
+            g.addEdge(0, j, j);
+        }
+        g.addEdge(0, 1, 7); // replaces the weight of an indexed edge
+        assertEquals(333, g.degree(0));
+        for (int j = 0 ; j < n ; ++j) {
+            boolean edge = j % 3 == 1;
+            assertEquals(edge, g.isEdge(0, j));
+            assertEquals(edge ? (j == 1 ? 7 : j) : 0, g.getWeight(0, j));
+        }
+        g.addEdge(0, 3, 1);
+        assertEquals(334, g.degree(0));
+        assertEquals(1, g.getWeight(0, 3));
+    }
+
+    @Test
+    void shouldKeepAllEdgesAddedByConcurrentProducers() throws InterruptedException, ExecutionException {
+        int n = 200;
+        int producers = 4;
+        var g = new ConcurrentGraph(n, 8);
+        var executor = Executors.newFixedThreadPool(producers + 1);
+        var done = new AtomicBoolean();
+        try {
+            // a reader checks that it never sees a half written edge
+            Future<Integer> reader = executor.submit(() -> {
+                int reads = 0;
+                while (! done.get()) {
+                    for (int v = 0 ; v < n ; ++v) {
+                        g.forEachEdge(v, e -> assertEquals(e.getStart() + e.getEnd(), e.getValue()));
+                    }
+                    reads++;
+                }
+                return reads;
+            });
+            var tasks = new ArrayList<Callable<Void>>();
+            for (int p = 0 ; p < producers ; ++p) {
+                int producer = p;
+                tasks.add(() -> {
+                    for (int s = 0 ; s < n ; ++s) {
+                        for (int t = producer ; t < n ; t += producers) {
+                            g.addEdge(s, t, s + t);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+            done.set(true);
+            assertTrue(reader.get() > 0);
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(n * n, g.numberOfEdges());
+        for (int s = 0 ; s < n ; ++s) {
+            assertEquals(n, g.degree(s));
+            for (int t = 0 ; t < n ; ++t) {
+                assertEquals(s + t, g.getWeight(s, t));
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.AlgorithmStats;
+import fr.umlv.info2.graphs.ContractionHierarchy;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContractionHierarchyTest {
+
+    private static void checkAnswers(Graph g, ContractionHierarchy ch, int step) {
+        int n = g.numberOfVertices();
+        for (int s = 0 ; s < n ; s += step) {
+            var d = Graphs.dijkstra(g, s).getD();
+            for (int t = 0 ; t < n ; ++t) {
+                var answer = ch.query(s, t);
+                assertEquals(d[t], answer.getDistance(), s + " -> " + t);
+                var path = answer.getPath();
+                if (! answer.isReachable()) {
+                    assertEquals(0, path.length);
+                    continue;
+                }
+                assertEquals(s, path[0]);
+                assertEquals(t, path[path.length - 1]);
+                int length = 0;
+                for (int i = 0 ; i + 1 < path.length ; ++i) {
+                    assertTrue(g.isEdge(path[i], path[i + 1]));
+                    length += g.getWeight(path[i], path[i + 1]);
+                }
+                assertEquals(d[t], length);
+            }
+        }
+    }
+
+    @Test
+    void shouldMatchDijkstraOnRandomGraphs() {
+        for (long seed = 0 ; seed < 3 ; ++seed) {
+            var g = RandomGraphs.gnm(200, 700, 20, seed);
+            checkAnswers(g, ContractionHierarchy.of(g), 17);
+        }
+    }
+
+    @Test
+    void shouldMatchDijkstraOnDataFiles() throws IOException {
+        for (var file : new String[] { "data/5vertices_dijkstra.mat", "data/8vertices_shortest.mat",
+                "data/9vertices_scc.mat" }) {
+            var g = Graph.loadGraph(file, "list");
+            checkAnswers(g, ContractionHierarchy.of(g), 1);
+        }
+    }
+
+    @Test
+    void shouldSettleFewVerticesOnRoadGraphs() {
+        var g = RoadGraphs.roadGrid(60, 60, 1);
+        var ch = ContractionHierarchy.of(g);
+        checkAnswers(g, ch, 397);
+        var stats = new AlgorithmStats();
+        var random = new Random(2);
+        long settled = 0;
+        for (int q = 0 ; q < 50 ; ++q) {
+            ch.query(random.nextInt(3600), random.nextInt(3600), stats);
+            settled += stats.getVerticesSettled();
+        }
+        assertTrue(settled / 50 < 400, settled / 50 + " settled vertices per query");
+        assertTrue(ch.numberOfShortcuts() < 4 * g.numberOfEdges());
+    }
+
+    @Test
+    void shouldHandleDisconnectedGraphsAndLoops() {
+        var g = new AdjGraph(5);
+        g.addEdge(0, 0, 3);
+        g.addEdge(0, 1, 2);
+        g.addEdge(1, 2, 2);
+        g.addEdge(0, 2, 5);
+        g.addEdge(3, 4, 0);
+        var ch = ContractionHierarchy.of(g);
+        assertEquals(4, ch.query(0, 2).getDistance());
+        assertArrayEquals(new int[] { 0, 1, 2 }, ch.query(0, 2).getPath());
+        assertEquals(0, ch.query(3, 4).getDistance());
+        assertFalse(ch.query(2, 0).isReachable());
+        assertFalse(ch.query(0, 4).isReachable());
+        assertArrayEquals(new int[] { 1 }, ch.query(1, 1).getPath());
+    }
+
+    @Test
+    void shouldSaveAndLoad(@TempDir Path dir) throws IOException {
+        var g = RoadGraphs.roadGrid(20, 20, 3);
+        var ch = ContractionHierarchy.of(g);
+        var file = dir.resolve("graph.ch");
+        ch.save(file);
+        var loaded = ContractionHierarchy.load(g, file);
+        assertEquals(ch.numberOfShortcuts(), loaded.numberOfShortcuts());
+        for (int v = 0 ; v < 400 ; ++v) {
+            assertEquals(ch.rank(v), loaded.rank(v));
+            assertArrayEquals(ch.query(7, v).getPath(), loaded.query(7, v).getPath());
+        }
+        assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.load(RoadGraphs.roadGrid(20, 20, 4), file));
+        Files.write(file, new byte[] { 0x47, 0x43, 0x48, 0x31, 0, 0 });
+        assertThrows(IOException.class, () -> ContractionHierarchy.load(g, file));
+    }
+
+    @Test
+    void shouldRejectCorruptedFile(@TempDir Path dir) throws IOException {
+        var g = RoadGraphs.roadGrid(10, 10, 3);
+        var file = dir.resolve("graph.ch");
+        ContractionHierarchy.of(g).save(file);
+        var bytes = Files.readAllBytes(file);
+        int upOffsets = 24 + 4 * 100;
+        int upTargets = upOffsets + 4 * 101;
+        // a rank out of range, decreasing offsets, a target out of range, then a middle out of range
+        int ups = ByteBuffer.wrap(bytes).getInt(16);
+        for (int[] change : new int[][] { { 24, 100 }, { upOffsets + 4, 1 << 20 }, { upTargets, -1 },
+                { upTargets + 8 * ups, 100 } }) {
+            var corrupted = bytes.clone();
+            ByteBuffer.wrap(corrupted).putInt(change[0], change[1]);
+            Files.write(file, corrupted);
+            assertThrows(IOException.class, () -> ContractionHierarchy.load(g, file));
+        }
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> ContractionHierarchy.load(g, file));
+    }
+
+    @Test
+    void shouldRejectNegativeWeights() {
+        var g = new AdjGraph(2);
+        g.addEdge(0, 1, -1);
+        assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.of(g));
+    }
+}
@@ -0,0 +1,132 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.DurableGraph;
+import fr.umlv.info2.graphs.Graphs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurableGraphTest {
+
+    @Test
+    void shouldRecoverEdgesFromLog(@TempDir Path dir) throws IOException {
+        try (var g = DurableGraph.open(dir, 4)) {
+            g.addEdge(0, 1, 2);
+            g.addEdge(1, 2, 3);
+            g.addEdge(0, 1, 5); // replaces the weight
+            assertEquals(3, g.logSize());
+        }
+        try (var g = DurableGraph.open(dir, 4)) {
+            assertEquals(2, g.numberOfEdges());
+            assertEquals(5, g.getWeight(0, 1));
+            assertArrayEquals(new int[] { 0, 5, 8, Integer.MAX_VALUE }, Graphs.dijkstra(g, 0).getD());
+            assertThrows(IllegalArgumentException.class, () -> DurableGraph.open(dir, 5));
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornRecord(@TempDir Path dir) throws IOException {
+        try (var g = DurableGraph.open(dir, 4)) {
+            g.addEdge(0, 1, 2);
+            g.addEdge(2, 3, 1);
+        }
+        // a crash in the middle of a write leaves a partial or corrupted record
+        Files.write(dir.resolve("edges.log"), new byte[] { 0, 0, 0, 1, 0, 0, 0, 2, 0, 0, 0, 9, 1, 2, 3, 4, 0, 0 },
+                StandardOpenOption.APPEND);
+        try (var g = DurableGraph.open(dir, 4)) {
+            assertEquals(2, g.numberOfEdges());
+            assertFalse(g.isEdge(1, 2));
+            g.addEdge(3, 0, 4);
+        }
+        try (var g = DurableGraph.open(dir, 4)) {
+            assertEquals(3, g.numberOfEdges());
+            assertEquals(4, g.getWeight(3, 0));
+        }
+    }
+
+    @Test
+    void shouldSnapshotAndEmptyLog(@TempDir Path dir) throws IOException {
+        try (var g = DurableGraph.open(dir, 30, 50)) {
+            for (int k = 0 ; k < 120 ; ++k) {
+                g.addEdge(k % 30, (k * 7) % 30, k + 1);
+            }
+            assertEquals(20, g.logSize());
+            assertTrue(Files.exists(dir.resolve("snapshot.bin")));
+        }
+        try (var g = DurableGraph.open(dir, 30, 50)) {
+            for (int k = 0 ; k < 120 ; ++k) {
+                int last = k;
+                for (int l = k ; l < 120 ; l += 30) {
+                    last = l;
+                }
+                assertEquals(last + 1, g.getWeight(k % 30, (k * 7) % 30));
+            }
+            g.checkpoint();
+            assertEquals(0, g.logSize());
+        }
+    }
+
+    @Test
+    void shouldRejectTruncatedSnapshot(@TempDir Path dir) throws IOException {
+        try (var g = DurableGraph.open(dir, 4)) {
+            g.addEdge(0, 1, 2);
+            g.addEdge(1, 2, 3);
+            g.addEdge(2, 3, 4);
+            g.checkpoint();
+        }
+        var snapshot = dir.resolve("snapshot.bin");
+        var bytes = Files.readAllBytes(snapshot);
+        for (int size : new int[] { 12, 30 }) { // header alone, then a record cut in the middle
+            var truncated = new byte[size];
+            System.arraycopy(bytes, 0, truncated, 0, size);
+            Files.write(snapshot, truncated);
+            var e = assertThrows(IOException.class, () -> DurableGraph.open(dir, 4));
+            assertTrue(e.getMessage().startsWith("Snapshot is truncated"));
+        }
+    }
+
+    @Test
+    void shouldCommitConcurrentWritersInGroups(@TempDir Path dir)
+            throws IOException, InterruptedException, ExecutionException {
+        int writers = 4;
+        var executor = Executors.newFixedThreadPool(writers);
+        try (var g = DurableGraph.open(dir, 100)) {
+            var tasks = new ArrayList<Callable<Void>>();
+            for (int w = 0 ; w < writers ; ++w) {
+                int writer = w;
+                tasks.add(() -> {
+                    for (int s = writer ; s < 100 ; s += writers) {
+                        for (int t = 0 ; t < 20 ; ++t) {
+                            g.addEdge(s, t, s + t + 1);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (var future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try (var g = DurableGraph.open(dir, 100)) {
+            assertEquals(2000, g.numberOfEdges());
+            assertEquals(2000, g.logSize());
+            for (int s = 0 ; s < 100 ; ++s) {
+                for (int t = 0 ; t < 20 ; ++t) {
+                    assertEquals(s + t + 1, g.getWeight(s, t));
+                }
+            }
+        }
+    }
+}
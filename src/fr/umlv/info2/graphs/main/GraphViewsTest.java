@@ -0,0 +1,153 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Edge;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.GraphViews;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.MatGraph;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphViewsTest {
+
+    private static List<String> edges(Graph g) {
+        var list = new ArrayList<String>();
+        for (int i = 0 ; i < g.numberOfVertices() ; ++i) {
+            g.forEachEdge(i, e -> list.add(e.getStart() + "->" + e.getEnd() + ":" + e.getValue()));
+        }
+        var iterated = new ArrayList<String>();
+        for (int i = 0 ; i < g.numberOfVertices() ; ++i) {
+            g.edgeIterator(i).forEachRemaining(e -> iterated.add(e.getStart() + "->" + e.getEnd() + ":" + e.getValue()));
+        }
+        assertEquals(list, iterated);
+        assertEquals(list.size(), g.numberOfEdges());
+        return list;
+    }
+
+    /**
+     * Copy of g with the given edges only, as done before the views.
+     */
+    private static Graph copy(Graph g, int n, GraphViews.EdgePredicate predicate, int[] rename) {
+        var result = new MatGraph(n);
+        for (int i = 0 ; i < g.numberOfVertices() ; ++i) {
+            g.forEachEdge(i, e -> {
+                if (predicate.test(e.getStart(), e.getEnd(), e.getValue())) {
+                    result.addEdge(rename[e.getStart()], rename[e.getEnd()], e.getValue());
+                }
+            });
+        }
+        return result;
+    }
+
+    private static int[] identity(int n) {
+        int[] id = new int[n];
+        for (int i = 0 ; i < n ; ++i) {
+            id[i] = i;
+        }
+        return id;
+    }
+
+    @Test
+    void inducedShouldMatchCopy() {
+        var g = RandomGraphs.gnm(60, 400, 1, 9);
+        var set = new BitSet();
+        for (int v = 0 ; v < 60 ; v += 3) {
+            set.set(v);
+            set.set(v + 1);
+        }
+        var view = GraphViews.induced(g, set);
+        var expected = copy(g, 60, (s, t, w) -> set.get(s) && set.get(t), identity(60));
+        assertEquals(edges(expected), edges(view));
+        assertEquals(40, view.size());
+        assertFalse(view.contains(2));
+        for (int i = 0 ; i < 60 ; ++i) {
+            for (int j = 0 ; j < 60 ; ++j) {
+                assertEquals(expected.isEdge(i, j), view.isEdge(i, j));
+                assertEquals(expected.getWeight(i, j), view.getWeight(i, j));
+            }
+        }
+        assertArrayEquals(Graphs.dijkstra(expected, 0).getD(), Graphs.dijkstra(view, 0).getD());
+    }
+
+    @Test
+    void denseViewShouldRenumberVertices() {
+        var g = RandomGraphs.gnm(50, 300, 1, 9);
+        var set = new BitSet();
+        set.set(5, 15);
+        set.set(40, 45);
+        var view = GraphViews.induced(g, set);
+        var dense = view.dense();
+        assertSame(dense, view.dense());
+        assertEquals(15, dense.numberOfVertices());
+        assertEquals(10, view.toDense(40));
+        assertEquals(-1, view.toDense(20));
+        assertEquals(44, view.toOriginal(14));
+        int[] rename = new int[50];
+        for (int v = 0 ; v < 50 ; ++v) {
+            rename[v] = Math.max(0, view.toDense(v));
+        }
+        var expected = copy(g, 15, (s, t, w) -> set.get(s) && set.get(t), rename);
+        assertEquals(edges(expected), edges(dense));
+        assertTrue(dense.isEdge(0, 1) == g.isEdge(5, 6));
+        assertThrows(IndexOutOfBoundsException.class, () -> dense.isEdge(15, 0));
+    }
+
+    @Test
+    void filteredShouldKeepLightEdges() throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "matrix");
+        var view = GraphViews.filtered(g, (s, t, w) -> w <= 3);
+        var expected = copy(g, 8, (s, t, w) -> w <= 3, identity(8));
+        assertEquals(edges(expected), edges(view));
+        for (int i = 0 ; i < 8 ; ++i) {
+            for (int j = 0 ; j < 8 ; ++j) {
+                assertEquals(expected.getWeight(i, j), view.getWeight(i, j));
+            }
+        }
+        var cpy = Graphs.dijkstra(expected, 0);
+        var res = Graphs.dijkstra(view, 0);
+        assertArrayEquals(cpy.getD(), res.getD());
+    }
+
+    @Test
+    void reversedShouldFollowUnderlyingGraph() {
+        var g = new AdjGraph(4);
+        g.addEdge(0, 1, 2);
+        g.addEdge(0, 2, 3);
+        g.addEdge(2, 1, 5);
+        var reversed = GraphViews.reversed(g);
+        assertSame(g, GraphViews.reversed(reversed));
+        assertSame(g, reversed.transpose());
+        assertEquals(List.of("1->0:2", "1->2:5", "2->0:3"), edges(reversed));
+        assertTrue(reversed.isEdge(1, 2));
+        assertEquals(3, reversed.getWeight(2, 0));
+        g.addEdge(3, 0, 7);
+        assertEquals(List.of("0->3:7", "1->0:2", "1->2:5", "2->0:3"), edges(reversed));
+        assertThrows(UnsupportedOperationException.class, () -> reversed.addEdge(1, 0, 1));
+    }
+
+    @Test
+    void sccShouldRunOnViewsWithoutCopy() throws IOException {
+        var g = Graph.loadGraph("data/9vertices_scc.mat", "matrix");
+        var all = new BitSet();
+        all.set(0, 9);
+        var view = GraphViews.induced(g, all);
+        assertEquals(Graphs.scc(g), Graphs.scc(view));
+        var t = view.transpose();
+        for (int i = 0 ; i < 9 ; ++i) {
+            for (int j = 0 ; j < 9 ; ++j) {
+                assertEquals(g.isEdge(j, i), t.isEdge(i, j));
+            }
+        }
+        var edges = new ArrayList<Edge>();
+        t.forEachEdge(0, edges::add);
+        edges.forEach(e -> assertTrue(g.isEdge(e.getEnd(), 0)));
+    }
+}
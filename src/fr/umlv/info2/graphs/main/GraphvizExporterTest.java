@@ -0,0 +1,87 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.GraphvizExporter;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphvizExporterTest {
+
+    private static long count(String text, String pattern) {
+        return text.lines().filter(line -> line.contains(pattern)).count();
+    }
+
+    @Test
+    void shouldWriteSameTextAsToGraphviz() throws IOException {
+        for (var type : new String[] { "matrix", "list" }) {
+            var g = Graph.loadGraph("data/8vertices_shortest.mat", type);
+            var writer = new StringWriter();
+            new GraphvizExporter().write(g, writer);
+            assertEquals(g.toGraphviz(), writer.toString());
+            var out = new ByteArrayOutputStream();
+            new GraphvizExporter().write(g, Channels.newChannel(out));
+            assertEquals(g.toGraphviz(), out.toString(StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void shouldStreamLargeGraphThroughChannel() throws IOException {
+        var g = RandomGraphs.gnm(5000, 50000, 100, 1);
+        var out = new ByteArrayOutputStream();
+        new GraphvizExporter().write(g, Channels.newChannel(out));
+        assertEquals(g.toGraphviz(), out.toString(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void shouldCapAndSampleEdges() throws IOException {
+        var g = RandomGraphs.gnm(1000, 20000, 10, 2);
+        var writer = new StringWriter();
+        new GraphvizExporter().maxEdges(100).write(g, writer);
+        var text = writer.toString();
+        assertEquals(100, count(text, "->"));
+        assertTrue(text.contains("// truncated after 100 edges"));
+        assertTrue(text.endsWith("}\n"));
+        var sampled = new StringWriter();
+        new GraphvizExporter().sample(0.1, 7).write(g, sampled);
+        long edges = count(sampled.toString(), "->");
+        assertTrue(edges > 1500 && edges < 2500, "sampled " + edges);
+        var again = new StringWriter();
+        new GraphvizExporter().sample(0.1, 7).write(g, again);
+        assertEquals(sampled.toString(), again.toString());
+        assertThrows(IllegalArgumentException.class, () -> new GraphvizExporter().sample(2, 0));
+    }
+
+    @Test
+    void shouldWriteCondensation() throws IOException {
+        var g = Graph.loadGraph("data/9vertices_scc.mat", "list");
+        var writer = new StringWriter();
+        new GraphvizExporter().writeCondensation(g, writer);
+        var text = writer.toString();
+        assertTrue(text.startsWith("digraph G {\n"));
+        assertTrue(count(text, "label") < 9);
+        assertTrue(count(text, "->") > 0);
+    }
+
+    @Test
+    void shouldWriteNeighbourhood() throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "list");
+        var writer = new StringWriter();
+        new GraphvizExporter().writeNeighbourhood(g, 0, 1, writer);
+        var text = writer.toString();
+        assertTrue(text.contains("\t0 [ style=bold ] ;\n"));
+        for (int v = 1 ; v < 8 ; ++v) {
+            boolean neighbour = g.isEdge(0, v) || g.isEdge(v, 0);
+            assertEquals(neighbour, text.contains("\t" + v + ";\n"));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> new GraphvizExporter().writeNeighbourhood(g, 8, 1,
+                new StringWriter()));
+    }
+}
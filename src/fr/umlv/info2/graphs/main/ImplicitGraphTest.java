@@ -0,0 +1,89 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.ImplicitGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImplicitGraphTest {
+
+    @Test
+    void gridShouldMatchMaterialisedGraph() {
+        int width = 7;
+        int height = 5;
+        var implicit = ImplicitGraph.grid(width, height);
+        var adj = new AdjGraph(width * height);
+        for (int v = 0 ; v < width * height ; ++v) {
+            implicit.forEachEdge(v, e -> adj.addEdge(e.getStart(), e.getEnd(), e.getValue()));
+        }
+        assertEquals(35, implicit.numberOfVertices());
+        assertEquals(2 * (6 * 5 + 7 * 4), implicit.numberOfEdges());
+        assertEquals(adj.numberOfEdges(), implicit.numberOfEdges());
+        assertTrue(implicit.isEdge(0, 1));
+        assertTrue(implicit.isEdge(0, 7));
+        assertFalse(implicit.isEdge(6, 7));
+        assertEquals(1, implicit.getWeight(8, 15));
+        assertEquals(0, implicit.getWeight(0, 34));
+        assertEquals(Graphs.BFS(adj, 0), Graphs.BFS(implicit, 0));
+        assertEquals(Graphs.DFS(adj, 3), Graphs.DFS(implicit, 3));
+        var d = Graphs.dijkstra(implicit, 0).getD();
+        for (int v = 0 ; v < width * height ; ++v) {
+            assertEquals(v % width + v / width, d[v]);
+        }
+    }
+
+    @Test
+    void shouldTraverseLargeGridLazily() {
+        var grid = ImplicitGraph.grid(10_000, 10_000);
+        var first = Graphs.bfsStream(grid, 0).limit(6).boxed().collect(Collectors.toList());
+        assertEquals(List.of(0, 1, 10_000, 2, 10_001, 20_000), first);
+        assertEquals(1_000_000, Graphs.bfsStream(ImplicitGraph.grid(1_000, 1_000), 0).count());
+    }
+
+    @Test
+    void cacheShouldAvoidCallingGenerator() {
+        var calls = new AtomicInteger();
+        var g = new ImplicitGraph(100, (v, callback) -> {
+            calls.incrementAndGet();
+            callback.accept((v + 1) % 100, v);
+            callback.accept((v * 7) % 100, 2 * v);
+        }, 10);
+        assertEquals(3, g.getWeight(3, 4));
+        assertEquals(6, g.getWeight(3, 21));
+        assertTrue(g.isEdge(3, 21));
+        var targets = new ArrayList<Integer>();
+        g.forEachSuccessor(3, (target, weight) -> targets.add(target));
+        g.edgeIterator(3).forEachRemaining(e -> targets.add(e.getEnd()));
+        assertEquals(List.of(4, 21, 4, 21), targets);
+        assertEquals(1, calls.get());
+        for (int v = 10 ; v < 30 ; ++v) {
+            g.isEdge(v, 0);
+        }
+        assertEquals(21, calls.get());
+        g.isEdge(3, 4); // evicted
+        assertEquals(22, calls.get());
+    }
+
+    @Test
+    void shouldRejectInvalidUses() {
+        var g = new ImplicitGraph(3, (v, callback) -> callback.accept(v + 1, 1), 4);
+        assertThrows(UnsupportedOperationException.class, () -> g.addEdge(0, 1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.isEdge(2, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.edgeIterator(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.isEdge(-1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.getWeight(3, 0));
+        var uncached = new ImplicitGraph(3, (v, callback) -> callback.accept(v + 1, 1));
+        var e = assertThrows(IndexOutOfBoundsException.class, () -> uncached.forEachSuccessor(2, (t, w) -> {}));
+        assertTrue(e.getMessage().startsWith("Generator gave edge 2 -> 3"));
+        assertThrows(IllegalArgumentException.class, () -> new ImplicitGraph(0, (v, callback) -> {}));
+        assertThrows(IllegalArgumentException.class, () -> ImplicitGraph.grid(0, 3));
+        assertEquals(0, g.modificationCount());
+    }
+}
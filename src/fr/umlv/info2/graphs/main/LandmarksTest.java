@@ -0,0 +1,147 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.AlgorithmStats;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.Landmarks;
+import fr.umlv.info2.graphs.MatGraph;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandmarksTest {
+
+    private static void checkPath(Graph g, int[] path, int distance) {
+        int length = 0;
+        for (int i = 0 ; i + 1 < path.length ; ++i) {
+            assertTrue(g.isEdge(path[i], path[i + 1]));
+            length += g.getWeight(path[i], path[i + 1]);
+        }
+        assertEquals(distance, length);
+    }
+
+    @Test
+    void shouldMatchDijkstra() {
+        var g = RandomGraphs.gnm(300, 1200, 20, 5);
+        for (var landmarks : new Landmarks[] { Landmarks.farthest(g, 4), Landmarks.avoid(g, 4, 1) }) {
+            assertEquals(4, landmarks.size());
+            for (int s = 0 ; s < 300 ; s += 37) {
+                var d = Graphs.dijkstra(g, s).getD();
+                for (int t = 0 ; t < 300 ; t += 7) {
+                    var answer = landmarks.query(s, t);
+                    assertEquals(d[t], answer.getDistance());
+                    if (answer.isReachable()) {
+                        checkPath(g, answer.getPath(), d[t]);
+                        assertEquals(s, answer.getPath()[0]);
+                    } else {
+                        assertEquals(0, answer.getPath().length);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void tablesShouldHoldDistances() {
+        var g = RandomGraphs.gnm(100, 500, 9, 2);
+        var landmarks = Landmarks.of(g, new int[] { 3, 50 });
+        var from = Graphs.dijkstra(g, 50).getD();
+        for (int v = 0 ; v < 100 ; ++v) {
+            assertEquals(from[v], landmarks.distanceFrom(1, v));
+            assertEquals(Graphs.dijkstra(g, v).getD()[3], landmarks.distanceTo(0, v));
+        }
+    }
+
+    @Test
+    void shouldSettleFewerVerticesThanDijkstra() {
+        var g = RoadGraphs.roadGrid(80, 80, 7);
+        var landmarks = Landmarks.avoid(g, 8, 3);
+        var random = new Random(11);
+        long alt = 0;
+        long dijkstra = 0;
+        var stats = new AlgorithmStats();
+        for (int q = 0 ; q < 20 ; ++q) {
+            int s = random.nextInt(6400);
+            int t = random.nextInt(6400);
+            var d = Graphs.dijkstra(g, s).getD();
+            for (int v = 0 ; v < 6400 ; ++v) {
+                if (d[v] <= d[t]) {
+                    dijkstra++; // settled by a Dijkstra search stopping at t
+                }
+            }
+            assertEquals(d[t], landmarks.query(s, t, stats).getDistance());
+            alt += stats.getVerticesSettled();
+        }
+        assertTrue(alt * 5 < dijkstra, alt + " settled vertices, " + dijkstra + " without landmarks");
+    }
+
+    @Test
+    void shouldHandleUnreachableVertices() {
+        var g = new MatGraph(6);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, 1);
+        g.addEdge(3, 4, 2);
+        g.addEdge(4, 5, 2);
+        var landmarks = Landmarks.farthest(g, 2);
+        assertEquals(2, landmarks.query(0, 2).getDistance());
+        assertEquals(4, landmarks.query(3, 5).getDistance());
+        assertFalse(landmarks.query(0, 5).isReachable());
+        assertFalse(landmarks.query(2, 0).isReachable());
+        assertEquals(0, landmarks.query(4, 4).getDistance());
+    }
+
+    @Test
+    void shouldSaveAndLoad(@TempDir Path dir) throws IOException {
+        var g = RandomGraphs.gnm(200, 800, 9, 4);
+        var landmarks = Landmarks.farthest(g, 3);
+        var file = dir.resolve("graph.alt");
+        landmarks.save(file);
+        assertEquals(20 + 4 * 3 + 2 * 4 * 200 * 3, Files.size(file));
+        var loaded = Landmarks.load(g, file);
+        assertArrayEquals(landmarks.getLandmarks(), loaded.getLandmarks());
+        for (int v = 0 ; v < 200 ; ++v) {
+            assertEquals(landmarks.distanceTo(2, v), loaded.distanceTo(2, v));
+            assertEquals(landmarks.query(0, v).getDistance(), loaded.query(0, v).getDistance());
+        }
+        assertThrows(IllegalArgumentException.class, () -> Landmarks.load(RandomGraphs.gnm(200, 800, 9, 5), file));
+        Files.write(file, new byte[] { 1, 2, 3 });
+        assertThrows(IOException.class, () -> Landmarks.load(g, file));
+    }
+
+    @Test
+    void shouldRejectCorruptedFile(@TempDir Path dir) throws IOException {
+        var g = RandomGraphs.gnm(50, 200, 9, 4);
+        var file = dir.resolve("graph.alt");
+        Landmarks.farthest(g, 2).save(file);
+        var bytes = Files.readAllBytes(file);
+        // a landmark out of range, then a negative distance
+        for (int[] change : new int[][] { { 20, 50 }, { 28 + 4 * 7, -1 } }) {
+            var corrupted = bytes.clone();
+            ByteBuffer.wrap(corrupted).putInt(change[0], change[1]);
+            Files.write(file, corrupted);
+            assertThrows(IOException.class, () -> Landmarks.load(g, file));
+        }
+        Files.write(file, Arrays.copyOf(bytes, bytes.length + 4));
+        assertThrows(IOException.class, () -> Landmarks.load(g, file));
+    }
+
+    @Test
+    void shouldRejectInvalidArguments() {
+        var g = new AdjGraph(3);
+        g.addEdge(0, 1, -1);
+        assertThrows(IllegalArgumentException.class, () -> Landmarks.farthest(g, 1));
+        assertThrows(IllegalArgumentException.class, () -> Landmarks.avoid(new AdjGraph(3), 4, 0));
+        var landmarks = Landmarks.of(new AdjGraph(3), new int[] { 1 });
+        assertThrows(IndexOutOfBoundsException.class, () -> landmarks.query(3, 0));
+    }
+}
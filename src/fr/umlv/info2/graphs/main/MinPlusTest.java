@@ -0,0 +1,98 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.MinPlus;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MinPlusTest {
+
+    private static List<MinPlus> kernels() {
+        return MinPlus.best().isVectorized() ? List.of(MinPlus.scalar(), MinPlus.vectorized())
+                : List.of(MinPlus.scalar());
+    }
+
+    @Test
+    void shouldUseVectorApiWhenAvailable() {
+        // the tests run with --add-modules jdk.incubator.vector
+        assertTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+        assertTrue(MinPlus.best().isVectorized());
+        assertFalse(MinPlus.scalar().isVectorized());
+    }
+
+    @Test
+    void floydWarshallShouldMatchGraphs() throws IOException {
+        for (var file : new String[] { "data/4vertices_shortest1.mat", "data/5vertices_shortest.mat",
+                "data/6vertices_shortest1.mat", "data/8vertices_shortest.mat" }) {
+            var g = Graph.loadGraph(file, "matrix");
+            var expected = Graphs.floydWarshall(g);
+            for (var kernel : kernels()) {
+                var result = kernel.floydWarshall(g);
+                assertTrue(Arrays.deepEquals(expected.getD(), result.getD()), file);
+                assertTrue(Arrays.deepEquals(expected.getPi(), result.getPi()), file);
+            }
+        }
+        for (int n : new int[] { 31, 64, 77, 300 }) {
+            var g = RandomGraphs.gnm(n, 4 * n, 50, n);
+            var expected = Graphs.floydWarshall(g);
+            for (var kernel : kernels()) {
+                var result = kernel.floydWarshall(g);
+                assertTrue(Arrays.deepEquals(expected.getD(), result.getD()), "n = " + n);
+                assertTrue(Arrays.deepEquals(expected.getPi(), result.getPi()), "n = " + n);
+            }
+        }
+    }
+
+    @Test
+    void repeatedSquaringShouldGiveDistances() {
+        for (int n : new int[] { 1, 2, 19, 100 }) {
+            var g = RandomGraphs.gnm(n, Math.min(n * (n - 1), 3 * n), 30, 7);
+            var expected = Graphs.floydWarshall(g).getD();
+            for (var kernel : kernels()) {
+                assertTrue(Arrays.deepEquals(expected, kernel.allPairsDistances(g)), "n = " + n);
+            }
+        }
+    }
+
+    @Test
+    void multiplyShouldSaturateInfinity() {
+        int inf = Integer.MAX_VALUE;
+        int[][] a = new int[20][20];
+        int[][] b = new int[20][20];
+        for (int i = 0 ; i < 20 ; ++i) {
+            Arrays.fill(a[i], inf);
+            Arrays.fill(b[i], inf);
+        }
+        a[0][3] = 5;
+        b[3][17] = 2;
+        b[3][18] = -1;
+        a[4][4] = 1;
+        for (var kernel : kernels()) {
+            var c = kernel.multiply(a, b);
+            assertEquals(7, c[0][17]);
+            assertEquals(4, c[0][18]);
+            assertEquals(inf, c[0][16]);
+            assertEquals(inf, c[4][17]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> MinPlus.scalar().multiply(a, new int[3][3]));
+    }
+
+    @Test
+    void shouldDetectNegativeCycles() {
+        var g = new AdjGraph(3);
+        g.addEdge(0, 1, 1);
+        g.addEdge(1, 2, -3);
+        g.addEdge(2, 0, 1);
+        for (var kernel : kernels()) {
+            assertThrows(IllegalStateException.class, () -> kernel.allPairsDistances(g));
+        }
+    }
+}
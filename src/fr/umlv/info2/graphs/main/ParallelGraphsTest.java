@@ -0,0 +1,181 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelGraphsTest {
+
+    @Test
+    public void shouldComputeDeltaStepping() throws IOException {
+        var g = Graph.loadGraph("data/5vertices_dijkstra.mat", "list");
+        var shortest = Graphs.deltaStepping(g, 0, 2);
+        assertArrayEquals(new int[] { 0, 2, 4, 3, 6 }, shortest.getD());
+        assertEquals(List.of(0, 1, 2), shortest.printShortestPath(2));
+    }
+
+    @Test
+    public void deltaSteppingShouldMatchDijkstra() {
+        var g = Graph.createRandomGraph(60, 400);
+        for (int delta : new int[] { 1, 3, 50 }) {
+            for (int v = 0 ; v < g.numberOfVertices() ; v += 7) {
+                assertArrayEquals(Graphs.dijkstra(g, v).getD(), Graphs.deltaStepping(g, v, delta).getD());
+            }
+        }
+        assertArrayEquals(Graphs.dijkstra(g, 0).getD(), Graphs.deltaStepping(g, 0).getD());
+    }
+
+    @Test
+    public void deltaSteppingShouldRejectNegativeWeights() throws IOException {
+        var g = Graph.loadGraph("data/6vertices_shortest2.mat", "matrix");
+        assertThrows(IllegalArgumentException.class, () -> Graphs.deltaStepping(g, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> Graphs.deltaStepping(g, 0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> Graphs.deltaStepping(g, 6, 1));
+    }
+
+    @Test
+    public void shouldComputeParallelSCC() throws IOException {
+        var g = Graph.loadGraph("data/9vertices_scc.mat", "list");
+        var components = Graphs.parallelScc(g);
+        assertArrayEquals(new int[] { 0, 1, 0, 2, 0, 0, 0, 2, 2 }, components);
+        assertEquals(List.of(List.of(0, 2, 4, 5, 6), List.of(1), List.of(3, 7, 8)),
+                Graphs.componentsToLists(components));
+    }
+
+    private static boolean[][] reachability(Graph g) {
+        int n = g.numberOfVertices();
+        var reach = new boolean[n][n];
+        for (int s = 0 ; s < n ; ++s) {
+            var row = reach[s];
+            var queue = new ArrayDeque<Integer>();
+            row[s] = true;
+            queue.add(s);
+            while (! queue.isEmpty()) {
+                g.forEachEdge(queue.poll(), e -> {
+                    if (! row[e.getEnd()]) {
+                        row[e.getEnd()] = true;
+                        queue.add(e.getEnd());
+                    }
+                });
+            }
+        }
+        return reach;
+    }
+
+    @Test
+    public void parallelSCCShouldGroupMutuallyReachableVertices() {
+        var g = Graph.createRandomGraph(80, 120);
+        var reach = reachability(g);
+        var components = Graphs.parallelScc(g);
+        for (int u = 0 ; u < 80 ; ++u) {
+            for (int v = 0 ; v < 80 ; ++v) {
+                assertEquals(reach[u][v] && reach[v][u], components[u] == components[v]);
+            }
+        }
+    }
+
+    @Test
+    public void shouldComputeWeaklyConnectedComponents() {
+        var g = new AdjGraph(6);
+        g.addEdge(0, 1, 1);
+        g.addEdge(2, 1, 1);
+        g.addEdge(4, 3, 1);
+        assertArrayEquals(new int[] { 0, 0, 0, 1, 1, 2 }, Graphs.weaklyConnectedComponents(g));
+    }
+
+    @Test
+    public void weaklyConnectedComponentsShouldIgnoreDirection() {
+        var g = Graph.createRandomGraph(80, 60);
+        var undirected = new AdjGraph(80);
+        for (int v = 0 ; v < 80 ; ++v) {
+            g.forEachEdge(v, e -> {
+                undirected.addEdge(e.getStart(), e.getEnd(), 1);
+                undirected.addEdge(e.getEnd(), e.getStart(), 1);
+            });
+        }
+        var reach = reachability(undirected);
+        var components = Graphs.weaklyConnectedComponents(g);
+        for (int u = 0 ; u < 80 ; ++u) {
+            for (int v = 0 ; v < 80 ; ++v) {
+                assertEquals(reach[u][v], components[u] == components[v]);
+            }
+        }
+    }
+
+    @Test
+    public void transitiveClosureShouldMatchTraversals() {
+        var g = Graph.createRandomGraph(100, 130);
+        var reach = reachability(g);
+        var closure = Graphs.transitiveClosure(g);
+        var index = Graphs.reachabilityIndex(g);
+        for (int u = 0 ; u < 100 ; ++u) {
+            int count = 0;
+            for (int v = 0 ; v < 100 ; ++v) {
+                assertEquals(reach[u][v], closure.isReachable(u, v));
+                assertEquals(reach[u][v], index.isReachable(u, v));
+                if (reach[u][v]) {
+                    count++;
+                }
+            }
+            assertEquals(count, closure.countReachable(u));
+        }
+    }
+
+    @Test
+    public void shouldComputeReachabilityOnAcyclicGraph() throws IOException {
+        var g = Graph.loadGraph("data/14edges_acyclic.mat", "list");
+        var index = Graphs.reachabilityIndex(g, 1, 42);
+        var closure = Graphs.transitiveClosure(g);
+        var reach = reachability(g);
+        for (int u = 0 ; u < g.numberOfVertices() ; ++u) {
+            for (int v = 0 ; v < g.numberOfVertices() ; ++v) {
+                assertEquals(reach[u][v], index.isReachable(u, v));
+                assertEquals(reach[u][v], closure.isReachable(u, v));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> Graphs.reachabilityIndex(g, 0, 42));
+    }
+
+    @Test
+    public void shouldComputeMultiSourceBFS() throws IOException {
+        var g = Graph.loadGraph("data/7vertices_traversal.mat", "list");
+        var distances = Graphs.multiSourceBFS(g, new int[] { 0, 6, 5 });
+        assertArrayEquals(new int[] { 0, 1, 1, 2, -1, -1, -1 }, distances.getDistances(0));
+        assertArrayEquals(new int[] { -1, -1, 3, 2, 1, 1, 0 }, distances.getDistances(1));
+        assertArrayEquals(new int[] { -1, -1, -1, -1, -1, 0, -1 }, distances.getDistances(2));
+        assertEquals(6, distances.getSource(1));
+        assertEquals(0, distances.closeness(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> Graphs.multiSourceBFS(g, new int[] { 7 }));
+    }
+
+    @Test
+    public void multiSourceBFSShouldMatchSingleSourceSearches() {
+        var g = Graph.createRandomGraph(150, 400);
+        var distances = Graphs.allPairsHopDistances(g);
+        for (int s = 0 ; s < 150 ; ++s) {
+            var expected = new int[150];
+            Arrays.fill(expected, -1);
+            expected[s] = 0;
+            var queue = new ArrayDeque<Integer>();
+            queue.add(s);
+            while (! queue.isEmpty()) {
+                int v = queue.poll();
+                g.forEachEdge(v, e -> {
+                    if (expected[e.getEnd()] == -1) {
+                        expected[e.getEnd()] = expected[v] + 1;
+                        queue.add(e.getEnd());
+                    }
+                });
+            }
+            assertArrayEquals(expected, distances.getDistances(s));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.CsrGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RandomGraphsTest {
+
+    private static void assertSameGraph(Graph expected, Graph actual) {
+        assertEquals(expected.numberOfVertices(), actual.numberOfVertices());
+        assertEquals(expected.numberOfEdges(), actual.numberOfEdges());
+        for (int v = 0 ; v < expected.numberOfVertices() ; ++v) {
+            var it = actual.edgeIterator(v);
+            expected.forEachEdge(v, e -> assertEquals(e, it.next()));
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    void shouldBuildCsrGraphFromEdges() {
+        var g = CsrGraph.fromEdges(4, new int[] { 2, 0, 0, 2, 0 }, new int[] { 1, 3, 1, 1, 3 },
+                new int[] { 5, 2, 7, -1, 4 });
+        assertEquals(3, g.numberOfEdges());
+        assertEquals(7, g.getWeight(0, 1));
+        assertEquals(2, g.getWeight(0, 3));
+        assertEquals(-1, g.getWeight(2, 1));
+        assertFalse(g.isEdge(1, 2));
+        assertThrows(UnsupportedOperationException.class, () -> g.addEdge(1, 2, 1));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> CsrGraph.fromEdges(2, new int[] { 0 }, new int[] { 2 }, new int[] { 1 }));
+    }
+
+    @Test
+    void shouldCopyAGraph() {
+        var g = Graph.createRandomGraph(20, 50);
+        var copy = CsrGraph.copyOf(g);
+        assertSameGraph(g, copy);
+    }
+
+    @Test
+    void shouldGenerateGnm() {
+        var g = RandomGraphs.gnm(100, 700, 10, 42);
+        assertEquals(100, g.numberOfVertices());
+        assertEquals(700, g.numberOfEdges());
+        assertSameGraph(g, RandomGraphs.gnm(100, 700, 10, 42));
+        var dense = RandomGraphs.gnm(10, 95, 10, 42);
+        assertEquals(95, dense.numberOfEdges());
+        assertThrows(IllegalArgumentException.class, () -> RandomGraphs.gnm(10, 101, 10, 42));
+    }
+
+    @Test
+    void shouldGenerateGnp() {
+        var g = RandomGraphs.gnp(1000, 0.01, 10, 7);
+        assertTrue(g.numberOfEdges() > 9000 && g.numberOfEdges() < 11000);
+        assertSameGraph(g, RandomGraphs.gnp(1000, 0.01, 10, 7));
+        assertEquals(0, RandomGraphs.gnp(10, 0, 10, 7).numberOfEdges());
+        assertEquals(100, RandomGraphs.gnp(10, 1, 10, 7).numberOfEdges());
+    }
+
+    @Test
+    void shouldGenerateRmat() {
+        var g = RandomGraphs.rmat(10, 8000, 10, 3);
+        assertEquals(1024, g.numberOfVertices());
+        assertTrue(g.numberOfEdges() <= 8000);
+        assertSameGraph(g, RandomGraphs.rmat(10, 8000, 10, 3));
+    }
+
+    @Test
+    void shouldGenerateBarabasiAlbert() {
+        var g = RandomGraphs.barabasiAlbert(500, 3, 10, 5);
+        assertTrue(g.numberOfEdges() <= 1500);
+        for (int v = 0 ; v < 500 ; ++v) {
+            int source = v;
+            g.forEachEdge(v, e -> assertTrue(e.getEnd() <= source));
+            g.forEachEdge(v, e -> assertTrue(e.getValue() >= 1 && e.getValue() <= 10));
+        }
+        assertSameGraph(g, RandomGraphs.barabasiAlbert(500, 3, 10, 5));
+    }
+}
@@ -0,0 +1,126 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.ResumableGraphs;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResumableGraphsTest {
+
+    @SuppressWarnings("serial")
+    private static final class Crash extends RuntimeException {
+    }
+
+    @Test
+    void shouldResumeFloydWarshallFromCheckpoint(@TempDir Path dir) throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "matrix");
+        var checkpoint = dir.resolve("fw.ckpt");
+        assertThrows(Crash.class, () -> ResumableGraphs.floydWarshall(g, checkpoint, Duration.ZERO, (done, total) -> {
+            if (done == 3) {
+                throw new Crash();
+            }
+        }));
+        assertTrue(Files.exists(checkpoint));
+        var steps = new ArrayList<Long>();
+        var result = ResumableGraphs.floydWarshall(g, checkpoint, Duration.ZERO, (done, total) -> steps.add(done));
+        assertEquals(4L, steps.get(0));
+        assertEquals(Graphs.floydWarshall(g).toString(), result.toString());
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void shouldRejectCheckpointOfAnotherGraph(@TempDir Path dir) throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "list");
+        var checkpoint = dir.resolve("fw.ckpt");
+        assertThrows(Crash.class, () -> ResumableGraphs.floydWarshall(g, checkpoint, Duration.ZERO, (done, total) -> {
+            throw new Crash();
+        }));
+        g.addEdge(0, 7, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> ResumableGraphs.floydWarshall(g, checkpoint, Duration.ZERO, null));
+    }
+
+    @Test
+    void shouldRejectCorruptedFloydWarshallCheckpoint(@TempDir Path dir) throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "matrix");
+        var checkpoint = dir.resolve("fw.ckpt");
+        assertThrows(Crash.class, () -> ResumableGraphs.floydWarshall(g, checkpoint, Duration.ZERO, (done, total) -> {
+            throw new Crash();
+        }));
+        var bytes = Files.readAllBytes(checkpoint);
+        Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length - 2)); // a value cut in the middle
+        assertThrows(UncheckedIOException.class,
+                () -> ResumableGraphs.floydWarshall(g, checkpoint, Duration.ZERO, null));
+        for (int k : new int[] { -1, 8 }) {
+            ByteBuffer.wrap(bytes).putInt(16, k);
+            Files.write(checkpoint, bytes);
+            assertThrows(UncheckedIOException.class,
+                    () -> ResumableGraphs.floydWarshall(g, checkpoint, Duration.ZERO, null));
+        }
+    }
+
+    @Test
+    void shouldMatchFloydWarshallWithNegativeWeights(@TempDir Path dir) {
+        var random = new Random(2);
+        var g = new AdjGraph(30);
+        for (int k = 0 ; k < 150 ; ++k) { // edges from smaller to greater vertices, so there is no cycle
+            int s = random.nextInt(29);
+            int t = s + 1 + random.nextInt(29 - s);
+            int w = random.nextInt(16) - 5;
+            if (w != 0 && ! g.isEdge(s, t)) {
+                g.addEdge(s, t, w);
+            }
+        }
+        var checkpoint = dir.resolve("johnson.ckpt");
+        var result = ResumableGraphs.johnson(g, checkpoint, Duration.ZERO, null);
+        assertArrayEquals(Graphs.floydWarshall(g).getD(), result.getD());
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void shouldResumeJohnsonAndDiscardTornRecord(@TempDir Path dir) throws IOException {
+        var g = RandomGraphs.gnm(60, 400, 20, 9);
+        var checkpoint = dir.resolve("johnson.ckpt");
+        assertThrows(Crash.class, () -> ResumableGraphs.johnson(g, checkpoint, Duration.ZERO, (done, total) -> {
+            if (done == 10) {
+                throw new Crash();
+            }
+        }));
+        // a crash in the middle of a write leaves a partial record at the end of the log
+        Files.write(checkpoint, new byte[100], StandardOpenOption.APPEND);
+        var first = new long[] { -1 };
+        var result = ResumableGraphs.johnson(g, checkpoint, Duration.ZERO, (done, total) -> {
+            if (first[0] < 0) {
+                first[0] = done;
+            }
+        });
+        assertTrue(first[0] > 10);
+        assertArrayEquals(Graphs.floydWarshall(g).getD(), result.getD());
+    }
+
+    @Test
+    void shouldDetectNegativeCycle(@TempDir Path dir) {
+        var g = new AdjGraph(4);
+        g.addEdge(2, 3, 1);
+        g.addEdge(0, 1, -50);
+        g.addEdge(1, 0, -50);
+        assertThrows(IllegalStateException.class,
+                () -> ResumableGraphs.johnson(g, dir.resolve("c"), Duration.ZERO, null));
+    }
+}
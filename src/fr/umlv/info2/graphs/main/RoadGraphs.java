@@ -0,0 +1,36 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Graph;
+
+import java.util.Random;
+
+/**
+ * Graphs shared by the tests of the point to point shortest path algorithms.
+ */
+final class RoadGraphs {
+    private RoadGraphs() {
+    }
+
+    /**
+     * Road-like graph : a width * height grid with random weights in both directions.
+     */
+    static Graph roadGrid(int width, int height, long seed) {
+        var random = new Random(seed);
+        var g = new AdjGraph(width * height);
+        for (int y = 0 ; y < height ; ++y) {
+            for (int x = 0 ; x < width ; ++x) {
+                int v = x + y * width;
+                if (x < width - 1) {
+                    g.addEdge(v, v + 1, 1 + random.nextInt(10));
+                    g.addEdge(v + 1, v, 1 + random.nextInt(10));
+                }
+                if (y < height - 1) {
+                    g.addEdge(v, v + width, 1 + random.nextInt(10));
+                    g.addEdge(v + width, v, 1 + random.nextInt(10));
+                }
+            }
+        }
+        return g;
+    }
+}
@@ -0,0 +1,113 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.MatGraph;
+import fr.umlv.info2.graphs.ShortestPathCache;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortestPathCacheTest {
+
+    @Test
+    void shouldBumpModificationCountOnAddEdge() {
+        var mat = new MatGraph(3);
+        var list = new AdjGraph(3);
+        assertEquals(0, mat.modificationCount());
+        assertEquals(0, list.modificationCount());
+        mat.addEdge(0, 1, 2);
+        list.addEdge(0, 1, 2);
+        assertEquals(1, mat.modificationCount());
+        assertEquals(1, list.modificationCount());
+        list.addEdge(0, 1, 2); // already there, the graph does not change
+        assertEquals(1, list.modificationCount());
+    }
+
+    @Test
+    void shouldReuseResultUntilGraphChanges() throws IOException {
+        var g = Graph.loadGraph("data/5vertices_dijkstra.mat", "list");
+        var cache = new ShortestPathCache(g, 1 << 20);
+        var first = cache.dijkstra(0);
+        assertArrayEquals(Graphs.dijkstra(g, 0).getD(), first.getD());
+        assertSame(first, cache.dijkstra(0));
+        assertNotSame(first, cache.bellmanFord(0));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        g.addEdge(0, 4, 1);
+        var second = cache.dijkstra(0);
+        assertNotSame(first, second);
+        assertEquals(1, second.getD()[4]);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        var g = RandomGraphs.gnm(100, 500, 10, 1);
+        long oneResult = 8 * 100 + 128;
+        var cache = new ShortestPathCache(g, 3 * oneResult);
+        var r0 = cache.dijkstra(0);
+        cache.dijkstra(1);
+        cache.dijkstra(2);
+        assertSame(r0, cache.dijkstra(0)); // 1 is now the least recently used
+        cache.dijkstra(3);
+        assertEquals(3, cache.size());
+        assertEquals(3 * oneResult, cache.getBytes());
+        assertSame(r0, cache.dijkstra(0));
+        long misses = cache.getMisses();
+        cache.dijkstra(1);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    void shouldComputeOnceForConcurrentReaders() throws InterruptedException, ExecutionException {
+        var g = RandomGraphs.gnm(2000, 20000, 100, 5);
+        var cache = new ShortestPathCache(g, 1 << 24);
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var tasks = new ArrayList<Callable<int[]>>();
+            for (int i = 0 ; i < 40 ; ++i) {
+                int source = i % 4;
+                tasks.add(() -> cache.dijkstra(source).getD());
+            }
+            var futures = executor.invokeAll(tasks);
+            for (int i = 0 ; i < 40 ; ++i) {
+                assertArrayEquals(Graphs.dijkstra(g, i % 4).getD(), futures.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(4, cache.getMisses());
+        assertEquals(36, cache.getHits());
+    }
+
+    @Test
+    void shouldNotCacheFailures() throws IOException {
+        var g = Graph.loadGraph("data/5vertices_dijkstra.mat", "list");
+        var cache = new ShortestPathCache(g, 1 << 20);
+        assertThrows(IndexOutOfBoundsException.class, () -> cache.dijkstra(5));
+        assertThrows(IllegalArgumentException.class, () -> new ShortestPathCache(g, 0));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldRecomputeAfterFailedComputation() throws IOException {
+        var g = Graph.loadGraph("data/6vertices_shortest2.mat", "list");
+        var cache = new ShortestPathCache(g, 1 << 20);
+        assertThrows(IllegalStateException.class, () -> cache.bellmanFord(0)); // negative cycle
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+        assertThrows(IllegalStateException.class, () -> cache.bellmanFord(0));
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,80 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.Edge;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraversalsTest {
+
+    @Test
+    void shouldFollowSameOrderAsBFSAndDFS() throws IOException {
+        var g = Graph.loadGraph("data/7vertices_traversal.mat", "list");
+        var bfs = Graphs.bfsStream(g, 0).boxed().collect(Collectors.toList());
+        var dfs = Graphs.dfsStream(g, 0).boxed().collect(Collectors.toList());
+        assertEquals(Graphs.BFS(g, 0).subList(0, bfs.size()), bfs);
+        assertEquals(Graphs.DFS(g, 0).subList(0, dfs.size()), dfs);
+    }
+
+    @Test
+    void shouldMatchOnRandomGraphs() {
+        var g = RandomGraphs.gnm(500, 600, 1, 3);
+        for (int v0 = 0 ; v0 < 500 ; v0 += 50) {
+            var bfs = new ArrayList<Integer>();
+            Graphs.bfsIterator(g, v0).forEachRemaining((int v) -> bfs.add(v));
+            var dfs = new ArrayList<Integer>();
+            Graphs.dfsIterator(g, v0).forEachRemaining((int v) -> dfs.add(v));
+            assertEquals(bfs.size(), dfs.size());
+            assertEquals(Graphs.BFS(g, v0).subList(0, bfs.size()), bfs);
+            assertEquals(Graphs.DFS(g, v0).subList(0, dfs.size()), dfs);
+        }
+    }
+
+    @Test
+    void shouldOnlyExploreWhatIsConsumed() {
+        var g = RandomGraphs.gnm(2000, 40000, 1, 5);
+        var scanned = new LongAdder();
+        var counting = new Graph() {
+            // graph counting the vertices whose edges are scanned
+            public int numberOfEdges() { return g.numberOfEdges(); }
+            public int numberOfVertices() { return g.numberOfVertices(); }
+            public void addEdge(int i, int j, int value) { throw new UnsupportedOperationException(); }
+            public boolean isEdge(int i, int j) { return g.isEdge(i, j); }
+            public int getWeight(int i, int j) { return g.getWeight(i, j); }
+            public Iterator<Edge> edgeIterator(int i) { return g.edgeIterator(i); }
+            public void forEachEdge(int i, Consumer<Edge> consumer) {
+                scanned.increment();
+                g.forEachEdge(i, consumer);
+            }
+            public String toGraphviz() { return g.toGraphviz(); }
+        };
+        assertEquals(10, Graphs.bfsStream(counting, 0).limit(10).count());
+        assertTrue(scanned.sum() <= 10);
+        scanned.reset();
+        int target = Graphs.BFS(g, 0).get(100);
+        assertTrue(Graphs.dfsStream(counting, 0).anyMatch(v -> v == target));
+        assertTrue(scanned.sum() < 2000);
+    }
+
+    @Test
+    void shouldRejectInvalidStart() {
+        var g = RandomGraphs.gnm(10, 10, 1, 1);
+        assertThrows(IndexOutOfBoundsException.class, () -> Graphs.bfsIterator(g, 10));
+        var it = Graphs.dfsIterator(g, 0);
+        while (it.hasNext()) {
+            it.nextInt();
+        }
+        assertThrows(NoSuchElementException.class, it::nextInt);
+    }
+}
@@ -0,0 +1,100 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.AdjGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.VersionedGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionedGraphTest {
+
+    private static void assertSameEdges(Graph expected, Graph actual) {
+        assertEquals(expected.numberOfEdges(), actual.numberOfEdges());
+        for (int s = 0 ; s < expected.numberOfVertices() ; ++s) {
+            for (int t = 0 ; t < expected.numberOfVertices() ; ++t) {
+                assertEquals(expected.isEdge(s, t), actual.isEdge(s, t));
+                assertEquals(expected.getWeight(s, t), actual.getWeight(s, t));
+            }
+            int[] degree = new int[1];
+            actual.forEachEdge(s, e -> degree[0]++);
+            int[] expectedDegree = new int[1];
+            expected.forEachEdge(s, e -> expectedDegree[0]++);
+            assertEquals(expectedDegree[0], degree[0]);
+        }
+    }
+
+    @Test
+    void shouldKeepSnapshotUnchanged() {
+        var g = new VersionedGraph(4);
+        g.addEdge(0, 1, 2);
+        g.addEdge(1, 2, 3);
+        var snapshot = g.snapshot();
+        g.addEdge(2, 3, 1);
+        g.addEdge(0, 1, 7); // replaces the weight
+        assertEquals(2, snapshot.numberOfEdges());
+        assertFalse(snapshot.isEdge(2, 3));
+        assertEquals(2, snapshot.getWeight(0, 1));
+        assertEquals(3, g.numberOfEdges());
+        assertEquals(7, g.getWeight(0, 1));
+        assertEquals(4, g.modificationCount());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.addEdge(0, 2, 1));
+        assertArrayEquals(new int[] { 0, 2, 5, Integer.MAX_VALUE }, Graphs.dijkstra(snapshot, 0).getD());
+        assertArrayEquals(new int[] { 0, 7, 10, 11 }, Graphs.dijkstra(g, 0).getD());
+    }
+
+    @Test
+    void shouldCompactWithoutChangingTheGraph() {
+        var random = new Random(1);
+        var executor = Executors.newSingleThreadExecutor();
+        var g = new VersionedGraph(50, 100, executor);
+        var expected = new AdjGraph(50);
+        var expectedWeights = new int[50][50];
+        for (int k = 0 ; k < 1500 ; ++k) {
+            int s = random.nextInt(50);
+            int t = random.nextInt(50);
+            int w = 1 + random.nextInt(9);
+            g.addEdge(s, t, w);
+            expectedWeights[s][t] = w;
+        }
+        g.compact();
+        assertEquals(0, g.deltaSize());
+        for (int s = 0 ; s < 50 ; ++s) {
+            for (int t = 0 ; t < 50 ; ++t) {
+                if (expectedWeights[s][t] != 0) {
+                    expected.addEdge(s, t, expectedWeights[s][t]);
+                }
+            }
+        }
+        assertSameEdges(expected, g);
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldReadStableSnapshotsWhileWriting() throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(2);
+        var g = new VersionedGraph(100, 64, executor);
+        var random = new Random(5);
+        for (int k = 0 ; k < 2000 ; ++k) {
+            g.addEdge(random.nextInt(100), random.nextInt(100), 1 + random.nextInt(20));
+            if (k % 250 == 0) {
+                var snapshot = g.snapshot();
+                var before = Graphs.floydWarshall(snapshot).toString();
+                for (int i = 0 ; i < 50 ; ++i) {
+                    g.addEdge(random.nextInt(100), random.nextInt(100), 1 + random.nextInt(20));
+                }
+                assertEquals(before, Graphs.floydWarshall(snapshot).toString());
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        int edges = g.numberOfEdges();
+        g.compact();
+        assertEquals(edges, g.numberOfEdges());
+    }
+}
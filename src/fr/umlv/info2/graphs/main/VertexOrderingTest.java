@@ -0,0 +1,102 @@
+package fr.umlv.info2.graphs.main;
+
+import fr.umlv.info2.graphs.CsrGraph;
+import fr.umlv.info2.graphs.Graph;
+import fr.umlv.info2.graphs.Graphs;
+import fr.umlv.info2.graphs.VertexOrdering;
+import fr.umlv.info2.graphs.generators.RandomGraphs;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VertexOrderingTest {
+
+    private static final List<Function<Graph, VertexOrdering>> ORDERINGS =
+            List.of(VertexOrdering::reverseCuthillMcKee, VertexOrdering::degreeDescending, VertexOrdering::bfs);
+
+    @Test
+    void shouldComputePermutations() {
+        var g = RandomGraphs.gnm(300, 900, 10, 4);
+        for (var ordering : ORDERINGS) {
+            var order = ordering.apply(g);
+            int[] sorted = order.toArray();
+            Arrays.sort(sorted);
+            for (int v = 0 ; v < 300 ; ++v) {
+                assertEquals(v, sorted[v]);
+                assertEquals(v, order.toOld(order.toNew(v)));
+            }
+        }
+    }
+
+    @Test
+    void shouldRelabelEdges() throws IOException {
+        var g = Graph.loadGraph("data/8vertices_shortest.mat", "list");
+        for (var ordering : ORDERINGS) {
+            var order = ordering.apply(g);
+            var relabelled = order.apply(g);
+            assertEquals(g.numberOfEdges(), relabelled.numberOfEdges());
+            for (int s = 0 ; s < 8 ; ++s) {
+                for (int t = 0 ; t < 8 ; ++t) {
+                    assertEquals(g.getWeight(s, t), relabelled.getWeight(order.toNew(s), order.toNew(t)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldTranslateResultsBack() {
+        var g = RandomGraphs.gnm(200, 800, 20, 8);
+        var order = VertexOrdering.reverseCuthillMcKee(g);
+        var relabelled = order.apply(g);
+        var expected = Graphs.dijkstra(g, 5);
+        var translated = order.toOriginal(Graphs.dijkstra(relabelled, order.toNew(5)));
+        assertEquals(5, translated.getSource());
+        assertArrayEquals(expected.getD(), translated.getD());
+        for (int v = 0 ; v < 200 ; ++v) {
+            int p = translated.getPi()[v];
+            if (v != 5 && p != Integer.MIN_VALUE) {
+                assertEquals(translated.getD()[v], translated.getD()[p] + g.getWeight(p, v));
+            }
+        }
+        assertArrayEquals(Graphs.floydWarshall(g).getD(), order.toOriginal(Graphs.floydWarshall(relabelled)).getD());
+        var components = order.toOriginal(Graphs.parallelScc(relabelled));
+        var expectedComponents = Graphs.parallelScc(g);
+        for (int u = 0 ; u < 200 ; ++u) {
+            for (int v = 0 ; v < 200 ; ++v) {
+                assertEquals(expectedComponents[u] == expectedComponents[v], components[u] == components[v]);
+            }
+        }
+    }
+
+    @Test
+    void shouldReduceBandwidthOfAPath() {
+        // a path whose vertices are shuffled : RCM gives back consecutive ids
+        int n = 100;
+        var shuffled = new ArrayList<Integer>();
+        for (int v = 0 ; v < n ; ++v) {
+            shuffled.add(v);
+        }
+        Collections.shuffle(shuffled, new Random(2));
+        int[] sources = new int[n - 1];
+        int[] targets = new int[n - 1];
+        for (int k = 0 ; k + 1 < n ; ++k) {
+            sources[k] = shuffled.get(k);
+            targets[k] = shuffled.get(k + 1);
+        }
+        var g = CsrGraph.fromEdges(n, sources, targets, new int[n - 1]);
+        var relabelled = VertexOrdering.reverseCuthillMcKee(g).apply(g);
+        for (int v = 0 ; v < n ; ++v) {
+            int s = v;
+            relabelled.forEachEdge(v, e -> assertEquals(1, Math.abs(e.getEnd() - s)));
+        }
+        assertThrows(IllegalArgumentException.class, () -> VertexOrdering.of(new int[] { 0, 0 }));
+    }
+}